@@ -19,6 +19,7 @@ package com.metreeca.rdf4j.services;
 import com.metreeca.json.Frame;
 import com.metreeca.rest.*;
 import com.metreeca.rest.services.Logger;
+import com.metreeca.rest.services.Metrics;
 
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
@@ -38,6 +39,7 @@ import static com.metreeca.rest.Toolbox.service;
 import static com.metreeca.rest.Xtream.task;
 import static com.metreeca.rest.services.Logger.logger;
 import static com.metreeca.rest.services.Logger.time;
+import static com.metreeca.rest.services.Metrics.metrics;
 
 import static org.eclipse.rdf4j.query.QueryLanguage.SPARQL;
 
@@ -117,6 +119,7 @@ public final class Graph implements AutoCloseable {
 
 		final Graph graph=service(graph());
 		final Logger logger=service(logger());
+		final Metrics metrics=service(metrics());
 
 		return query.isEmpty() ? (message, frame) -> frame : (message, frame) -> graph.query(connection -> {
 
@@ -132,11 +135,13 @@ public final class Graph implements AutoCloseable {
 
 					new StatementCollector(model)
 
-			)).apply(elapsed ->
+			)).apply(elapsed -> {
 
-					logger.debug(Graph.class, () -> format("evaluated in <%,d> ms", elapsed))
+				logger.debug(Graph.class, () -> format("evaluated in <%,d> ms", elapsed));
 
-			);
+				metrics.histogram("graph_query_seconds").record(elapsed/1000.0);
+
+			});
 
 			return frame(frame.focus(), model);
 
@@ -171,6 +176,7 @@ public final class Graph implements AutoCloseable {
 
 		final Graph graph=service(graph());
 		final Logger logger=service(logger());
+		final Metrics metrics=service(metrics());
 
 		return update.isEmpty() ? message -> message : message -> graph.update(connection -> {
 
@@ -180,11 +186,13 @@ public final class Graph implements AutoCloseable {
 
 					message, connection.prepareUpdate(SPARQL, update, message.request().base()), customizers
 
-			).execute()).apply(elapsed ->
+			).execute()).apply(elapsed -> {
+
+				logger.debug(Graph.class, () -> format("evaluated in <%,d> ms", elapsed));
 
-					logger.debug(Graph.class, () -> format("evaluated in <%,d> ms", elapsed))
+				metrics.histogram("graph_update_seconds").record(elapsed/1000.0);
 
-			);
+			});
 
 			return message;
 
@@ -22,6 +22,7 @@ import com.metreeca.json.shapes.*;
 import com.metreeca.rest.Config;
 import com.metreeca.rest.Scribe;
 import com.metreeca.rest.services.Logger;
+import com.metreeca.rest.services.Metrics;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
@@ -65,8 +66,10 @@ import static com.metreeca.rest.Scribe.indent;
 import static com.metreeca.rest.Scribe.text;
 import static com.metreeca.rest.Scribe.*;
 import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.Tracing.span;
 import static com.metreeca.rest.services.Logger.logger;
 import static com.metreeca.rest.services.Logger.time;
+import static com.metreeca.rest.services.Metrics.metrics;
 
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
@@ -107,6 +110,7 @@ abstract class GraphFacts {
 	private int label=1; // the next label available for tagging (0 reserved for the root node)
 
 	private final Logger logger=service(logger());
+	private final Metrics metrics=service(metrics());
 
 
 	GraphFacts(final Config config) {
@@ -127,20 +131,25 @@ abstract class GraphFacts {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	String compile(final Supplier<String> generator) {
-		return time(generator).apply((t, v) -> logger
+		return span(getClass(), "compile", () -> time(generator).apply((t, v) -> {
 
-				.debug(this, () -> format("executing %s", v))
-				.debug(this, () -> format("generated in <%,d> ms", t))
+			logger
+					.debug(this, () -> format("executing %s", v))
+					.debug(this, () -> format("generated in <%,d> ms", t));
 
-		);
+			metrics.histogram("graph_compile_seconds").record(t/1000.0);
+
+		}));
 	}
 
 	void evaluate(final Runnable task) {
-		time(task).apply(t -> logger
+		span(getClass(), "evaluate", () -> time(task).apply(t -> {
 
-				.debug(this, () -> format("evaluated in <%,d> ms", t))
+			logger.debug(this, () -> format("evaluated in <%,d> ms", t));
 
-		);
+			metrics.histogram("graph_evaluate_seconds").record(t/1000.0);
+
+		}));
 	}
 
 
@@ -198,12 +198,10 @@ final class GraphStats extends GraphFacts {
 					.reduce(BigInteger.ZERO, BigInteger::add)
 			)));
 
-			mins.stream()
-					.reduce((x, y) -> compare(x, y) < 0 ? x : y)
+			least(mins.stream())
 					.ifPresent(min -> model.add(statement((Resource)focus, Engine.min, min)));
 
-			maxs.stream()
-					.reduce((x, y) -> compare(x, y) > 0 ? x : y)
+			greatest(maxs.stream())
 					.ifPresent(max -> model.add(statement((Resource)focus, Engine.max, max)));
 
 			return frame(focus, model);
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.json.Frame;
+import com.metreeca.rest.Toolbox;
+import com.metreeca.rest.services.Logger;
+import com.metreeca.text.*;
+import com.metreeca.text.linkers.GraphLinker;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.text;
+import static com.metreeca.json.Frame.frame;
+import static com.metreeca.json.Values.iri;
+
+/**
+ * Linker alignment benchmarks.
+ *
+ * <p>Aligns a fixed set of candidate labels to book-length texts, isolating anchor alignment and overlap pruning
+ * from candidate matching.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=5)
+@Measurement(iterations=5, time=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlignmentBench {
+
+	private static final List<String> Labels=List.of(
+			"Rome", "Paris", "Berlin", "Madrid", "London", "Geneva", "New York",
+			"Italy", "France", "Germany", "Spain", "United States",
+			"European Union", "United Nations", "Alps", "Rhine", "Danube", "Thames",
+			"Leonardo da Vinci", "Marie Curie", "Albert Einstein", "York", "Union"
+	);
+
+
+	@Param({ "100000", "1000000" }) public int chars;
+
+
+	private Toolbox toolbox;
+
+	private Chunk chunk;
+	private GraphLinker linker;
+
+
+	@Setup public void setup() {
+
+		Logger.Level.warning.log("com.metreeca"); // keep per-document reports out of measurements
+
+		toolbox=new Toolbox();
+
+		chunk=new PatternTokenizer().defaults().apply(new Token(text("en", chars)));
+
+		toolbox.exec(() -> linker=new GraphLinker().matcher(anchors -> Labels.stream().map(label ->
+				new Match<String, Frame>(label, frame(iri("app://bench.metreeca.com/entities/", label.replace(' ', '_'))))
+		)));
+	}
+
+	@TearDown public void teardown() {
+		toolbox.clear();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public void align(final Chars counter, final Blackhole blackhole) {
+
+		counter.chars+=chunk.length();
+
+		toolbox.exec(() -> blackhole.consume(linker.apply(chunk).count()));
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Character throughput counter.
+ *
+ * <p>Reported by JMH as a secondary {@code chars} result, normalized to the benchmark time unit.</p>
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Chars { // non-final: subclassed by JMH
+
+	public long chars;
+
+
+	@Setup(Level.Iteration) public void reset() {
+		chars=0;
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.rest.actions.Clean;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.text;
+
+/**
+ * Text normalization benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CleanBench {
+
+	@Param({ "en", "it", "de", "fr", "es" }) public String lang;
+	@Param({ "100000" }) public int chars;
+
+
+	private String text;
+
+	private Clean clean;
+
+
+	@Setup public void setup() {
+		text=text(lang, chars);
+		clean=new Clean().space(true).marks(true).smart(true);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public String normalize(final Chars counter) {
+
+		counter.chars+=text.length();
+
+		return Clean.lower(Clean.normalize(text));
+	}
+
+	@Benchmark public String clean(final Chars counter) {
+
+		counter.chars+=text.length();
+
+		return clean.apply(text);
+	}
+
+}
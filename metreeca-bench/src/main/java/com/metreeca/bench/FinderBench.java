@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.text.*;
+import com.metreeca.text.finders.ModelFinder;
+import com.metreeca.text.finders.NGramFinder;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.text;
+import static com.metreeca.text.Model.seq;
+import static com.metreeca.text.Model.test;
+
+/**
+ * Finder benchmarks.
+ *
+ * <p>Compares {@link ModelFinder} single-pass scanning with the legacy strategy of probing the model at each token
+ * offset on chunks of increasing length.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FinderBench {
+
+	private static final Set<String> Links=Set.of("da", "de", "di", "del", "von", "of");
+
+	private static final Model<Token> Upper=test(Token::isUpper);
+	private static final Model<Token> Link=test(token -> Links.contains(token.text()));
+
+	private static final Model<Token> Name=seq(Upper.plus(), seq(Link, Upper.plus()).star());
+
+
+	@Param({ "en", "it", "de", "fr", "es" }) public String lang;
+	@Param({ "1000", "100000" }) public int chars;
+
+
+	private Chunk chunk;
+
+	private NGramFinder ngrams;
+	private ModelFinder names;
+
+
+	@Setup public void setup() {
+
+		chunk=new PatternTokenizer().defaults().apply(new Token(text(lang, chars)));
+
+		ngrams=new NGramFinder(1, 3);
+		names=new ModelFinder(ModelFinder.Entity, Name);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public long ngrams(final Chars counter) {
+
+		counter.chars+=chunk.length();
+
+		return ngrams.apply(chunk).count();
+	}
+
+	@Benchmark public long model(final Chars counter) {
+
+		counter.chars+=chunk.length();
+
+		return names.apply(chunk).count();
+	}
+
+	@Benchmark public long modelLegacy(final Chars counter) { // per-offset probing on suffix views
+
+		counter.chars+=chunk.length();
+
+		final List<Token> tokens=chunk.tokens();
+
+		long count=0;
+
+		for (int l, i=0, n=tokens.size(); i < n; i+=(l > 0) ? l : 1) {
+			if ( (l=Name.find(tokens.subList(i, n))) > 0 ) { ++count; }
+		}
+
+		return count;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.rest.Toolbox;
+import com.metreeca.text.Chunk;
+import com.metreeca.text.Token;
+import com.metreeca.text.linkers.GraphLinker;
+import com.metreeca.text.matchers.*;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.text;
+
+/**
+ * Linker benchmarks.
+ *
+ * <p>Links the corpus text against the benchmark entities in an in-memory store, using alternative matchers.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=5)
+@Measurement(iterations=5, time=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkerBench {
+
+	@Param({ "en", "it", "de", "fr", "es" }) public String lang;
+
+
+	private Toolbox toolbox;
+
+	private Chunk chunk;
+
+	private GraphLinker sparql;
+	private GraphLinker cached;
+	private GraphLinker gazetteer;
+
+
+	@Setup public void setup() {
+
+		toolbox=Store.toolbox();
+
+		chunk=new PatternTokenizer().defaults().apply(new Token(text(lang)));
+
+		toolbox.exec(() -> {
+
+			sparql=new GraphLinker().matcher(new SPARQLMatcher().languages(Texts.Languages));
+			cached=new GraphLinker().matcher(new CachingMatcher(new SPARQLMatcher().languages(Texts.Languages)));
+			gazetteer=new GraphLinker().matcher(new GazetteerMatcher().languages(Texts.Languages));
+
+		});
+	}
+
+	@TearDown public void teardown() {
+		toolbox.clear();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public void sparql(final Chars counter, final Blackhole blackhole) {
+		link(sparql, counter, blackhole);
+	}
+
+	@Benchmark public void cached(final Chars counter, final Blackhole blackhole) {
+		link(cached, counter, blackhole);
+	}
+
+	@Benchmark public void gazetteer(final Chars counter, final Blackhole blackhole) {
+		link(gazetteer, counter, blackhole);
+	}
+
+
+	private void link(final GraphLinker linker, final Chars counter, final Blackhole blackhole) {
+
+		counter.chars+=chunk.length();
+
+		toolbox.exec(() -> blackhole.consume(linker.apply(chunk).count()));
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.bench;
+
+import com.metreeca.rest.services.Logger;
+import com.metreeca.rest.services.Logger.Level;
+import com.metreeca.rest.services.Logger.Overflow;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.metreeca.rest.services.Logger.async;
+
+import static java.lang.String.format;
+
+/**
+ * Logging benchmarks.
+ *
+ * <p>Measures the throughput of simulated requests logging their SPARQL query at debug level, with debug logging
+ * enabled ({@code debug} threshold) or disabled ({@code info} threshold), for:</p>
+ *
+ * <ul>
+ *     <li>{@code eager} loggers, building messages before checking levels, as the system logger did before;</li>
+ *     <li>{@code sync} loggers, checking levels before building messages;</li>
+ *     <li>{@code block}/{@code drop} {@linkplain Logger#async(Supplier, int, Overflow) asynchronous} loggers, with
+ *     the given overflow policy.</li>
+ * </ul>
+ *
+ * <p>Messages are handed to an in-memory sink, in order to factor out console and file I/O.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBench {
+
+	private static final String Query="prefix schema: <http://schema.org/>\n"
+			+"\n"
+			+"select ?item ?label ?price where {\n"
+			+"\n"
+			+"\t?item a schema:Product; schema:name ?label; schema:offers/schema:price ?price.\n"
+			+"\n"
+			+"\tfilter (lang(?label) in ('en', '') && ?price >= %d)\n"
+			+"\n"
+			+"} order by ?label limit 100";
+
+
+	@Param({ "eager", "sync", "block", "drop" }) public String mode;
+	@Param({ "debug", "info" }) public String threshold;
+
+
+	private Logger logger;
+	private Sink sink;
+
+
+	@Setup public void setup() {
+
+		sink=new Sink(Level.valueOf(threshold), "eager".equals(mode));
+
+		logger="eager".equals(mode) || "sync".equals(mode) ? sink
+				: async(() -> sink, 8192, Overflow.valueOf(mode)).get();
+	}
+
+	@TearDown public void teardown() throws Exception {
+		if ( logger instanceof AutoCloseable ) { ((AutoCloseable)logger).close(); }
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public int request() {
+
+		final int price=ThreadLocalRandom.current().nextInt(1000);
+
+		logger.debug(this, () -> format("evaluating query %s", format(Query, price)));
+
+		return price;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * In-memory logger, counting the characters of enabled messages.
+	 */
+	private static final class Sink extends Logger {
+
+		private final Level threshold;
+		private final boolean eager;
+
+		private final LongAdder chars=new LongAdder();
+
+
+		private Sink(final Level threshold, final boolean eager) {
+			this.threshold=threshold;
+			this.eager=eager;
+		}
+
+
+		@Override public boolean enabled(final Level level, final Object source) {
+			return level != null && level.compareTo(threshold) >= 0;
+		}
+
+		@Override public Logger entry(final Level level,
+				final Object source, final Supplier<String> message, final Throwable cause
+		) {
+
+			final String text=eager ? message.get() : null;
+
+			if ( enabled(level, source) ) {
+				chars.add((text != null ? text : message.get()).length());
+			}
+
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.rest.Toolbox;
+import com.metreeca.text.*;
+import com.metreeca.text.linkers.GraphLinker;
+import com.metreeca.text.matchers.CachingMatcher;
+import com.metreeca.text.matchers.SPARQLMatcher;
+import com.metreeca.text.taggers.CorpusTagger;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.metreeca.bench.Texts.documents;
+import static com.metreeca.bench.Texts.model;
+import static com.metreeca.text.Token.corpus;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * End-to-end pipeline benchmarks.
+ *
+ * <p>Tokenizes, tags and links the corpus documents of all languages, either sequentially on the benchmark thread
+ * or in parallel through a {@link Runner}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=5)
+@Measurement(iterations=5, time=5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBench {
+
+	private Toolbox toolbox;
+
+	private List<Token> documents;
+	private long chars;
+
+	private Supplier<Function<Token, Long>> pipeline;
+
+
+	@Setup public void setup() {
+
+		toolbox=Store.toolbox();
+
+		documents=Texts.Languages.stream()
+				.flatMap(lang -> documents(lang).stream())
+				.map(Token::new)
+				.collect(toList());
+
+		chars=documents.stream().mapToLong(Token::length).sum();
+
+		toolbox.exec(() -> {
+
+			final PatternTokenizer tokenizer=new PatternTokenizer().defaults();
+
+			final CorpusTagger tagger=new CorpusTagger()
+					.type("STOP", corpus(model("en/corpus.stops.en.txt")).or(corpus(model("it/corpus.stops.it.txt"))));
+
+			final GraphLinker linker=new GraphLinker()
+					.matcher(new CachingMatcher(new SPARQLMatcher().languages(Texts.Languages)));
+
+			pipeline=() -> document -> tokenizer.andThen(tagger).andThen(linker).apply(document).count();
+
+		});
+	}
+
+	@TearDown public void teardown() {
+		toolbox.clear();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public void sequential(final Chars counter, final Blackhole blackhole) {
+
+		counter.chars+=chars;
+
+		toolbox.exec(() -> {
+
+			final Function<Token, Long> function=pipeline.get();
+
+			for (final Token document : documents) {
+				blackhole.consume(function.apply(document));
+			}
+
+		});
+	}
+
+	@Benchmark public void parallel(final Chars counter, final Blackhole blackhole) {
+
+		counter.chars+=chars;
+
+		toolbox.exec(() -> new Runner<>(pipeline)
+				.ordered(false)
+				.apply(documents.stream())
+				.forEach(blackhole::consume)
+		);
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.bench;
+
+import com.metreeca.rest.Future;
+import com.metreeca.rest.Handler;
+import com.metreeca.rest.Request;
+import com.metreeca.rest.Response;
+import com.metreeca.rest.handlers.Router;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.metreeca.rest.MessageException.status;
+import static com.metreeca.rest.handlers.Router.router;
+
+import static java.lang.String.format;
+
+/**
+ * Request routing benchmarks.
+ *
+ * <p>Compares the step tree lookup of {@link Router} with a baseline scanning a regular expression per route, as
+ * routers did before, on tables of {@code /collection<n>}, {@code /collection<n>/{id}} and {@code
+ * /collection<n>/{id}/*} routes; the {@code last} path is matched only by the last registered route and the {@code
+ * miss} path by no route at all.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBench {
+
+	private static final Handler Echo=request -> request.reply(response -> response
+			.status(Response.OK)
+			.header("id", request.parameter("id").orElse(""))
+	);
+
+
+	@Param({ "10", "100", "1000" }) public int routes;
+	@Param({ "first", "last", "miss" }) public String target;
+
+
+	private String path;
+
+	private Handler tree;
+	private Handler scan;
+
+
+	@Setup public void setup() {
+
+		final int collection="first".equals(target) ? 0 : "last".equals(target) ? routes-1 : routes;
+
+		path=format("/collection%d/item%%20%d/children/%d", collection, collection, collection);
+
+		final Router router=router();
+		final Baseline baseline=new Baseline();
+
+		for (int n=0; n < routes; ++n) {
+			for (final String route : new String[]{ "/collection%d", "/collection%d/{id}", "/collection%d/{id}/*" }) {
+				router.path(format(route, n), Echo);
+				baseline.path(format(route, n), Echo);
+			}
+		}
+
+		tree=router;
+		scan=baseline;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public int tree() {
+		return handle(tree);
+	}
+
+	@Benchmark public int scan() {
+		return handle(scan);
+	}
+
+
+	private int handle(final Handler handler) {
+
+		final int[] status={ 0 };
+
+		handler.handle(new Request().path(path)).accept(response -> status[0]=response.status());
+
+		return status[0];
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Baseline router, testing a regular expression per route in order of definition.
+	 */
+	private static final class Baseline implements Handler {
+
+		private static final Pattern KeyPattern=Pattern.compile("\\{(?<key>[^}]*)}");
+
+
+		private final Collection<Route> routes=new ArrayList<>();
+
+
+		private void path(final String path, final Handler handler) {
+
+			final boolean prefix=path.endsWith("/*");
+			final String steps=prefix ? path.substring(0, path.length()-2) : path;
+
+			final Collection<String> keys=new ArrayList<>();
+			final Matcher scanner=KeyPattern.matcher(Pattern.quote(steps));
+			final StringBuffer buffer=new StringBuffer().append("(");
+
+			while ( scanner.find() ) {
+
+				final String key=scanner.group("key");
+
+				if ( !key.isEmpty() ) { keys.add(key); }
+
+				scanner.appendReplacement(buffer, key.isEmpty()
+						? "\\\\E[^/]*\\\\Q"
+						: "\\\\E(?<${key}>[^/]*)\\\\Q"
+				);
+
+			}
+
+			scanner.appendTail(buffer).append(prefix ? ")(/.*)" : ")");
+
+			routes.add(new Route(Pattern.compile(buffer.toString()), keys, handler));
+		}
+
+
+		@Override public Future<Response> handle(final Request request) {
+
+			for (final Route route : routes) {
+
+				final Matcher matcher=route.pattern.matcher(request.path());
+
+				if ( matcher.matches() ) {
+
+					for (final String key : route.keys) {
+						try {
+							request.parameter(key, URLDecoder.decode(matcher.group(key), "UTF-8"));
+						} catch ( final UnsupportedEncodingException unexpected ) {
+							throw new UncheckedIOException(unexpected);
+						}
+					}
+
+					return route.handler.handle(request);
+				}
+
+			}
+
+			return status(Response.NotFound).handle(request);
+		}
+
+
+		private static final class Route {
+
+			private final Pattern pattern;
+			private final Collection<String> keys;
+			private final Handler handler;
+
+
+			private Route(final Pattern pattern, final Collection<String> keys, final Handler handler) {
+				this.pattern=pattern;
+				this.keys=keys;
+				this.handler=handler;
+			}
+
+		}
+
+	}
+
+}
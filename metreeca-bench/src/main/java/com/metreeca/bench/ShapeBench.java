@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.bench;
+
+import com.metreeca.json.Shape;
+import com.metreeca.json.shapes.Guard;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.json.Shape.*;
+import static com.metreeca.json.Values.iri;
+import static com.metreeca.json.Values.literal;
+import static com.metreeca.json.shapes.And.and;
+import static com.metreeca.json.shapes.Clazz.clazz;
+import static com.metreeca.json.shapes.Datatype.datatype;
+import static com.metreeca.json.shapes.Field.field;
+import static com.metreeca.json.shapes.Guard.detail;
+import static com.metreeca.json.shapes.Guard.filter;
+import static com.metreeca.json.shapes.Guard.relate;
+import static com.metreeca.json.shapes.MaxInclusive.maxInclusive;
+import static com.metreeca.json.shapes.MinInclusive.minInclusive;
+
+/**
+ * Shape tree benchmarks.
+ *
+ * <p>Measures construction, equality tests and cached redaction of employee shapes modelled after the sample data
+ * used by the engine tests, nesting supervisor and subordinate descriptions up to a given depth; nested
+ * descriptions are rebuilt at each level, as model definitions usually do, so that equal subtrees are shared only
+ * through interning.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShapeBench {
+
+	private static final IRI Employee=term("Employee");
+	private static final IRI Office=term("Office");
+
+	private static final IRI code=term("code");
+	private static final IRI forename=term("forename");
+	private static final IRI surname=term("surname");
+	private static final IRI email=term("email");
+	private static final IRI title=term("title");
+	private static final IRI seniority=term("seniority");
+	private static final IRI office=term("office");
+	private static final IRI supervisor=term("supervisor");
+	private static final IRI subordinate=term("subordinate");
+
+
+	private static IRI term(final String name) {
+		return iri("http://example.com/terms/", name);
+	}
+
+
+	private static Shape employee(final int depth) {
+		return and(
+
+				relate().then(filter(clazz(Employee))),
+
+				field(RDF.TYPE, exactly(Employee)),
+
+				field(RDFS.LABEL, required(), datatype(XSD.STRING)),
+				field(RDFS.COMMENT, optional(), datatype(XSD.STRING)),
+
+				field(code, required(), datatype(XSD.STRING)),
+				field(forename, required(), datatype(XSD.STRING)),
+				field(surname, required(), datatype(XSD.STRING)),
+				field(email, required(), datatype(XSD.STRING)),
+				field(title, required(), datatype(XSD.STRING)),
+				field(seniority, required(), minInclusive(literal(1)), maxInclusive(literal(5))),
+
+				field(office, required(), clazz(Office), field(RDFS.LABEL, required(), datatype(XSD.STRING))),
+
+				detail(
+						field(supervisor, optional(), depth > 0 ? employee(depth-1) : clazz(Employee)),
+						field(subordinate, multiple(), depth > 0 ? employee(depth-1) : clazz(Employee))
+				)
+
+		);
+	}
+
+
+	@Param({ "1", "4", "8" }) public int depth;
+
+
+	private Shape shape;
+	private Shape other;
+
+
+	@Setup public void setup() {
+		shape=employee(depth);
+		other=employee(depth);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public Shape build() {
+		return employee(depth);
+	}
+
+	@Benchmark public boolean equality() {
+		return shape.equals(other) && shape.hashCode() == other.hashCode();
+	}
+
+	@Benchmark public Shape redact() {
+		return shape
+				.redact(Guard.Role)
+				.redact(Guard.Task, Guard.Relate)
+				.redact(Guard.View, Guard.Detail)
+				.redact(Guard.Mode, Guard.Convey);
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.rdf4j.services.Graph;
+import com.metreeca.rest.Toolbox;
+import com.metreeca.rest.services.Logger;
+import com.metreeca.text.matchers.SPARQLMatcher;
+
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+
+import java.io.*;
+
+import static com.metreeca.rdf4j.services.Graph.graph;
+import static com.metreeca.rest.Toolbox.input;
+import static com.metreeca.rest.Toolbox.service;
+
+/**
+ * Benchmark store.
+ */
+final class Store {
+
+	/**
+	 * Creates a benchmark toolbox.
+	 *
+	 * @return a new toolbox providing an in-memory graph loaded with the benchmark entities and indexed for all
+	 * corpus languages
+	 */
+	static Toolbox toolbox() {
+
+		Logger.Level.warning.log("com.metreeca"); // keep per-document reports out of measurements
+
+		return new Toolbox()
+
+				.set(graph(), () -> new Graph(new SailRepository(new MemoryStore())))
+
+				.exec(() -> service(graph()).update(connection -> {
+
+					try ( final InputStream input=input(Store.class, "entities.ttl") ) {
+
+						connection.add(Rio.parse(input, "", RDFFormat.TURTLE));
+
+						return null;
+
+					} catch ( final IOException e ) {
+						throw new UncheckedIOException(e);
+					}
+
+				}))
+
+				.exec(() -> new SPARQLMatcher.Indexer().languages(Texts.Languages).run());
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private Store() { }
+
+}
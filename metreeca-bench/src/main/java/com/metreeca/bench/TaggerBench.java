@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.text.*;
+import com.metreeca.text.taggers.CorpusTagger;
+import com.metreeca.text.taggers.OpenTagger;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.model;
+import static com.metreeca.bench.Texts.text;
+
+/**
+ * Tagger benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaggerBench {
+
+	private static final String TaggerModel="metreeca.bench.tagger";
+
+
+	@Param({ "en", "it", "de", "fr", "es" }) public String lang;
+	@Param({ "100000" }) public int chars;
+
+
+	private Chunk chunk;
+
+	private CorpusTagger corpus;
+	private OpenTagger open;
+
+
+	@Setup public void setup() throws MalformedURLException {
+
+		chunk=new PatternTokenizer().defaults().apply(new Token(text(lang, chars)));
+
+		corpus=new CorpusTagger()
+				.type("STOP", Token.corpus(model("en/corpus.stops.en.txt")).or(Token.corpus(model("it/corpus.stops.it.txt"))))
+				.type("UNIT", Token.corpus(model("corpus.units.txt")));
+
+		final String tagger=System.getProperty(TaggerModel);
+
+		open=tagger == null ? null : new OpenTagger(new URL(tagger));
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public Chunk corpus(final Chars counter) {
+
+		counter.chars+=chunk.length();
+
+		return corpus.apply(chunk);
+	}
+
+	@Benchmark public Chunk open(final Chars counter) {
+
+		if ( open == null ) {
+			throw new IllegalStateException("undefined tagger model: set -D"+TaggerModel+"=<model url>");
+		}
+
+		counter.chars+=chunk.length();
+
+		return open.apply(chunk);
+	}
+
+}
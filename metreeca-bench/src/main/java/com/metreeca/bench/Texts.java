@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.rest.Toolbox;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.metreeca.rest.Toolbox.resource;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Benchmark corpus.
+ */
+public final class Texts {
+
+	public static final List<String> Languages=List.of("en", "it", "de", "fr", "es");
+
+
+	/**
+	 * Retrieves a model.
+	 *
+	 * @param path the path of the model, relative to the {@code metreeca-text} model folder
+	 *
+	 * @return the URL of the model
+	 */
+	public static URL model(final String path) {
+		return resource(Texts.class, "/com/metreeca/text/models/"+path);
+	}
+
+
+	/**
+	 * Retrieves corpus documents.
+	 *
+	 * @param lang the language of the documents
+	 *
+	 * @return the paragraphs of the corpus text in {@code lang}
+	 */
+	public static List<String> documents(final String lang) {
+		return Arrays.stream(text(lang).split("\n\\s*\n"))
+				.map(String::trim)
+				.filter(paragraph -> !paragraph.isEmpty())
+				.collect(toList());
+	}
+
+	/**
+	 * Retrieves the corpus text.
+	 *
+	 * @param lang the language of the text
+	 *
+	 * @return the corpus text in {@code lang}
+	 */
+	public static String text(final String lang) {
+		return Toolbox.text(Texts.class, "corpus/"+lang+".txt");
+	}
+
+	/**
+	 * Retrieves a sized corpus text.
+	 *
+	 * @param lang  the language of the text
+	 * @param chars the target length of the text
+	 *
+	 * @return the corpus text in {@code lang}, repeated as required and truncated at the last whitespace before {@code
+	 * chars}
+	 */
+	public static String text(final String lang, final int chars) {
+
+		final String text=text(lang);
+		final StringBuilder builder=new StringBuilder(chars+text.length());
+
+		while ( builder.length() < chars ) {
+			builder.append(text).append("\n\n");
+		}
+
+		final int cut=builder.lastIndexOf(" ", chars);
+
+		return builder.substring(0, cut > 0 ? cut : chars);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private Texts() { }
+
+}
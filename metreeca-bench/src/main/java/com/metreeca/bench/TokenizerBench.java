@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.metreeca.bench;
+
+import com.metreeca.text.Chunk;
+import com.metreeca.text.Token;
+import com.metreeca.text.tokenizers.OpenTokenizer;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.metreeca.bench.Texts.model;
+import static com.metreeca.bench.Texts.text;
+
+/**
+ * Tokenizer benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBench {
+
+	@Param({ "en", "it", "de", "fr", "es" }) public String lang;
+	@Param({ "100000" }) public int chars;
+
+
+	private Token token;
+
+	private PatternTokenizer pattern;
+	private OpenTokenizer open;
+
+
+	@Setup public void setup() {
+
+		token=new Token(text(lang, chars));
+
+		pattern=new PatternTokenizer().defaults();
+		open=new OpenTokenizer(model("en/tokenizer.en.bin"));
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public Chunk pattern(final Chars counter) {
+
+		counter.chars+=token.length();
+
+		return pattern.apply(token);
+	}
+
+	@Benchmark public int patternOffsets(final Chars counter) { // tokens are not materialized
+
+		counter.chars+=token.length();
+
+		return pattern.scan(token).size();
+	}
+
+	@Benchmark public Chunk open(final Chars counter) {
+
+		counter.chars+=token.length();
+
+		return open.apply(token);
+	}
+
+}
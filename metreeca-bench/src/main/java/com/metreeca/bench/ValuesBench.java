@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.bench;
+
+import com.metreeca.json.Values;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static com.metreeca.json.Values.literal;
+
+/**
+ * Value ordering benchmarks.
+ *
+ * <p>Compares sorting and extremum searches on sortable keys, parsing lexical forms at most once per value, with
+ * plain pairwise comparisons, parsing lexical forms on each comparison as value comparators did before keys were
+ * introduced. Literals are created from lexical forms, as retrieved from a store.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValuesBench {
+
+	@Param({ "integer", "decimal", "double", "dateTime", "string", "mixed" }) public String type;
+	@Param({ "1000", "100000" }) public int size;
+
+
+	private List<Value> values;
+
+
+	@Setup public void setup() {
+
+		final Random random=new Random(0);
+
+		final Map<String, IntFunction<Value>> generators=new LinkedHashMap<>();
+
+		generators.put("integer", n -> literal(String.valueOf(random.nextInt()), XSD.INTEGER));
+		generators.put("decimal", n -> literal(BigDecimal.valueOf(random.nextInt(), 2).toPlainString(), XSD.DECIMAL));
+		generators.put("double", n -> literal(String.valueOf(random.nextGaussian()), XSD.DOUBLE));
+		generators.put("dateTime", n -> literal(OffsetDateTime.ofInstant(
+				Instant.ofEpochSecond(random.nextInt()), ZoneOffset.ofHours(random.nextInt(25)-12)
+		).toString(), XSD.DATETIME));
+		generators.put("string", n -> literal(Long.toString(random.nextLong(), 36)));
+
+		final List<IntFunction<Value>> mixed=new ArrayList<>(generators.values());
+
+		generators.put("mixed", n -> mixed.get(n%mixed.size()).apply(n));
+
+		final IntFunction<Value> generator=generators.get(type);
+
+		if ( generator == null ) {
+			throw new IllegalArgumentException("unknown type <"+type+">");
+		}
+
+		values=new ArrayList<>(size);
+
+		for (int n=0; n < size; ++n) {
+			values.add(generator.apply(n));
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Benchmark public List<Value> keyedSort() {
+		return Values.sort(values);
+	}
+
+	@Benchmark public List<Value> pairwiseSort() {
+
+		final List<Value> sorted=new ArrayList<>(values);
+
+		sorted.sort(Values::compare);
+
+		return sorted;
+	}
+
+
+	@Benchmark public Optional<Value> keyedLeast() {
+		return Values.least(values.stream());
+	}
+
+	@Benchmark public Optional<Value> pairwiseLeast() {
+		return values.stream().min(Values::compare);
+	}
+
+}
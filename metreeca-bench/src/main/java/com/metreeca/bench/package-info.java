@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * JMH benchmarks for the text processing pipeline and the core framework components.
+ *
+ * <p>Measures per-stage and end-to-end throughput of the {@code metreeca-text} components on a small bundled
+ * multilingual corpus; entity matchers run against an in-memory RDF4J store loaded with a matching gazetteer, so
+ * that no benchmark depends on network services. Throughput in characters per second is reported as the {@code
+ * chars} secondary result of each text benchmark. Core benchmarks compare framework components, such as the
+ * {@linkplain com.metreeca.rest.handlers.Router request router}, with baselines reproducing their former
+ * implementations.</p>
+ *
+ * <p>The module is not part of the default build; to build and run the suite, including allocation rate
+ * measurements:</p>
+ *
+ * <pre>{@code
+ * mvn -P bench package
+ * java -jar metreeca-bench/target/benchmarks.jar -prof gc
+ * }</pre>
+ *
+ * <p>The OpenNLP part-of-speech tagger benchmark requires a model not bundled with the project, to be provided as
+ * {@code -Dmetreeca.bench.tagger=<model url>}.</p>
+ */
+package com.metreeca.bench;
@@ -27,6 +27,7 @@ import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.metreeca.json.Values.*;
@@ -58,7 +59,7 @@ public final class Frame {
 			throw new NullPointerException("null focus");
 		}
 
-		return new Frame(focus, emptyMap());
+		return new Frame(focus);
 	}
 
 	public static Frame frame(final Value focus, final Map<IRI, ? extends Collection<Frame>> traits) {
@@ -114,26 +115,103 @@ public final class Frame {
 	}
 
 
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private static final IRI[] NoPredicates={};
+	private static final Object[][] NoObjects={};
+
+
+	/**
+	 * Compacts a frame for storage as a trait object.
+	 *
+	 * @return the focus value of {@code frame}, if it has no traits; {@code frame}, otherwise
+	 */
+	private static Object compact(final Frame frame) {
+		return frame.predicates.length == 0 ? frame.focus : frame;
+	}
+
+	/**
+	 * Expands a stored trait object.
+	 *
+	 * @return a frame for {@code object}, as generated by {@link #compact(Frame)}
+	 */
+	private static Frame expand(final Object object) {
+		return object instanceof Frame ? (Frame)object : new Frame((Value)object);
+	}
+
+	private static Value value(final Object object) {
+		return object instanceof Frame ? ((Frame)object).focus : (Value)object;
+	}
+
+
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	private final Value focus;
-	private final Map<IRI, Collection<Frame>> traits;
+
+	// traits are stored as parallel arrays of predicates and objects, preserving insertion order; frames without
+	// traits are stored inline as their focus value (see compact/expand)
+
+	private final IRI[] predicates;
+	private final Object[][] objects;
+
+	private int hash; // lazily computed hash code
+	private Map<IRI, Collection<Frame>> traits; // lazily expanded traits view
+
+
+	private Frame(final Value focus) {
+		this(focus, NoPredicates, NoObjects);
+	}
+
+	private Frame(final Value focus, final IRI[] predicates, final Object[][] objects) {
+		this.focus=focus;
+		this.predicates=predicates;
+		this.objects=objects;
+	}
 
 	private Frame(final Value focus, final Map<IRI, ? extends Collection<Frame>> traits) {
+
 		this.focus=focus;
-		this.traits=unmodifiableMap(traits);
+
+		this.predicates=new IRI[traits.size()];
+		this.objects=new Object[traits.size()][];
+
+		int index=0;
+
+		for (final Entry<IRI, ? extends Collection<Frame>> trait : traits.entrySet()) {
+
+			predicates[index]=trait.getKey();
+			objects[index]=trait.getValue().stream().map(Frame::compact).toArray();
+
+			++index;
+		}
+	}
+
+
+	private int index(final IRI predicate) {
+
+		for (int i=0; i < predicates.length; ++i) {
+			if ( predicates[i].equals(predicate) ) { return i; }
+		}
+
+		return -1;
 	}
 
 
 	public boolean empty() {
-		return traits.isEmpty();
+		return predicates.length == 0;
 	}
 
 	public int size() {
-		return traits.size()+traits.values().stream()
-				.flatMap(Collection::stream)
-				.mapToInt(Frame::size)
-				.sum();
+
+		int size=predicates.length;
+
+		for (final Object[] trait : objects) {
+			for (final Object object : trait) {
+				if ( object instanceof Frame ) { size+=((Frame)object).size(); }
+			}
+		}
+
+		return size;
 	}
 
 
@@ -155,25 +233,51 @@ public final class Frame {
 		return focus;
 	}
 
+	/**
+	 * Retrieves the frame traits.
+	 *
+	 * @return an unmodifiable view of the traits of this frame, mapping predicates to the collections of frames
+	 * they link the focus value to
+	 */
 	public Map<IRI, Collection<Frame>> traits() {
+
+		if ( traits == null ) { // benign race: the expanded view is immutable and deterministic
+
+			final Map<IRI, Collection<Frame>> traits=new LinkedHashMap<>(predicates.length);
+
+			for (int i=0; i < predicates.length; ++i) {
+
+				final Set<Frame> frames=new LinkedHashSet<>(objects[i].length);
+
+				for (final Object object : objects[i]) { frames.add(expand(object)); }
+
+				traits.put(predicates[i], unmodifiableSet(frames));
+			}
+
+			this.traits=unmodifiableMap(traits);
+		}
+
 		return traits;
 	}
 
 
 	public Stream<Statement> model() {
-		return traits.entrySet().stream().flatMap(trait -> {
+		return IntStream.range(0, predicates.length).boxed().flatMap(index -> {
+
+			final IRI predicate=predicates[index];
 
-			final IRI predicate=trait.getKey();
-			final Collection<Frame> frames=trait.getValue();
+			return Arrays.stream(objects[index]).flatMap(object -> {
 
-			return frames.stream().flatMap(frame -> {
+				final Value value=value(object);
 
 				final Statement statement=traverse(predicate,
-						direct -> statement((Resource)focus, direct, frame.focus),
-						inverse -> statement((Resource)frame.focus, inverse, focus)
+						direct -> statement((Resource)focus, direct, value),
+						inverse -> statement((Resource)value, inverse, focus)
 				);
 
-				return Stream.concat(Stream.of(statement), frame.model());
+				return object instanceof Frame
+						? Stream.concat(Stream.of(statement), ((Frame)object).model())
+						: Stream.of(statement);
 
 			});
 
@@ -602,7 +706,9 @@ public final class Frame {
 			throw new NullPointerException("null predicate");
 		}
 
-		return frames(predicate).map(frame -> frame.focus);
+		final int index=index(predicate);
+
+		return index < 0 ? Stream.empty() : Arrays.stream(objects[index]).map(Frame::value);
 	}
 
 	public Stream<Value> values(final Shift shift) {
@@ -674,7 +780,7 @@ public final class Frame {
 			throw new NullPointerException("null values");
 		}
 
-		return frames(predicate, values.map(value -> new Frame(value, emptyMap())));
+		return frames(predicate, values.map(Frame::new));
 	}
 
 
@@ -705,7 +811,9 @@ public final class Frame {
 			throw new NullPointerException("null predicate");
 		}
 
-		return traits.getOrDefault(predicate, emptySet()).stream();
+		final int index=index(predicate);
+
+		return index < 0 ? Stream.empty() : Arrays.stream(objects[index]).map(Frame::expand);
 	}
 
 	public Stream<Frame> frames(final Shift shift) {
@@ -783,9 +891,11 @@ public final class Frame {
 			));
 		}
 
-		final Collection<Frame> merged=unmodifiableSet(new LinkedHashSet<>(index(Stream.concat(
+		final int index=index(predicate);
+
+		final Object[] merged=index(Stream.concat(
 
-				traits.getOrDefault(predicate, emptySet()).stream(),
+				index < 0 ? Stream.empty() : Arrays.stream(objects[index]).map(Frame::expand),
 
 				frames.peek(frame -> {
 
@@ -797,15 +907,26 @@ public final class Frame {
 
 				})
 
-		)).values()));
+		)).values().stream().map(Frame::compact).toArray();
+
+		if ( merged.length == 0 ) {return this;} else if ( index >= 0 ) {
+
+			final Object[][] extended=objects.clone();
 
-		if ( merged.isEmpty() ) {return this;} else {
+			extended[index]=merged;
 
-			final Map<IRI, Collection<Frame>> extended=new LinkedHashMap<>(traits);
+			return new Frame(focus, predicates, extended);
 
-			extended.put(predicate, merged);
+		} else {
+
+			final IRI[] predicates=Arrays.copyOf(this.predicates, this.predicates.length+1);
+			final Object[][] objects=Arrays.copyOf(this.objects, this.objects.length+1);
+
+			predicates[predicates.length-1]=predicate;
+			objects[objects.length-1]=merged;
+
+			return new Frame(focus, predicates, objects);
 
-			return new Frame(focus, extended);
 		}
 
 	}
@@ -815,7 +936,7 @@ public final class Frame {
 
 	private Map<Value, Frame> index(final Stream<Frame> frames) {
 		return frames.collect(groupingBy(Frame::focus, LinkedHashMap::new, reducing(null, (x, y) ->
-				x == null ? y : y == null ? x : new Frame(x.focus, merge(x.traits, y.traits))
+				x == null ? y : y == null ? x : new Frame(x.focus, merge(x.traits(), y.traits()))
 		)));
 	}
 
@@ -836,8 +957,8 @@ public final class Frame {
 
 		final Map<Value, Frame> merged=index(x.stream());
 
-		y.forEach(frame -> merged.compute(focus, (key, value) ->
-				value == null ? frame : new Frame(frame.focus, merge(value.traits, frame.traits))
+		y.forEach(frame -> merged.compute(frame.focus, (key, value) ->
+				value == null ? frame : new Frame(frame.focus, merge(value.traits(), frame.traits()))
 		));
 
 		return unmodifiableSet(new LinkedHashSet<>(merged.values()));
@@ -853,8 +974,8 @@ public final class Frame {
 		label().ifPresent(label -> builder.append(" : ").append(label));
 		notes().ifPresent(notes -> builder.append(" / ").append(notes));
 
-		if ( !traits.isEmpty() ) {
-			builder.append(' ').append(traits.entrySet().stream()
+		if ( !empty() ) {
+			builder.append(' ').append(traits().entrySet().stream()
 					.map(this::format)
 					.map(Values::indent)
 					.collect(joining(",\n\t", "{\n\t", "\n}"))
@@ -883,20 +1004,56 @@ public final class Frame {
 
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof Frame
+				&& hashCode() == object.hashCode()
 				&& focus.equals(((Frame)object).focus)
-				&& traits.equals(((Frame)object).traits);
+				&& sameTraits((Frame)object);
+	}
+
+	private boolean sameTraits(final Frame frame) { // trait objects are compacted, so they may be compared directly
+
+		if ( predicates.length != frame.predicates.length ) { return false; }
+
+		for (int i=0; i < predicates.length; ++i) {
+
+			final int index=frame.index(predicates[i]);
+
+			if ( index < 0
+					|| objects[i].length != frame.objects[index].length
+					|| !new HashSet<>(Arrays.asList(objects[i])).containsAll(Arrays.asList(frame.objects[index]))
+			) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 	@Override public int hashCode() {
-		return focus.hashCode()
-				^traits.hashCode();
+
+		if ( hash == 0 ) {
+
+			int code=focus.hashCode();
+
+			for (int i=0; i < predicates.length; ++i) {
+
+				int set=0;
+
+				for (final Object object : objects[i]) { set+=object.hashCode(); }
+
+				code+=predicates[i].hashCode()^set;
+			}
+
+			hash=code;
+		}
+
+		return hash;
 	}
 
 	@Override public String toString() {
 		return Values.format(focus)
 				+label().map(l -> String.format(" : %s", clip(l))).orElse("")
 				+notes().map(n -> String.format(" / %s", clip(n))).orElse("")
-				+(traits.isEmpty() ? "" : String.format(" { [%d] }", size()));
+				+(empty() ? "" : String.format(" { [%d] }", size()));
 	}
 
 }
@@ -21,6 +21,8 @@ import com.metreeca.json.shapes.*;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.vocabulary.LDP;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -52,6 +54,86 @@ public abstract class Shape {
 	public static final IRI Contains=LDP.CONTAINS;
 
 
+	private static final ShapeCache Transforms=new ShapeCache(1000); // focus-independent transformations
+	private static final ShapeCache Resolved=new ShapeCache(1000); // focus-dependent transformations
+
+	private static final Map<Shape, Reference<Shape>> Interned=new WeakHashMap<>();
+
+
+	/**
+	 * Interns a shape.
+	 *
+	 * <p>Composite shapes are interned on creation, so that structurally equal and {@linkplain #congruent(Shape)
+	 * congruent} shapes share a single canonical instance and equality tests between them are usually reduced to
+	 * reference checks; interned instances are released once they are no longer referenced elsewhere.</p>
+	 *
+	 * @param shape the shape to be interned; must cache its hash code
+	 * @param <S>   the type of the shape to be interned
+	 *
+	 * @return the canonical instance structurally equal and congruent to {@code shape}, if one is available;
+	 * {@code shape}, otherwise
+	 */
+	@SuppressWarnings("unchecked") protected static <S extends Shape> S intern(final S shape) {
+		synchronized ( Interned ) {
+
+			final Reference<Shape> reference=Interned.get(shape);
+			final Shape interned=reference == null ? null : reference.get();
+
+			if ( interned == null ) {
+
+				Interned.put(shape, new WeakReference<>(shape));
+
+				return shape;
+
+			} else {
+
+				return interned.congruent(shape) ? (S)interned : shape;
+
+			}
+
+		}
+	}
+
+	/**
+	 * Checks if two structurally equal shapes are congruent.
+	 *
+	 * @param x the first shape to be checked
+	 * @param y the second shape to be checked; must be structurally equal to {@code x}
+	 *
+	 * @return {@code true} if {@code x} and {@code y} are congruent; {@code false}, otherwise
+	 *
+	 * @see #congruent(Shape)
+	 */
+	protected static boolean congruent(final Shape x, final Shape y) {
+		return x == y || x.congruent(y);
+	}
+
+	/**
+	 * Checks if two structurally equal shape collections are congruent.
+	 *
+	 * @param x the first shape collection to be checked
+	 * @param y the second shape collection to be checked; must be structurally equal to {@code x}
+	 *
+	 * @return {@code true} if {@code x} and {@code y} iterate pairwise equal and congruent shapes in the same order;
+	 * {@code false}, otherwise
+	 */
+	protected static boolean congruent(final Collection<Shape> x, final Collection<Shape> y) {
+
+		final Iterator<Shape> xi=x.iterator();
+		final Iterator<Shape> yi=y.iterator();
+
+		while ( xi.hasNext() && yi.hasNext() ) {
+
+			final Shape xs=xi.next();
+			final Shape ys=yi.next();
+
+			if ( !xs.equals(ys) || !congruent(xs, ys) ) { return false; }
+		}
+
+		return !xi.hasNext() && !yi.hasNext();
+	}
+
+
 	//// Shape Shorthands //////////////////////////////////////////////////////////////////////////////////////////////
 
 	public static Shape required() { return and(minCount(1), maxCount(1)); }
@@ -68,6 +150,22 @@ public abstract class Shape {
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	/**
+	 * Checks if this shape is congruent to a structurally equal shape.
+	 *
+	 * <p>Composite shapes compare their children as sets, but iterate them in declaration order, which in turn drives
+	 * observable behaviour like field ordering in serialized frames: two structurally equal shapes are congruent if
+	 * they also iterate their children in the same order, so that either may safely replace the other.</p>
+	 *
+	 * @param shape the shape to be checked; must be structurally equal to this shape
+	 *
+	 * @return {@code true} if this shape is congruent to {@code shape}; {@code false}, otherwise
+	 */
+	protected boolean congruent(final Shape shape) {
+		return true;
+	}
+
+
 	/**
 	 * Checks if this shape is empty.
 	 *
@@ -129,7 +227,7 @@ public abstract class Shape {
 	 * @return a copy of this shape extended with inferred constraints
 	 */
 	public Shape expand() {
-		return map(new ShapeInferencer());
+		return Transforms.get(asList(this, "expand"), () -> map(new ShapeInferencer()));
 	}
 
 
@@ -170,7 +268,9 @@ public abstract class Shape {
 			throw new NullPointerException("null tags");
 		}
 
-		return tags.isEmpty() || tags.contains("*") ? this : map(new ShapeLocalizer(tags));
+		return tags.isEmpty() || tags.contains("*") ? this : Transforms.get(
+				asList(this, "localize", new ArrayList<>(tags)), () -> map(new ShapeLocalizer(tags))
+		);
 	}
 
 
@@ -190,7 +290,7 @@ public abstract class Shape {
 			throw new NullPointerException("null axis");
 		}
 
-		return map(new ShapeRedactor(axis, null));
+		return Transforms.get(asList(this, "redact", axis, null), () -> map(new ShapeRedactor(axis, null)));
 	}
 
 	/**
@@ -215,7 +315,7 @@ public abstract class Shape {
 			throw new NullPointerException("null values");
 		}
 
-		return map(new ShapeRedactor(axis, asList(values)));
+		return redact(axis, asList(values));
 	}
 
 	/**
@@ -240,7 +340,9 @@ public abstract class Shape {
 			throw new NullPointerException("null values");
 		}
 
-		return map(new ShapeRedactor(axis, values));
+		return Transforms.get(
+				asList(this, "redact", axis, new HashSet<>(values)), () -> map(new ShapeRedactor(axis, values))
+		);
 	}
 
 
@@ -251,7 +353,7 @@ public abstract class Shape {
 	 * conveying} {@linkplain #then(Shape...) conditional} shapes
 	 */
 	public Shape convey() {
-		return map(new ShapePruner(false));
+		return Transforms.get(asList(this, "convey"), () -> map(new ShapePruner(false)));
 	}
 
 	/**
@@ -270,7 +372,9 @@ public abstract class Shape {
 			throw new NullPointerException("null anchor");
 		}
 
-		return map(new ShapePruner(true)).map(shape -> anchor.isIRI() && anchor.stringValue().endsWith("/")
+		final Shape filter=Transforms.get(asList(this, "filter"), () -> map(new ShapePruner(true)));
+
+		return filter.map(shape -> anchor.isIRI() && anchor.stringValue().endsWith("/")
 
 				// container: connect to the anchor using ldp:contains, unless otherwise specified in the shape
 
@@ -318,7 +422,7 @@ public abstract class Shape {
 			throw new NullPointerException("null focus");
 		}
 
-		return map(new ShapeResolver(focus));
+		return Resolved.get(asList(this, "resolve", focus), () -> map(new ShapeResolver(focus)));
 	}
 
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.json;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+
+/**
+ * Bounded shape transformation cache.
+ *
+ * <p>Memoizes the results of pure shape transformations, keyed by the source shape, the transformation name and its
+ * arguments; least recently used entries are evicted once the cache size limit is reached.</p>
+ */
+final class ShapeCache {
+
+	private final Map<List<Object>, Shape> entries;
+
+
+	ShapeCache(final int size) {
+		this.entries=new LinkedHashMap<List<Object>, Shape>(16, 0.75f, true) {
+
+			@Override protected boolean removeEldestEntry(final Map.Entry<List<Object>, Shape> eldest) {
+				return size() > size;
+			}
+
+		};
+	}
+
+
+	/**
+	 * Retrieves a transformed shape.
+	 *
+	 * @param key       the cache key, including the source shape, the transformation name and its arguments
+	 * @param transform the transformation to be applied if no cached result is available for {@code key}
+	 *
+	 * @return the cached result for {@code key} or the result of {@code transform}, if none is cached
+	 */
+	Shape get(final List<Object> key, final Supplier<Shape> transform) {
+
+		final Shape cached;
+
+		synchronized ( entries ) { cached=entries.get(key); }
+
+		if ( cached != null ) { return cached; } else { // transform outside the lock to support nested lookups
+
+			final Shape shape=transform.get();
+
+			synchronized ( entries ) { entries.put(key, shape); }
+
+			return shape;
+		}
+	}
+
+}
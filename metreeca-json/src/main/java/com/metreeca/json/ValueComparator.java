@@ -27,7 +27,7 @@ import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
 import java.util.Comparator;
 import java.util.Objects;
-import java.util.function.*;
+import java.util.function.Function;
 
 final class ValueComparator implements Comparator<Value>, Serializable {
 
@@ -37,183 +37,285 @@ final class ValueComparator implements Comparator<Value>, Serializable {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	@Override public int compare(final Value x, final Value y) {
-		return Objects.equals(x, y) ? 0
+		return Objects.equals(x, y) ? 0 : key(x).compareTo(key(y));
+	}
 
-				: x == null ? -1
-				: y == null ? 1
 
-				: x.isBNode() ? y.isBNode() ? compare((BNode)x, (BNode)y) : -1
-				: y.isBNode() ? 1
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-				: x.isIRI() ? y.isIRI() ? compare((IRI)x, (IRI)y) : -1
-				: y.isIRI() ? 1
+	/**
+	 * Creates a sortable key.
+	 *
+	 * @param value the value to be keyed; may be null
+	 *
+	 * @return a sortable key for {@code value}, caching value classification and parsed lexical forms; keys define
+	 * the total order implemented by {@link #compare(Value, Value)}
+	 */
+	static Key key(final Value value) {
+		return new Key(value);
+	}
 
-				: x.isLiteral() ? y.isLiteral() ? compare((Literal)x, (Literal)y) : -1
-				: y.isLiteral() ? 1
 
-				: x.isTriple() ? y.isTriple() ? compare((Triple)x, (Triple)y) : -1
-				: y.isTriple() ? 1
+	/**
+	 * Sortable value key.
+	 *
+	 * <p>Lexical forms are parsed lazily, at most once per key; comparison between parsed keys doesn't allocate.</p>
+	 */
+	static final class Key implements Comparable<Key> {
 
-				: x.stringValue().compareTo(y.stringValue());
-	}
+		private static final int BooleanType=1;
+		private static final int NumericType=2;
+		private static final int TemporalType=3;
+		private static final int DurationType=4;
+		private static final int PlainType=5;
+		private static final int TaggedType=6;
+		private static final int TypedType=7;
 
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+		private static final Object Undefined=new Object(); // marker for unparsed lexical forms
 
-	private int compare(final BNode x, final BNode y) {
-		return x.getID().compareTo(y.getID());
-	}
 
-	private int compare(final IRI x, final IRI y) {
-		return x.stringValue().compareTo(y.stringValue());
-	}
+		private final Value value;
 
-	private int compare(final Literal x, final Literal y) {
-		return isBoolean(x) ? isBoolean(y) ? bool(x, y) : -1
-				: isBoolean(y) ? 1
+		private final int kind; // value kind: null, blank node, IRI, literal, triple, other
+		private final int type; // literal type class
 
-				: isNumeric(x) ? isNumeric(y) ? numeric(x, y) : -1
-				: isNumeric(y) ? 1
+		private final Key subject; // triple components
+		private final Key predicate;
+		private final Key object;
 
-				: isTemporal(x) ? isTemporal(y) ? temporal(x, y) : -1
-				: isTemporal(y) ? 1
+		private Object parsed=Undefined; // boolean/temporal/duration value or null if not parsable
+		private Object doubles=Undefined; // numeric views
+		private Object floats=Undefined;
+		private Object decimals=Undefined;
+		private Object integers=Undefined;
+		private Object longs=Undefined;
 
-				: isDuration(x) ? isDuration(y) ? duration(x, y) : -1
-				: isDuration(y) ? 1
 
-				: isPlain(x) ? isPlain(y) ? plain(x, y) : -1
-				: isPlain(y) ? 1
+		private Key(final Value value) {
 
-				: isTagged(x) ? isTagged(y) ? tagged(x, y) : -1
-				: isTagged(y) ? 1
+			this.value=value;
 
-				: typed(x, y);
-	}
+			this.kind=value == null ? 0
+					: value.isBNode() ? 1
+					: value.isIRI() ? 2
+					: value.isLiteral() ? 3
+					: value.isTriple() ? 4
+					: 5;
 
-	private int compare(final Triple x, final Triple y) {
-		return chain(compare(x.getSubject(), y.getSubject()), () -> chain(
-				compare(x.getPredicate(), y.getPredicate()), () ->
-						compare(x.getObject(), y.getObject())
-				)
-		);
-	}
+			this.type=value instanceof Literal ? type(((Literal)value).getDatatype()) : 0;
 
+			if ( value instanceof Triple ) {
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+				this.subject=new Key(((Triple)value).getSubject());
+				this.predicate=new Key(((Triple)value).getPredicate());
+				this.object=new Key(((Triple)value).getObject());
 
-	private boolean isBoolean(final Literal literal) {
-		return XSD.BOOLEAN.equals(literal.getDatatype());
-	}
+			} else {
 
-	private boolean isNumeric(final Literal literal) {
-		return XSD.Datatype.from(literal.getDatatype()).map(XSD.Datatype::isNumericDatatype).orElse(false);
-	}
+				this.subject=null;
+				this.predicate=null;
+				this.object=null;
 
-	private boolean isTemporal(final Literal literal) {
-		return XSD.Datatype.from(literal.getDatatype()).map(XSD.Datatype::isCalendarDatatype).orElse(false);
-	}
+			}
+		}
 
-	private boolean isDuration(final Literal literal) {
-		return XSD.Datatype.from(literal.getDatatype()).map(XSD.Datatype::isDurationDatatype).orElse(false);
-	}
 
-	private boolean isPlain(final Literal literal) {
-		return XSD.STRING.equals(literal.getDatatype());
-	}
+		private int type(final IRI datatype) {
 
-	private boolean isTagged(final Literal literal) {
-		return RDF.LANGSTRING.equals(literal.getDatatype());
-	}
+			final XSD.Datatype xsd=XSD.Datatype.from(datatype).orElse(null);
 
+			return XSD.BOOLEAN.equals(datatype) ? BooleanType
+					: xsd != null && xsd.isNumericDatatype() ? NumericType
+					: xsd != null && xsd.isCalendarDatatype() ? TemporalType
+					: xsd != null && xsd.isDurationDatatype() ? DurationType
+					: XSD.STRING.equals(datatype) ? PlainType
+					: RDF.LANGSTRING.equals(datatype) ? TaggedType
+					: TypedType;
+		}
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private int bool(final Literal x, final Literal y) {
-		return comparable(x, y, Literal::booleanValue);
-	}
+		@Override public int compareTo(final Key key) {
 
-	private int numeric(final Literal x, final Literal y) {
+			final Value x=value;
+			final Value y=key.value;
 
-		final IRI xt=x.getDatatype();
-		final IRI yt=y.getDatatype();
+			if ( Objects.equals(x, y) ) { return 0; }
 
-		return XSD.DOUBLE.equals(xt) || XSD.DOUBLE.equals(yt) ? comparable(x, y, Literal::doubleValue)
-				: XSD.FLOAT.equals(xt) || XSD.FLOAT.equals(yt) ? comparable(x, y, Literal::floatValue)
-				: XSD.DECIMAL.equals(xt) || XSD.DECIMAL.equals(yt) ? comparable(x, y, Literal::decimalValue)
-				: XSD.INTEGER.equals(xt) || XSD.INTEGER.equals(yt) ? comparable(x, y, Literal::integerValue)
-				: comparable(x, y, Literal::longValue);
-	}
+			if ( kind != key.kind ) { return kind < key.kind ? -1 : 1; }
 
-	private int temporal(final Literal x, final Literal y) {
+			switch ( kind ) {
 
-		final IRI xt=x.getDatatype();
-		final IRI yt=y.getDatatype();
+				case 1:
 
-		return chain(compare(xt, yt), () -> comparable(x, y, v -> {
+					return ((BNode)x).getID().compareTo(((BNode)y).getID());
 
-			final TemporalAccessor accessor=v.temporalAccessorValue();
+				case 3:
 
-			return OffsetDateTime.from(new TemporalAccessor() {
+					return literal(key);
 
-				@Override public boolean isSupported(final TemporalField field) {
-					return true;
-				}
+				case 4:
 
-				@Override public long getLong(final TemporalField field) {
-					return accessor.isSupported(field) ? accessor.getLong(field) : field.range().getMinimum();
-				}
+					final int s=subject.compareTo(key.subject);
 
-			});
+					if ( s != 0 ) { return s; }
 
-		}));
-	}
+					final int p=predicate.compareTo(key.predicate);
 
-	private int duration(final Literal x, final Literal y) {
-		return comparable(x, y, v -> Duration.from(v.temporalAmountValue()));
-	}
+					return p != 0 ? p : object.compareTo(key.object);
 
-	private int plain(final Literal x, final Literal y) {
-		return x.getLabel().compareTo(y.getLabel());
-	}
+				default:
 
-	private int tagged(final Literal x, final Literal y) {
-		return chain(x.getLanguage().orElse("").compareTo(y.getLanguage().orElse("")), () -> plain(x, y));
-	}
+					return x.stringValue().compareTo(y.stringValue());
 
-	private int typed(final Literal x, final Literal y) {
-		return chain(compare(x.getDatatype(), y.getDatatype()), () -> plain(x, y));
-	}
+			}
+		}
 
-	private <T extends Comparable<T>> int comparable(
-			final Literal x, final Literal y, final Function<Literal, T> mapper
-	) {
 
-		final T xv=guard(() -> mapper.apply(x));
-		final T yv=guard(() -> mapper.apply(y));
+		private int literal(final Key key) {
 
-		return xv == null && yv == null ? typed(x, y)
-				: xv == null ? 1
-				: yv == null ? -1
-				: xv.compareTo(yv);
-	}
+			if ( type != key.type ) { return type < key.type ? -1 : 1; }
 
+			final Literal x=(Literal)value;
+			final Literal y=(Literal)key.value;
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+			switch ( type ) {
 
-	private int chain(final int order, final IntSupplier next) {
-		return order != 0 ? order : next.getAsInt();
-	}
+				case BooleanType:
+
+					return comparable(key, parsed(Literal::booleanValue), key.parsed(Literal::booleanValue));
+
+				case NumericType:
+
+					return numeric(key);
+
+				case TemporalType:
+
+					final int datatype=x.getDatatype().stringValue().compareTo(y.getDatatype().stringValue());
+
+					return datatype != 0 ? datatype
+							: comparable(key, parsed(Key::temporal), key.parsed(Key::temporal));
+
+				case DurationType:
+
+					return comparable(key,
+							parsed(v -> Duration.from(v.temporalAmountValue())),
+							key.parsed(v -> Duration.from(v.temporalAmountValue()))
+					);
+
+				case PlainType:
+
+					return x.getLabel().compareTo(y.getLabel());
 
-	private <T> T guard(final Supplier<T> supplier) {
-		try {
+				case TaggedType:
 
-			return supplier.get();
+					final int lang=x.getLanguage().orElse("").compareTo(y.getLanguage().orElse(""));
 
-		} catch ( final RuntimeException e ) {
+					return lang != 0 ? lang : x.getLabel().compareTo(y.getLabel());
 
-			return null;
+				default:
 
+					return typed(key);
+
+			}
+		}
+
+		private int numeric(final Key key) {
+
+			final IRI xt=((Literal)value).getDatatype();
+			final IRI yt=((Literal)key.value).getDatatype();
+
+			if ( XSD.DOUBLE.equals(xt) || XSD.DOUBLE.equals(yt) ) {
+
+				return comparable(key,
+						doubles == Undefined ? doubles=parse(Literal::doubleValue) : doubles,
+						key.doubles == Undefined ? key.doubles=key.parse(Literal::doubleValue) : key.doubles
+				);
+
+			} else if ( XSD.FLOAT.equals(xt) || XSD.FLOAT.equals(yt) ) {
+
+				return comparable(key,
+						floats == Undefined ? floats=parse(Literal::floatValue) : floats,
+						key.floats == Undefined ? key.floats=key.parse(Literal::floatValue) : key.floats
+				);
+
+			} else if ( XSD.DECIMAL.equals(xt) || XSD.DECIMAL.equals(yt) ) {
+
+				return comparable(key,
+						decimals == Undefined ? decimals=parse(Literal::decimalValue) : decimals,
+						key.decimals == Undefined ? key.decimals=key.parse(Literal::decimalValue) : key.decimals
+				);
+
+			} else if ( XSD.INTEGER.equals(xt) || XSD.INTEGER.equals(yt) ) {
+
+				return comparable(key,
+						integers == Undefined ? integers=parse(Literal::integerValue) : integers,
+						key.integers == Undefined ? key.integers=key.parse(Literal::integerValue) : key.integers
+				);
+
+			} else {
+
+				return comparable(key,
+						longs == Undefined ? longs=parse(Literal::longValue) : longs,
+						key.longs == Undefined ? key.longs=key.parse(Literal::longValue) : key.longs
+				);
+
+			}
+		}
+
+		private int typed(final Key key) {
+
+			final Literal x=(Literal)value;
+			final Literal y=(Literal)key.value;
+
+			final int datatype=x.getDatatype().stringValue().compareTo(y.getDatatype().stringValue());
+
+			return datatype != 0 ? datatype : x.getLabel().compareTo(y.getLabel());
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private int comparable(final Key key, final Object x, final Object y) {
+			return x == null && y == null ? typed(key)
+					: x == null ? 1
+					: y == null ? -1
+					: ((Comparable)x).compareTo(y);
+		}
+
+
+		private Object parsed(final Function<Literal, Object> parser) { // a single parsed view for non-numeric types
+			return parsed == Undefined ? parsed=parse(parser) : parsed;
+		}
+
+		private Object parse(final Function<Literal, Object> parser) {
+			try {
+
+				return parser.apply((Literal)value);
+
+			} catch ( final RuntimeException e ) {
+
+				return null;
+
+			}
+		}
+
+
+		private static Object temporal(final Literal literal) {
+
+			final TemporalAccessor accessor=literal.temporalAccessorValue();
+
+			return OffsetDateTime.from(new TemporalAccessor() {
+
+				@Override public boolean isSupported(final TemporalField field) {
+					return true;
+				}
+
+				@Override public long getLong(final TemporalField field) {
+					return accessor.isSupported(field) ? accessor.getLong(field) : field.range().getMinimum();
+				}
+
+			});
 		}
+
 	}
 
 }
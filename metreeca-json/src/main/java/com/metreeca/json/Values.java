@@ -32,12 +32,15 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalAmount;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
+import java.util.Map.Entry;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ROOT;
@@ -226,6 +229,87 @@ public final class Values {
 	}
 
 
+	/**
+	 * Sorts values.
+	 *
+	 * <p>Values are sorted according to {@link #compare(Value, Value)}, parsing lexical forms at most once per
+	 * value.</p>
+	 *
+	 * @param values the values to be sorted
+	 * @param <V>    the type of the values to be sorted
+	 *
+	 * @return a list containing {@code values} in ascending order
+	 *
+	 * @throws NullPointerException if {@code values} is null
+	 */
+	public static <V extends Value> List<V> sort(final Collection<V> values) {
+
+		if ( values == null ) {
+			throw new NullPointerException("null values");
+		}
+
+		final List<Entry<ValueComparator.Key, V>> keys=new ArrayList<>(values.size());
+
+		for (final V value : values) {
+			keys.add(new SimpleImmutableEntry<>(ValueComparator.key(value), value));
+		}
+
+		keys.sort(Entry.comparingByKey());
+
+		final List<V> sorted=new ArrayList<>(keys.size());
+
+		for (final Entry<ValueComparator.Key, V> key : keys) {
+			sorted.add(key.getValue());
+		}
+
+		return sorted;
+	}
+
+	/**
+	 * Retrieves the least value.
+	 *
+	 * @param values the values to be searched
+	 * @param <V>    the type of the values to be searched
+	 *
+	 * @return the least value in {@code values} according to {@link #compare(Value, Value)}, if {@code values} is
+	 * not empty; an empty optional, otherwise; ties are resolved in favour of the last value
+	 *
+	 * @throws NullPointerException if {@code values} is null
+	 */
+	public static <V extends Value> Optional<V> least(final Stream<V> values) {
+
+		if ( values == null ) {
+			throw new NullPointerException("null values");
+		}
+
+		return values.map(value -> new SimpleImmutableEntry<>(ValueComparator.key(value), value))
+				.reduce((x, y) -> x.getKey().compareTo(y.getKey()) < 0 ? x : y)
+				.map(Entry::getValue);
+	}
+
+	/**
+	 * Retrieves the greatest value.
+	 *
+	 * @param values the values to be searched
+	 * @param <V>    the type of the values to be searched
+	 *
+	 * @return the greatest value in {@code values} according to {@link #compare(Value, Value)}, if {@code values} is
+	 * not empty; an empty optional, otherwise; ties are resolved in favour of the last value
+	 *
+	 * @throws NullPointerException if {@code values} is null
+	 */
+	public static <V extends Value> Optional<V> greatest(final Stream<V> values) {
+
+		if ( values == null ) {
+			throw new NullPointerException("null values");
+		}
+
+		return values.map(value -> new SimpleImmutableEntry<>(ValueComparator.key(value), value))
+				.reduce((x, y) -> x.getKey().compareTo(y.getKey()) > 0 ? x : y)
+				.map(Entry::getValue);
+	}
+
+
 	//// Accessors /////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	public static boolean is(final Value value, final IRI datatype) {
@@ -49,7 +49,7 @@ import static java.util.stream.Collectors.*;
  */
 public final class And extends Shape {
 
-	private static final Shape empty=new And(emptySet());
+	private static final Shape empty=intern(new And(emptySet()));
 
 
 	public static Shape and() { return empty; }
@@ -106,7 +106,7 @@ public final class And extends Shape {
 	private static Shape pack(final List<? extends Shape> shapes) {
 		return shapes.contains(or()) ? or() // always fail
 				: shapes.size() == 1 ? shapes.iterator().next()
-				: new And(shapes);
+				: intern(new And(shapes));
 	}
 
 	private static Stream<? extends Shape> merge(final Class<? extends Shape> clazz, final Stream<Shape> shapes) {
@@ -189,7 +189,7 @@ public final class And extends Shape {
 	private static Stream<? extends Shape> fields(final Stream<Field> fields) {
 		return fields
 
-				.collect(groupingBy(Field::iri, LinkedHashMap::new, reducing((x, y) -> new Field(
+				.collect(groupingBy(Field::iri, LinkedHashMap::new, reducing((x, y) -> intern(new Field(
 
 						Field.label(x.label(), y.label()).orElseThrow(() -> new IllegalArgumentException(format(
 								"clashing labels <%s> / <%s> for field %s", x.label(), y.label(), format(x.iri())
@@ -199,7 +199,7 @@ public final class And extends Shape {
 
 						and(x.shape(), y.shape())
 
-				))))
+				)))))
 
 				.values()
 				.stream()
@@ -213,13 +213,13 @@ public final class And extends Shape {
 	private static Stream<? extends Shape> links(final Stream<Link> links) {
 		return links
 
-				.collect(groupingBy(Link::iri, LinkedHashMap::new, reducing((x, y) -> new Link(
+				.collect(groupingBy(Link::iri, LinkedHashMap::new, reducing((x, y) -> intern(new Link(
 
 						x.iri(),
 
 						and(x.shape(), y.shape())
 
-				))))
+				)))))
 
 				.values()
 				.stream()
@@ -267,8 +267,12 @@ public final class And extends Shape {
 	private final Collection<Shape> shapes;
 
 
+	private final int hash;
+
+
 	private And(final Collection<? extends Shape> shapes) {
 		this.shapes=new LinkedHashSet<>(shapes);
+		this.hash=this.shapes.hashCode();
 	}
 
 
@@ -291,13 +295,19 @@ public final class And extends Shape {
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	@Override protected boolean congruent(final Shape shape) {
+		return congruent(shapes, ((And)shape).shapes);
+	}
+
+
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof And
+				&& hash == ((And)object).hash
 				&& shapes.equals(((And)object).shapes);
 	}
 
 	@Override public int hashCode() {
-		return shapes.hashCode();
+		return hash;
 	}
 
 	@Override public String toString() {
@@ -89,7 +89,7 @@ public final class Field extends Shape {
 
 		final Shape shape=and(shapes);
 
-		return shape.equals(or()) ? and() : new Field(label, iri, shape);
+		return shape.equals(or()) ? and() : intern(new Field(label, iri, shape));
 	}
 
 
@@ -225,6 +225,8 @@ public final class Field extends Shape {
 	private final IRI iri;
 	private final Shape shape;
 
+	private final int hash;
+
 
 	Field(final String label, final IRI iri, final Shape shape) {
 
@@ -232,6 +234,8 @@ public final class Field extends Shape {
 
 		this.iri=iri;
 		this.shape=shape;
+
+		this.hash=label.hashCode()^iri.hashCode()^shape.hashCode();
 	}
 
 
@@ -263,17 +267,21 @@ public final class Field extends Shape {
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	@Override protected boolean congruent(final Shape shape) {
+		return congruent(this.shape, ((Field)shape).shape);
+	}
+
+
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof Field
+				&& hash == ((Field)object).hash
 				&& label.equals(((Field)object).label)
 				&& iri.equals(((Field)object).iri)
 				&& shape.equals(((Field)object).shape);
 	}
 
 	@Override public int hashCode() {
-		return label.hashCode()
-				^iri.hashCode()
-				^shape.hashCode();
+		return hash;
 	}
 
 	@Override public String toString() {
@@ -50,7 +50,7 @@ public final class Link extends Shape {
 
 		final Shape shape=and(shapes);
 
-		return shape.equals(or()) ? and() : new Link(iri, shape);
+		return shape.equals(or()) ? and() : intern(new Link(iri, shape));
 	}
 
 	public static Shape link(final IRI iri, final Shape shape) {
@@ -63,7 +63,7 @@ public final class Link extends Shape {
 			throw new NullPointerException("null shape");
 		}
 
-		return shape.equals(or()) ? and() : new Link(iri, shape);
+		return shape.equals(or()) ? and() : intern(new Link(iri, shape));
 	}
 
 
@@ -73,9 +73,13 @@ public final class Link extends Shape {
 	private final Shape shape;
 
 
+	private final int hash;
+
+
 	Link(final IRI iri, final Shape shape) {
 		this.iri=iri;
 		this.shape=shape;
+		this.hash=iri.hashCode()^shape.hashCode();
 	}
 
 
@@ -102,14 +106,20 @@ public final class Link extends Shape {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 
+	@Override protected boolean congruent(final Shape shape) {
+		return congruent(this.shape, ((Link)shape).shape);
+	}
+
+
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof Link
+				&& hash == ((Link)object).hash
 				&& iri.equals(((Link)object).iri)
 				&& shape.equals(((Link)object).shape);
 	}
 
 	@Override public int hashCode() {
-		return iri.hashCode()^shape.hashCode();
+		return hash;
 	}
 
 	@Override public String toString() {
@@ -48,7 +48,7 @@ import static java.util.stream.Collectors.*;
  */
 public final class Or extends Shape {
 
-	private static final Shape empty=new Or(Collections.emptySet());
+	private static final Shape empty=intern(new Or(Collections.emptySet()));
 
 
 	public static Shape or() {
@@ -107,7 +107,7 @@ public final class Or extends Shape {
 	private static Shape pack(final List<? extends Shape> shapes) {
 		return shapes.contains(and()) ? and() // always pass
 				: shapes.size() == 1 ? shapes.iterator().next()
-				: new Or(shapes);
+				: intern(new Or(shapes));
 	}
 
 	private static Stream<? extends Shape> merge(final Class<? extends Shape> clazz, final Stream<Shape> shapes) {
@@ -173,7 +173,7 @@ public final class Or extends Shape {
 	private static Stream<? extends Shape> fields(final Stream<Field> fields) {
 		return fields
 
-				.collect(groupingBy(Field::iri, LinkedHashMap::new, reducing((x, y) -> new Field(
+				.collect(groupingBy(Field::iri, LinkedHashMap::new, reducing((x, y) -> intern(new Field(
 
 						Field.label(x.label(), y.label()).orElseThrow(() -> new IllegalArgumentException(format(
 								"clashing labels <%s> / <%s> for field %s", x.label(), y.label(), format(x.iri())
@@ -183,7 +183,7 @@ public final class Or extends Shape {
 
 						or(x.shape(), y.shape())
 
-				))))
+				)))))
 
 				.values()
 				.stream()
@@ -197,13 +197,13 @@ public final class Or extends Shape {
 	private static Stream<? extends Shape> links(final Stream<Link> links) {
 		return links
 
-				.collect(groupingBy(Link::iri, LinkedHashMap::new, reducing((x, y) -> new Link(
+				.collect(groupingBy(Link::iri, LinkedHashMap::new, reducing((x, y) -> intern(new Link(
 
 						x.iri(),
 
 						or(x.shape(), y.shape())
 
-				))))
+				)))))
 
 				.values()
 				.stream()
@@ -251,8 +251,12 @@ public final class Or extends Shape {
 	private final Collection<Shape> shapes;
 
 
+	private final int hash;
+
+
 	private Or(final Collection<? extends Shape> shapes) {
 		this.shapes=new LinkedHashSet<>(shapes);
+		this.hash=this.shapes.hashCode();
 	}
 
 
@@ -275,13 +279,19 @@ public final class Or extends Shape {
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	@Override protected boolean congruent(final Shape shape) {
+		return congruent(shapes, ((Or)shape).shapes);
+	}
+
+
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof Or
+				&& hash == ((Or)object).hash
 				&& shapes.equals(((Or)object).shapes);
 	}
 
 	@Override public int hashCode() {
-		return shapes.hashCode();
+		return hash;
 	}
 
 	@Override public String toString() {
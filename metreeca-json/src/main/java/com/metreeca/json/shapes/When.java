@@ -61,7 +61,7 @@ public final class When extends Shape {
 		return test.equals(and()) ? pass
 				: test.equals(or()) ? fail
 				: pass.equals(fail) ? pass
-				: new When(test, pass, fail);
+				: intern(new When(test, pass, fail));
 	}
 
 
@@ -72,10 +72,14 @@ public final class When extends Shape {
 	private final Shape fail;
 
 
+	private final int hash;
+
+
 	private When(final Shape test, final Shape pass, final Shape fail) {
 		this.test=test;
 		this.pass=pass;
 		this.fail=fail;
+		this.hash=test.hashCode()^pass.hashCode()^fail.hashCode();
 	}
 
 
@@ -106,15 +110,23 @@ public final class When extends Shape {
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	@Override protected boolean congruent(final Shape shape) {
+		return congruent(test, ((When)shape).test)
+				&& congruent(pass, ((When)shape).pass)
+				&& congruent(fail, ((When)shape).fail);
+	}
+
+
 	@Override public boolean equals(final Object object) {
 		return this == object || object instanceof When
+				&& hash == ((When)object).hash
 				&& test.equals(((When)object).test)
 				&& pass.equals(((When)object).pass)
 				&& fail.equals(((When)object).fail);
 	}
 
 	@Override public int hashCode() {
-		return test.hashCode()^pass.hashCode()^fail.hashCode();
+		return hash;
 	}
 
 	@Override public String toString() {
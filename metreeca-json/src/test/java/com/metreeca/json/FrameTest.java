@@ -72,6 +72,28 @@ final class FrameTest {
             )));
         }
 
+        @Test void testMergeNestedFrames() {
+
+            final Frame frame=frame(w)
+                    .frame(RDF.VALUE, frame(x).value(RDF.VALUE, y))
+                    .frame(RDF.VALUE, frame(x).value(RDF.VALUE, z));
+
+            assertThat(frame.frames(RDF.VALUE).flatMap(nested -> nested.values(RDF.VALUE)).collect(toSet()))
+                    .containsExactlyInAnyOrder(y, z);
+        }
+
+        @Test void testCompareTraitsStructurally() {
+
+            final Frame frame=frame(w)
+                    .value(RDF.VALUE, x)
+                    .value(RDF.TYPE, y);
+
+            assertThat(frame).isEqualTo(frame(w).value(RDF.TYPE, y).value(RDF.VALUE, x));
+            assertThat(frame.traits()).isEqualTo(frame(w).value(RDF.TYPE, y).value(RDF.VALUE, x).traits());
+
+            assertThat(frame.traits().get(RDF.VALUE)).containsExactly(frame(x));
+        }
+
         @Test void testReportLiteralSubjectsForDirectTraits() {
             assertThatIllegalArgumentException().isThrownBy(() ->
                     frame(x).value(inverse(RDF.VALUE), literal(1))
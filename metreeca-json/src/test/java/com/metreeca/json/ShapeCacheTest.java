@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.json;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.junit.jupiter.api.Test;
+
+import static com.metreeca.json.Values.iri;
+import static com.metreeca.json.shapes.And.and;
+import static com.metreeca.json.shapes.Field.field;
+import static com.metreeca.json.shapes.Guard.guard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+
+final class ShapeCacheTest {
+
+	private static final IRI X=iri("test:x");
+	private static final IRI Y=iri("test:y");
+
+
+	@Test void testReuseCachedTransforms() {
+
+		final ShapeCache cache=new ShapeCache(10);
+
+		final Shape x=cache.get(singletonList("x"), () -> field(X));
+
+		assertThat(cache.get(singletonList("x"), () -> field(Y))).isSameAs(x);
+
+	}
+
+	@Test void testEvictLeastRecentlyUsedEntries() {
+
+		final ShapeCache cache=new ShapeCache(1);
+
+		final Shape x=cache.get(singletonList("x"), () -> field(X));
+		final Shape y=cache.get(singletonList("y"), () -> field(Y));
+
+		assertThat(cache.get(singletonList("x"), () -> and())).isNotSameAs(x);
+		assertThat(cache.get(singletonList("y"), () -> and())).isNotSameAs(y);
+
+	}
+
+
+	@Test void testMemoizeShapeTransforms() {
+
+		final Shape shape=field(X, guard("axis", "value"));
+
+		assertThat(shape.redact("axis", "value")).isSameAs(shape.redact("axis", "value"));
+		assertThat(shape.redact("axis", asList("value"))).isSameAs(shape.redact("axis", "value"));
+
+		assertThat(shape.redact("axis", "value")).isEqualTo(field(X, and()));
+		assertThat(shape.redact("axis", "other")).isNotEqualTo(field(X, and()));
+
+		assertThat(shape.resolve(X)).isSameAs(shape.resolve(X));
+
+	}
+
+}
@@ -28,12 +28,15 @@ import java.math.BigInteger;
 import java.time.*;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
 import static com.metreeca.json.Values.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import static java.lang.Integer.signum;
 import static java.time.ZoneOffset.UTC;
+import static java.util.stream.Collectors.toList;
 
 
 final class ValueComparatorTest {
@@ -228,4 +231,52 @@ final class ValueComparatorTest {
 
 	}
 
+
+
+	@Test void testSortableKeys() {
+
+		final List<Value> values=Arrays.asList(
+
+				null,
+
+				bnode("x"), bnode("y"),
+				iri("test:x"), iri("test:y"),
+
+				literal(true), literal(false), literal("maybe", XSD.BOOLEAN),
+
+				literal(1), literal(2.5), literal(BigDecimal.ONE), literal(BigInteger.TEN), literal(1.5f),
+				literal("nan", XSD.DECIMAL),
+
+				literal(LocalDate.of(2020, 1, 1)), literal(OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, UTC)),
+				literal("P1D", XSD.DAYTIMEDURATION), literal("PT1H", XSD.DAYTIMEDURATION),
+
+				literal("x"), literal("y"), literal("x", "en"), literal("x", "it"), literal("x", RDF.FIRST)
+
+		);
+
+		for (final Value x : values) {
+			for (final Value y : values) {
+				assertThat(signum(ValueComparator.key(x).compareTo(ValueComparator.key(y))))
+						.as("%s <=> %s", x, y)
+						.isEqualTo(signum(compare(x, y)))
+						.isEqualTo(-signum(compare(y, x)));
+			}
+		}
+
+		assertThat(sort(values.subList(1, values.size())))
+				.isEqualTo(values.subList(1, values.size()).stream().sorted(comparator).collect(toList()));
+
+	}
+
+	@Test void testResolveExtremaTiesToLastValue() {
+
+		final Literal x=literal("1", XSD.INT);
+		final Literal y=literal("01", XSD.INT);
+
+		assertThat(compare(x, y)).isEqualTo(0);
+
+		assertThat(least(Arrays.asList(x, y).stream())).containsSame(y);
+		assertThat(greatest(Arrays.asList(x, y).stream())).containsSame(y);
+	}
+
 }
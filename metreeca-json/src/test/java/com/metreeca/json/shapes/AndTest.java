@@ -75,6 +75,25 @@ final class AndTest {
 		private final Value c=literal(3);
 
 
+		@Test void testInternStructurallyEqualShapes() {
+			assertThat(and(field(RDF.FIRST, minCount(1)), field(RDF.REST)))
+					.isSameAs(and(field(RDF.FIRST, minCount(1)), field(RDF.REST)));
+		}
+
+		@Test void testInternPreservingDeclarationOrder() {
+
+			final Shape x=and(field(RDF.FIRST), field(RDF.REST));
+			final Shape y=and(field(RDF.REST), field(RDF.FIRST));
+
+			assertThat(y).isEqualTo(x).isNotSameAs(x);
+
+			assertThat(y.map(new Shape.Probe<Collection<Shape>>() {
+
+				@Override public Collection<Shape> probe(final And and) { return and.shapes(); }
+
+			})).containsExactly(field(RDF.REST), field(RDF.FIRST));
+		}
+
 		@Test void testSimplifyConstants() {
 			assertThat(and(or(), field(RDF.TYPE))).isEqualTo(or());
 		}
@@ -16,8 +16,12 @@
 
 package com.metreeca.rest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
+import static com.metreeca.rest.Tracing.traced;
+
 
 /**
  * Resource handler {thread-safe}.
@@ -152,6 +156,9 @@ import java.util.function.Predicate;
 	/**
 	 * Chains a wrapper.
 	 *
+	 * <p>While {@link Tracing tracing} is active, request processing by each chained wrapper and by this handler is recorded
+	 * as a span labelled with the name of the wrapper or handler class.</p>
+	 *
 	 * @param wrapper the wrapper to be chained
 	 *
 	 * @return the combined handler obtained by {@linkplain Wrapper#wrap(Handler) wrapping} this handler inside the
@@ -168,15 +175,23 @@ import java.util.function.Predicate;
 
 		final class Chain implements Handler {
 
-			private final Wrapper wrapper;
+			private final List<Wrapper> wrappers; // outermost first
 			private final Handler handler;
 			private final Handler chained;
 
 
-			private Chain(final Wrapper wrapper, final Handler handler) {
-				this.wrapper=wrapper;
+			private Chain(final List<Wrapper> wrappers, final Handler handler) {
+
+				this.wrappers=wrappers;
 				this.handler=handler;
-				this.chained=wrapper.wrap(handler);
+
+				Handler chained=traced(handler, handler);
+
+				for (int i=wrappers.size()-1; i >= 0; --i) { // trace each wrapper at its own boundary
+					chained=traced(wrappers.get(i), wrappers.get(i).wrap(chained));
+				}
+
+				this.chained=chained;
 			}
 
 
@@ -186,7 +201,11 @@ import java.util.function.Predicate;
 					throw new NullPointerException("null wrapper");
 				}
 
-				return new Chain(this.wrapper.with(wrapper), handler);
+				final List<Wrapper> wrappers=new ArrayList<>(this.wrappers);
+
+				wrappers.add(wrapper);
+
+				return new Chain(wrappers, handler);
 			}
 
 			@Override public Future<Response> handle(final Request request) {
@@ -200,7 +219,7 @@ import java.util.function.Predicate;
 
 		}
 
-		return new Chain(wrapper, this);
+		return new Chain(List.of(wrapper), this);
 	}
 
 }
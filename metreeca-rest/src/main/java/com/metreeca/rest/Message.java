@@ -413,7 +413,7 @@ public abstract class Message<T extends Message<T>> extends Setup<T> {
 		Either<MessageException, ?> body=bodies.get(format);
 
 		if ( body == null ) {
-			bodies.put(format, body=format.decode(this));
+			bodies.put(format, body=Tracing.span(format.getClass(), "decode", () -> format.decode(this)));
 		}
 
 		return (Either<MessageException, V>)body;
@@ -445,7 +445,7 @@ public abstract class Message<T extends Message<T>> extends Setup<T> {
 
 		bodies.put(format, Right(value));
 
-		return format.encode(self(), value);
+		return Tracing.span(format.getClass(), "encode", () -> format.encode(self(), value));
 	}
 
 
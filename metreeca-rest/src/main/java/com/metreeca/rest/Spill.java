@@ -0,0 +1,551 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest;
+
+import com.metreeca.rest.Xtream.Codec;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.Toolbox.storage;
+
+/**
+ * External memory sorter.
+ *
+ * <p>Sorts elements in runs of at most {@code budget} elements, spilling sorted runs to temporary files in the
+ * {@code spill} folder of the system file {@linkplain Toolbox#storage storage} and lazily merging them on
+ * retrieval; inputs fitting in a single run are sorted in memory. Ties are resolved in encounter order.</p>
+ *
+ * <p>At most {@value #FanIn} runs are merged at once, so that the number of open files is bounded regardless of
+ * the input size: larger run sets are first merged in passes into intermediate runs.</p>
+ *
+ * @param <T> the type of the sorted elements
+ */
+final class Spill<T> extends Spliterators.AbstractSpliterator<T> {
+
+	private static final int FanIn=64; // maximum number of runs merged at once
+
+
+	static <T> Stream<T> sorted(
+			final Stream<T> stream, final Comparator<? super T> comparator, final Codec<T> codec, final int budget
+	) {
+
+		final Spill<T> spill=new Spill<>(stream.iterator(), comparator, codec, budget);
+
+		return StreamSupport.stream(spill, false)
+				.onClose(spill::close)
+				.onClose(stream::close);
+	}
+
+	static <T> Stream<T> distinct(final Stream<T> stream, final Codec<T> codec, final int budget) {
+
+		final Stream<byte[]> records=sorted(
+				stream.map(element -> encode(codec, element)), Arrays::compareUnsigned, Codec.bytes(), budget
+		);
+
+		final Iterator<byte[]> iterator=records.iterator();
+
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+			private byte[] last;
+
+			@Override public boolean tryAdvance(final Consumer<? super T> action) {
+
+				while ( iterator.hasNext() ) {
+
+					final byte[] next=iterator.next();
+
+					if ( last == null || !Arrays.equals(last, next) ) {
+
+						action.accept(decode(codec, last=next));
+
+						return true;
+
+					}
+
+				}
+
+				return false;
+			}
+
+		}, false).onClose(records::close);
+	}
+
+	static <T, K> Stream<Entry<K, List<T>>> groups(
+			final Stream<T> stream, final Function<T, K> classifier,
+			final Codec<K> keys, final Codec<T> values, final int budget
+	) {
+
+		final Stream<Entry<byte[], T>> entries=sorted(
+				stream.map(element -> new SimpleImmutableEntry<>(encode(keys, classifier.apply(element)), element)),
+				(x, y) -> Arrays.compareUnsigned(x.getKey(), y.getKey()),
+				Codec.entries(Codec.bytes(), values),
+				budget
+		);
+
+		final Iterator<Entry<byte[], T>> iterator=entries.iterator();
+
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<Entry<K, List<T>>>(Long.MAX_VALUE, 0) {
+
+			private Entry<byte[], T> pending;
+
+			@Override public boolean tryAdvance(final Consumer<? super Entry<K, List<T>>> action) {
+
+				if ( pending == null && iterator.hasNext() ) {
+					pending=iterator.next();
+				}
+
+				if ( pending == null ) { return false; } else {
+
+					final byte[] key=pending.getKey();
+					final List<T> group=new ArrayList<>();
+
+					group.add(pending.getValue());
+
+					for (pending=null; pending == null && iterator.hasNext(); ) {
+
+						final Entry<byte[], T> next=iterator.next();
+
+						if ( Arrays.equals(key, next.getKey()) ) { group.add(next.getValue()); } else { pending=next; }
+
+					}
+
+					action.accept(new SimpleImmutableEntry<>(decode(keys, key), group));
+
+					return true;
+
+				}
+
+			}
+
+		}, false).onClose(entries::close);
+	}
+
+
+	private static <T> byte[] encode(final Codec<T> codec, final T element) {
+		try {
+
+			final ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+
+			codec.encode(new DataOutputStream(buffer), element);
+
+			return buffer.toByteArray();
+
+		} catch ( final IOException e ) {
+
+			throw new UncheckedIOException(e);
+
+		}
+	}
+
+	private static <T> T decode(final Codec<T> codec, final byte[] record) {
+		try {
+
+			return codec.decode(new DataInputStream(new ByteArrayInputStream(record)));
+
+		} catch ( final IOException e ) {
+
+			throw new UncheckedIOException(e);
+
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final Iterator<T> source;
+
+	private final Comparator<? super T> comparator;
+	private final Codec<T> codec;
+	private final int budget;
+
+	private Path folder;
+	private int files; // the number of run files created so far
+
+	private List<Run> runs=new ArrayList<>();
+	private final Queue<Run> queue;
+
+
+	private Spill(
+			final Iterator<T> source, final Comparator<? super T> comparator, final Codec<T> codec, final int budget
+	) {
+
+		super(Long.MAX_VALUE, ORDERED);
+
+		this.source=source;
+		this.comparator=comparator;
+		this.codec=codec;
+		this.budget=budget;
+
+		this.queue=queue();
+	}
+
+
+	private Queue<Run> queue() {
+		return new PriorityQueue<>((x, y) -> {
+
+			final int order=comparator.compare(x.head, y.head);
+
+			return order != 0 ? order : Integer.compare(x.index, y.index);
+
+		});
+	}
+
+
+	@Override public boolean tryAdvance(final Consumer<? super T> action) {
+
+		if ( source.hasNext() ) { split(); }
+
+		final Run run=queue.poll();
+
+		if ( run == null ) {
+
+			close(); // release storage as soon as possible
+
+			return false;
+
+		} else {
+
+			final T head=run.head;
+
+			if ( run.advance() ) { queue.add(run); } else { run.close(); }
+
+			action.accept(head);
+
+			return true;
+
+		}
+	}
+
+	private void split() {
+
+		for (final List<T> buffer=new ArrayList<>(); source.hasNext(); ) {
+
+			buffer.add(source.next());
+
+			if ( buffer.size() == budget || !source.hasNext() ) {
+
+				buffer.sort(comparator); // stable
+
+				runs.add(source.hasNext()
+						? new FileRun(runs.size(), buffer.iterator())
+						: new MemoryRun(runs.size(), buffer)
+				);
+
+				buffer.clear();
+
+			}
+
+		}
+
+		while ( runs.size() > FanIn ) { // merge runs in passes, preserving their relative order to keep ties stable
+
+			final List<Run> merged=new ArrayList<>((runs.size()+FanIn-1)/FanIn);
+
+			try {
+
+				for (int lower=0; lower < runs.size(); lower+=FanIn) {
+
+					final List<Run> chunk=runs.subList(lower, Math.min(lower+FanIn, runs.size()));
+
+					if ( chunk.size() == 1 ) { merged.add(chunk.get(0)); } else {
+
+						merged.add(new FileRun(merged.size(), merge(chunk)));
+
+						for (final Run run : chunk) { run.close(); }
+
+					}
+
+				}
+
+			} catch ( final RuntimeException e ) {
+
+				throw close(merged, e);
+
+			}
+
+			runs=merged;
+
+		}
+
+		for (final Run run : runs) {
+			if ( run.advance() ) { queue.add(run); }
+		}
+
+	}
+
+	private Path folder() {
+		try {
+
+			if ( folder == null ) {
+				folder=Files.createTempDirectory(Files.createDirectories(service(storage()).resolve("spill")), "");
+			}
+
+			return folder;
+
+		} catch ( final IOException e ) {
+
+			throw new UncheckedIOException(e);
+
+		}
+	}
+
+	private Iterator<T> merge(final Collection<Run> runs) {
+
+		final Queue<Run> queue=queue();
+
+		for (final Run run : runs) {
+			if ( run.advance() ) { queue.add(run); }
+		}
+
+		return new Iterator<T>() {
+
+			@Override public boolean hasNext() {
+				return !queue.isEmpty();
+			}
+
+			@Override public T next() {
+
+				final Run run=queue.remove();
+				final T head=run.head;
+
+				if ( run.advance() ) { queue.add(run); }
+
+				return head;
+			}
+
+		};
+	}
+
+	/**
+	 * Releases storage, deleting run files and the spill folder on a best-effort basis.
+	 *
+	 * @throws UncheckedIOException if storage couldn't be released; further failures are reported as suppressed
+	 *                              exceptions
+	 */
+	private void close() {
+
+		RuntimeException failure=close(runs, null);
+
+		runs.clear();
+		queue.clear();
+
+		if ( folder != null ) {
+			try {
+
+				Files.deleteIfExists(folder);
+
+			} catch ( final IOException e ) {
+
+				failure=suppress(failure, new UncheckedIOException(e));
+
+			} finally {
+
+				folder=null;
+
+			}
+		}
+
+		if ( failure != null ) { throw failure; }
+	}
+
+	private RuntimeException close(final Iterable<Run> runs, final RuntimeException failure) {
+
+		RuntimeException first=failure;
+
+		for (final Run run : runs) {
+			try {
+
+				run.close();
+
+			} catch ( final RuntimeException e ) {
+
+				first=suppress(first, e);
+
+			}
+		}
+
+		return first;
+	}
+
+	private static RuntimeException suppress(final RuntimeException first, final RuntimeException next) {
+
+		if ( first == null ) { return next; } else {
+
+			first.addSuppressed(next);
+
+			return first;
+
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private abstract class Run {
+
+		private final int index;
+
+		T head;
+
+
+		private Run(final int index) {
+			this.index=index;
+		}
+
+
+		abstract boolean advance();
+
+		void close() {}
+
+	}
+
+	private final class MemoryRun extends Run {
+
+		private final Iterator<T> iterator;
+
+
+		private MemoryRun(final int index, final Collection<T> buffer) {
+
+			super(index);
+
+			this.iterator=new ArrayList<>(buffer).iterator();
+		}
+
+
+		@Override boolean advance() {
+			if ( iterator.hasNext() ) {
+
+				head=iterator.next();
+
+				return true;
+
+			} else {
+
+				return false;
+
+			}
+		}
+
+	}
+
+	private final class FileRun extends Run {
+
+		private final Path file;
+
+		private long remaining;
+		private DataInputStream input;
+
+
+		private FileRun(final int index, final Iterator<T> elements) {
+
+			super(index);
+
+			this.file=folder().resolve(String.valueOf(files++));
+
+			try ( final DataOutputStream output=new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(file)
+			)) ) {
+
+				while ( elements.hasNext() ) {
+
+					codec.encode(output, elements.next());
+
+					++remaining;
+
+				}
+
+			} catch ( final IOException e ) {
+
+				throw discard(new UncheckedIOException(e));
+
+			} catch ( final RuntimeException e ) {
+
+				throw discard(e);
+
+			}
+		}
+
+
+		private RuntimeException discard(final RuntimeException failure) { // delete partially written run files
+
+			try {
+
+				Files.deleteIfExists(file);
+
+			} catch ( final IOException e ) {
+
+				failure.addSuppressed(e);
+
+			}
+
+			return failure;
+		}
+
+		@Override boolean advance() {
+			try {
+
+				if ( remaining == 0 ) { return false; } else {
+
+					if ( input == null ) {
+						input=new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+					}
+
+					head=codec.decode(input);
+
+					--remaining;
+
+					return true;
+
+				}
+
+			} catch ( final IOException e ) {
+
+				throw new UncheckedIOException(e);
+
+			}
+		}
+
+		@Override void close() {
+			try {
+
+				if ( input != null ) { input.close(); }
+
+				Files.deleteIfExists(file);
+
+			} catch ( final IOException e ) {
+
+				throw new UncheckedIOException(e);
+
+			} finally {
+
+				input=null;
+
+			}
+		}
+
+	}
+
+}
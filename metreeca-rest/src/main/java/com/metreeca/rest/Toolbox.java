@@ -114,6 +114,22 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 		return toolbox;
 	}
 
+	/**
+	 * Binds a task to the current toolbox, if one is active.
+	 *
+	 * @param task the task to be bound
+	 * @param <V>  the type of the value returned by {@code task}
+	 *
+	 * @return a task executing {@code task} inside the toolbox active on the calling thread, if one is active, or
+	 * {@code task} itself, otherwise; the returned task may be safely executed on a different thread
+	 */
+	static <V> Supplier<V> scoped(final Supplier<V> task) {
+
+		final Toolbox toolbox=scope.get();
+
+		return toolbox == null ? task : () -> toolbox.toolbox(task);
+	}
+
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Execution tracing {thread-safe}.
+ *
+ * <p>Collects timing spans for the tasks executed while the trace is {@linkplain #trace(Supplier) active} on the
+ * current thread; {@linkplain #span(String, Supplier) span} requests issued while no trace is active are executed
+ * without recording, at the cost of a single {@link ThreadLocal} lookup.</p>
+ *
+ * <p>Spans may be completed and recorded on threads other than the one the trace was activated on, for instance by
+ * asynchronous handlers delivering their response on a different thread.</p>
+ *
+ * <p><strong>Warning</strong> / Traces are not propagated to tasks executed on different threads.</p>
+ */
+public final class Tracing {
+
+	private static final ThreadLocal<Tracing> scope=new ThreadLocal<>();
+
+	private static final Pattern TokenPattern=Pattern.compile("[^-!#$%&'*+.^_`|~\\w]+");
+
+
+	/**
+	 * Executes a traced task.
+	 *
+	 * @param name the name of the span recording the execution of {@code task}
+	 * @param task the task to be executed
+	 *
+	 * @throws NullPointerException if either {@code name} or {@code task} is null
+	 */
+	public static void span(final String name, final Runnable task) {
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		span(name, () -> {
+
+			task.run();
+
+			return null;
+
+		});
+	}
+
+	/**
+	 * Executes a traced task.
+	 *
+	 * @param name the name of the span recording the execution of {@code task}
+	 * @param task the task to be executed
+	 * @param <V>  the type of the value returned by {@code task}
+	 *
+	 * @return the value returned by {@code task}
+	 *
+	 * @throws NullPointerException if either {@code name} or {@code task} is null
+	 */
+	public static <V> V span(final String name, final Supplier<V> task) {
+
+		if ( name == null ) {
+			throw new NullPointerException("null name");
+		}
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		final Tracing trace=scope.get();
+
+		if ( trace == null ) { return task.get(); } else {
+
+			final long start=System.nanoTime();
+
+			try {
+
+				return task.get();
+
+			} finally {
+
+				trace.record(name, start);
+
+			}
+
+		}
+	}
+
+
+	/**
+	 * Executes a traced task.
+	 *
+	 * <p>The span name is generated only if a trace is active.</p>
+	 *
+	 * @param type  the class whose simple name is used to label the span recording the execution of {@code task}
+	 * @param label the label of {@code task} within {@code type}; the span is named {@code <type>.<label>}
+	 * @param task  the task to be executed
+	 *
+	 * @throws NullPointerException if any argument is null
+	 */
+	public static void span(final Class<?> type, final String label, final Runnable task) {
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		span(type, label, () -> {
+
+			task.run();
+
+			return null;
+
+		});
+	}
+
+	/**
+	 * Executes a traced task.
+	 *
+	 * <p>The span name is generated only if a trace is active.</p>
+	 *
+	 * @param type  the class whose simple name is used to label the span recording the execution of {@code task}
+	 * @param label the label of {@code task} within {@code type}; the span is named {@code <type>.<label>}
+	 * @param task  the task to be executed
+	 * @param <V>   the type of the value returned by {@code task}
+	 *
+	 * @return the value returned by {@code task}
+	 *
+	 * @throws NullPointerException if any argument is null
+	 */
+	public static <V> V span(final Class<?> type, final String label, final Supplier<V> task) {
+
+		if ( type == null ) {
+			throw new NullPointerException("null type");
+		}
+
+		if ( label == null ) {
+			throw new NullPointerException("null label");
+		}
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		final Tracing trace=scope.get();
+
+		if ( trace == null ) { return task.get(); } else {
+
+			final long start=System.nanoTime();
+
+			try {
+
+				return task.get();
+
+			} finally {
+
+				trace.record(name(type)+"."+label, start);
+
+			}
+
+		}
+	}
+
+
+	/**
+	 * Traces handler execution.
+	 *
+	 * @param owner   the object whose name is used to label the span recording the execution of {@code handler}
+	 * @param handler the handler to be traced
+	 *
+	 * @return a handler recording the time elapsed between request handling and response generation by {@code
+	 * handler}, if a trace is active when a request is handled, and delegating to {@code handler}, otherwise
+	 */
+	static Handler traced(final Object owner, final Handler handler) {
+
+		final String name=name(owner.getClass());
+
+		return request -> {
+
+			final Tracing trace=scope.get();
+
+			if ( trace == null ) { return handler.handle(request); } else {
+
+				final long start=System.nanoTime();
+				final Future<Response> future=handler.handle(request);
+
+				return consumer -> future.accept(response -> {
+
+					trace.record(name, start);
+
+					consumer.accept(response);
+
+				});
+
+			}
+
+		};
+	}
+
+	private static String name(final Class<?> type) {
+
+		final String name=type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+
+		final int lambda=name.indexOf("$$");
+		final int dot=name.lastIndexOf('.');
+
+		return name.substring(dot+1, lambda >= 0 ? lambda : name.length());
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final long origin=System.nanoTime();
+
+	private final List<Span> spans=new ArrayList<>(); // guarded by this
+
+
+	/**
+	 * Activates this trace.
+	 *
+	 * @param task the task to be executed while this trace is active on the current thread
+	 * @param <V>  the type of the value returned by {@code task}
+	 *
+	 * @return the value returned by {@code task}
+	 *
+	 * @throws NullPointerException if {@code task} is null
+	 */
+	public <V> V trace(final Supplier<V> task) {
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		final Tracing active=scope.get();
+
+		try {
+
+			scope.set(this);
+
+			return task.get();
+
+		} finally {
+
+			if ( active == null ) { scope.remove(); } else { scope.set(active); }
+
+		}
+	}
+
+
+	/**
+	 * Retrieves recorded spans.
+	 *
+	 * @return a snapshot of the list of the spans recorded by this trace, in completion order
+	 */
+	public List<Span> spans() {
+		synchronized ( this ) {
+			return unmodifiableList(new ArrayList<>(spans));
+		}
+	}
+
+	/**
+	 * Retrieves timing metrics.
+	 *
+	 * @return a textual representation of the spans recorded by this trace, aggregated by name in first completion
+	 * order, in the format expected by the {@code Server-Timing} HTTP header
+	 *
+	 * @see <a href="https://www.w3.org/TR/server-timing/">Server Timing</a>
+	 */
+	public String timing() {
+
+		final Map<String, Long> durations=new LinkedHashMap<>();
+
+		for (final Span span : spans()) {
+			durations.merge(TokenPattern.matcher(span.name).replaceAll("_"), span.duration, Long::sum);
+		}
+
+		final StringJoiner joiner=new StringJoiner(", ");
+
+		durations.forEach((name, duration) ->
+				joiner.add(format(Locale.ROOT, "%s;dur=%.3f", name, duration/1_000_000.0))
+		);
+
+		return joiner.toString();
+	}
+
+
+	private void record(final String name, final long start) {
+
+		final Span span=new Span(name, start-origin, System.nanoTime()-start);
+
+		synchronized ( this ) {
+			spans.add(span);
+		}
+	}
+
+
+	@Override public String toString() {
+
+		final StringJoiner joiner=new StringJoiner(", ", "[", "]");
+
+		for (final Span span : spans()) { joiner.add(span.toString()); }
+
+		return joiner.toString();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Timing span.
+	 */
+	public static final class Span {
+
+		private final String name;
+
+		private final long start;
+		private final long duration;
+
+
+		private Span(final String name, final long start, final long duration) {
+			this.name=name;
+			this.start=start;
+			this.duration=duration;
+		}
+
+
+		/**
+		 * Retrieves the span name.
+		 *
+		 * @return the name of the traced task
+		 */
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * Retrieves the span start.
+		 *
+		 * @return the start time of the traced task in nanoseconds, relative to the creation of the enclosing trace
+		 */
+		public long start() {
+			return start;
+		}
+
+		/**
+		 * Retrieves the span duration.
+		 *
+		 * @return the execution time of the traced task in nanoseconds
+		 */
+		public long duration() {
+			return duration;
+		}
+
+
+		@Override public String toString() {
+			return format(Locale.ROOT, "%s@%.3f+%.3fms", name, start/1_000_000.0, duration/1_000_000.0);
+		}
+
+	}
+
+}
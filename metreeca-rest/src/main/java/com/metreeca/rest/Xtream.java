@@ -16,15 +16,26 @@
 
 package com.metreeca.rest;
 
+import org.eclipse.rdf4j.model.*;
+
 import java.io.*;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.time.Duration;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.Map.Entry;
 import java.util.function.*;
 import java.util.stream.*;
 
+import static com.metreeca.json.Values.bnode;
+import static com.metreeca.json.Values.iri;
+import static com.metreeca.json.Values.literal;
+import static com.metreeca.json.Values.statement;
+import static com.metreeca.json.Values.triple;
+
+import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
 import static java.util.function.Function.identity;
@@ -701,6 +712,114 @@ public final class Xtream<T> implements Stream<T> {
 	}
 
 
+	/**
+	 * Groups elements in external memory.
+	 *
+	 * <p>Elements are sorted by encoded grouping key in runs of at most {@code budget} elements, spilling sorted runs
+	 * to temporary files in the {@code spill} folder of the system file {@linkplain Toolbox#storage() storage} and
+	 * lazily merging them on retrieval; only the elements of a single group must fit in memory at once.</p>
+	 *
+	 * @param classifier a function mapping elements to their grouping key
+	 * @param keys       the codec for grouping keys
+	 * @param values     the codec for elements
+	 * @param budget     the maximum number of elements to be sorted in memory
+	 * @param <K>        the type of the key returned by {@code classifier}
+	 *
+	 * @return an extended stream produced by applying {@code classifier} to each element of this extended stream and
+	 * returning a stream of entries mapping each grouping key returned by {@code classifier} to the list of the
+	 * elements matching the grouping key, in encounter order; entries are generated in the order of encoded keys
+	 *
+	 * @throws NullPointerException     if any of {@code classifier}, {@code keys} or {@code values} is null
+	 * @throws IllegalArgumentException if {@code budget} is less than 1
+	 */
+	public <K> Xtream<Entry<K, List<T>>> groupBy(
+			final Function<T, K> classifier, final Codec<K> keys, final Codec<T> values, final int budget
+	) {
+
+		if ( classifier == null ) {
+			throw new NullPointerException("null classifier");
+		}
+
+		if ( keys == null ) {
+			throw new NullPointerException("null keys codec");
+		}
+
+		if ( values == null ) {
+			throw new NullPointerException("null values codec");
+		}
+
+		if ( budget < 1 ) {
+			throw new IllegalArgumentException("non-positive budget");
+		}
+
+		return from(Spill.groups(stream, classifier, keys, values, budget));
+	}
+
+
+	/**
+	 * Removes duplicate elements in external memory.
+	 *
+	 * <p>Elements are sorted by encoded value in runs of at most {@code budget} elements, spilling sorted runs to
+	 * temporary files in the {@code spill} folder of the system file {@linkplain Toolbox#storage() storage} and lazily
+	 * merging them on retrieval.</p>
+	 *
+	 * @param codec  the codec for elements; equal elements are expected to have equal encodings
+	 * @param budget the maximum number of elements to be sorted in memory
+	 *
+	 * @return an extended stream containing the distinct elements of this extended stream, in the order of their
+	 * encodings
+	 *
+	 * @throws NullPointerException     if {@code codec} is null
+	 * @throws IllegalArgumentException if {@code budget} is less than 1
+	 */
+	public Xtream<T> distinct(final Codec<T> codec, final int budget) {
+
+		if ( codec == null ) {
+			throw new NullPointerException("null codec");
+		}
+
+		if ( budget < 1 ) {
+			throw new IllegalArgumentException("non-positive budget");
+		}
+
+		return from(Spill.distinct(stream, codec, budget));
+	}
+
+	/**
+	 * Sorts elements in external memory.
+	 *
+	 * <p>Elements are sorted in runs of at most {@code budget} elements, spilling sorted runs to temporary files in
+	 * the {@code spill} folder of the system file {@linkplain Toolbox#storage() storage} and lazily merging them on
+	 * retrieval; inputs fitting in a single run are sorted in memory.</p>
+	 *
+	 * @param comparator the comparator for elements
+	 * @param codec      the codec for elements
+	 * @param budget     the maximum number of elements to be sorted in memory
+	 *
+	 * @return an extended stream containing the elements of this extended stream, stably sorted according to {@code
+	 * comparator}
+	 *
+	 * @throws NullPointerException     if either {@code comparator} or {@code codec} is null
+	 * @throws IllegalArgumentException if {@code budget} is less than 1
+	 */
+	public Xtream<T> sorted(final Comparator<? super T> comparator, final Codec<T> codec, final int budget) {
+
+		if ( comparator == null ) {
+			throw new NullPointerException("null comparator");
+		}
+
+		if ( codec == null ) {
+			throw new NullPointerException("null codec");
+		}
+
+		if ( budget < 1 ) {
+			throw new IllegalArgumentException("non-positive budget");
+		}
+
+		return from(Spill.sorted(stream, comparator, codec, budget));
+	}
+
+
 	/**
 	 * Batches elements.
 	 *
@@ -710,15 +829,85 @@ public final class Xtream<T> implements Stream<T> {
 	 * {@code size} elements if {@code size} is greater than 0 or in a single batch otherwise
 	 *
 	 * @throws IllegalArgumentException if {@code size} is negative
+	 * @see #batch(int, boolean)
 	 */
 	public Xtream<Collection<T>> batch(final int size) {
+		return batch(size, false);
+	}
+
+	/**
+	 * Batches elements.
+	 *
+	 * <p>Batching is split-friendly: if this extended stream is parallel, batches may be processed concurrently, even
+	 * if the underlying source doesn't support splitting.</p>
+	 *
+	 * @param size    the batch size limit (0 for no limits)
+	 * @param ordered if {@code true}, batches are contiguous runs of at most {@code size} elements; if {@code false},
+	 *                batches may be collected from independent splits of this extended stream, possibly including
+	 *                additional partial batches at split boundaries; in both cases, batches retain the encounter order
+	 *                of this extended stream, if defined
+	 *
+	 * @return an extended stream produced by collecting the elements of this extended stream in batches of at most
+	 * {@code size} elements if {@code size} is greater than 0 or in a single batch otherwise
+	 *
+	 * @throws IllegalArgumentException if {@code size} is negative
+	 */
+	public Xtream<Collection<T>> batch(final int size, final boolean ordered) {
+
+		if ( size < 0 ) {
+			throw new IllegalArgumentException("negative batch size");
+		}
+
+		return size == 0 ? of(stream.collect(Collectors.toList())) : from(StreamSupport
+				.stream(new BatchSpliterator<>(size, ordered, stream.spliterator()), stream.isParallel())
+				.onClose(stream::close)
+		);
+	}
+
+	/**
+	 * Batches elements by size or time.
+	 *
+	 * <p>Elements are pulled from this extended stream by a background thread, so that batches may be generated
+	 * while waiting for further elements from unbounded or slow sources; the {@linkplain Toolbox toolbox} active on
+	 * the consuming thread is propagated to the background thread. At most {@code size} elements (1024, if {@code
+	 * size} is 0) are buffered ahead of the consumer.</p>
+	 *
+	 * <p><strong>Warning</strong> / The background thread is released only when the source is exhausted or the
+	 * returned stream is {@linkplain #close() closed}: streams abandoned before being fully consumed must be explicitly
+	 * closed, for instance using a try-with-resources statement. Elements buffered before a source failure are
+	 * delivered before the failure is reported.</p>
+	 *
+	 * @param size    the batch size limit (0 for no limits)
+	 * @param latency the maximum time elapsed between the arrival of the first element of a batch and the generation
+	 *                of the batch
+	 *
+	 * @return an extended stream produced by collecting the elements of this extended stream in batches of at most
+	 * {@code size} elements, if {@code size} is greater than 0, each generated as soon as it is full or {@code latency}
+	 * has elapsed since the arrival of its first element
+	 *
+	 * @throws IllegalArgumentException if either {@code size} or {@code latency} is negative
+	 * @throws NullPointerException     if {@code latency} is null
+	 */
+	public Xtream<Collection<T>> batch(final int size, final Duration latency) {
 
 		if ( size < 0 ) {
 			throw new IllegalArgumentException("negative batch size");
 		}
 
-		return size == 0 ? of(stream.collect(Collectors.toList()))
-				: from(StreamSupport.stream(new BatchSpliterator<>(size, stream.spliterator()), stream.isParallel()));
+		if ( latency == null ) {
+			throw new NullPointerException("null latency");
+		}
+
+		if ( latency.isNegative() ) {
+			throw new IllegalArgumentException("negative latency");
+		}
+
+		final TimedBatchSpliterator<T> spliterator=new TimedBatchSpliterator<>(size, latency, stream.spliterator());
+
+		return from(StreamSupport.stream(spliterator, false)
+				.onClose(spliterator::close)
+				.onClose(stream::close)
+		);
 	}
 
 	/**
@@ -753,40 +942,59 @@ public final class Xtream<T> implements Stream<T> {
 	 * considered to be empty
 	 *
 	 * @throws NullPointerException if {@code mapper} is {@code null}
+	 * @see #loop(Supplier, Function)
 	 */
-	public Xtream<T> loop(final Function<? super T, ? extends Stream<T>> mapper) { // !!! lazy
+	public Xtream<T> loop(final Function<? super T, ? extends Stream<T>> mapper) {
 
 		if ( mapper == null ) {
 			throw new NullPointerException("null mapper");
 		}
 
-		final Collection<T> visited=new LinkedHashSet<>(); // preserve order
-
-		for (
-
-				Set<T> pending=stream
-						.collect(toCollection(LinkedHashSet::new));
-
-				!pending.isEmpty();
-
-				pending=pending
-						.stream()
-						.flatMap(mapper)
-						.filter(value -> !visited.contains(value))
-						.collect(toCollection(LinkedHashSet::new))
+		return loop(HashSet::new, mapper);
+	}
 
-		) {
+	/**
+	 * Recursively expands this extended stream using a custom visited set.
+	 *
+	 * <p>Elements are lazily generated in breadth-first order, as they are discovered: only the visited set and the
+	 * current expansion frontier are retained in memory. Very large traversals may plug compact or off-heap set
+	 * implementations, provided they support {@link Set#add(Object)} with the usual semantics.</p>
+	 *
+	 * @param visited a factory for the set tracking visited elements; invoked once, on first access
+	 * @param mapper  a function mapping elements to streams of elements of the same type
+	 *
+	 * @return an extended stream produced by recursively applying {@code mapper} to this extended stream and expanding
+	 * it with the elements of the returned streams until no new elements are generated; null returned streams are
+	 * considered to be empty
+	 *
+	 * @throws NullPointerException if either {@code visited} or {@code mapper} is {@code null}
+	 */
+	public Xtream<T> loop(
+			final Supplier<? extends Set<T>> visited, final Function<? super T, ? extends Stream<T>> mapper
+	) {
 
-			visited.addAll(pending);
+		if ( visited == null ) {
+			throw new NullPointerException("null visited");
+		}
 
+		if ( mapper == null ) {
+			throw new NullPointerException("null mapper");
 		}
 
-		return from(visited.stream());
+		final LoopSpliterator<T> spliterator=new LoopSpliterator<>(visited, mapper, stream.iterator());
+
+		return from(StreamSupport.stream(spliterator, false)
+				.onClose(spliterator::close)
+				.onClose(stream::close)
+		);
 	}
 
 	/**
 	 * Iteratively expands this extended stream.
 	 *
+	 * <p>Elements are lazily generated in depth-first order: only the streams on the current expansion path are
+	 * retained in memory.</p>
+	 *
 	 * @param steps  the number of expansion steps to be performed
 	 * @param mapper a function mapping elements to streams of elements of the same type
 	 *
@@ -798,7 +1006,7 @@ public final class Xtream<T> implements Stream<T> {
 	 * @throws IllegalArgumentException if {@code steps} is negative
 	 * @throws NullPointerException     if {@code mapper} is {@code null}
 	 */
-	public Xtream<T> iter(final int steps, final Function<? super T, ? extends Stream<T>> mapper) { // !!! lazy
+	public Xtream<T> iter(final int steps, final Function<? super T, ? extends Stream<T>> mapper) {
 
 		if ( steps < 0 ) {
 			throw new IllegalArgumentException("negative steps count");
@@ -808,13 +1016,94 @@ public final class Xtream<T> implements Stream<T> {
 			throw new NullPointerException("null mapper");
 		}
 
-		Xtream<T> iter=this;
+		if ( steps == 0 ) { return this; }
+
+		final IterSpliterator<T> spliterator=new IterSpliterator<>(steps, mapper, stream.iterator());
+
+		return from(StreamSupport.stream(spliterator, false)
+				.onClose(spliterator::close)
+				.onClose(stream::close)
+		);
+	}
+
+
+	/**
+	 * Maps elements asynchronously.
+	 *
+	 * @param executor    the executor running {@code mapper} tasks
+	 * @param parallelism the maximum number of {@code mapper} tasks running concurrently
+	 * @param mapper      a function mapping elements to results
+	 * @param <R>         the type of the results generated by {@code mapper}
+	 *
+	 * @return an extended stream produced by asynchronously applying {@code mapper} to the elements of this extended
+	 * stream, preserving their order
+	 *
+	 * @throws NullPointerException     if either {@code executor} or {@code mapper} is null
+	 * @throws IllegalArgumentException if {@code parallelism} is less than 1
+	 * @see #async(Executor, int, int, boolean, Function)
+	 */
+	public <R> Xtream<R> async(
+			final Executor executor, final int parallelism, final Function<? super T, ? extends R> mapper
+	) {
+		return async(executor, parallelism, parallelism, true, mapper);
+	}
+
+	/**
+	 * Maps elements asynchronously.
+	 *
+	 * <p>Elements are lazily pulled from this extended stream on the consuming thread and submitted to
+	 * {@code executor} as {@code mapper} tasks, so that I/O-bound stages may overlap; at most {@code parallelism} tasks
+	 * are running at any time and at most {@code buffer} elements are pending, that is submitted but not yet consumed
+	 * downstream. Any executor may be used, including virtual thread executors where available.</p>
+	 *
+	 * <p>The {@linkplain Toolbox toolbox} active on the consuming thread is propagated to {@code mapper} tasks, so
+	 * that shared services may be retrieved as usual; exceptions thrown by {@code mapper} are rethrown on the consuming
+	 * thread.</p>
+	 *
+	 * @param executor    the executor running {@code mapper} tasks
+	 * @param parallelism the maximum number of {@code mapper} tasks running concurrently
+	 * @param buffer      the maximum number of pending elements
+	 * @param ordered     if {@code true}, results are generated in the order of the elements of this extended stream;
+	 *                    if {@code false}, results are generated as soon as they are available
+	 * @param mapper      a function mapping elements to results
+	 * @param <R>         the type of the results generated by {@code mapper}
+	 *
+	 * @return an extended stream produced by asynchronously applying {@code mapper} to the elements of this extended
+	 * stream
+	 *
+	 * @throws NullPointerException     if either {@code executor} or {@code mapper} is null
+	 * @throws IllegalArgumentException if {@code parallelism} is less than 1 or {@code buffer} is less than {@code
+	 *                                  parallelism}
+	 */
+	public <R> Xtream<R> async(
+			final Executor executor, final int parallelism, final int buffer, final boolean ordered,
+			final Function<? super T, ? extends R> mapper
+	) {
+
+		if ( executor == null ) {
+			throw new NullPointerException("null executor");
+		}
+
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException("non-positive parallelism");
+		}
+
+		if ( buffer < parallelism ) {
+			throw new IllegalArgumentException("buffer size less than parallelism");
+		}
 
-		for (int n=0; n < steps; ++n) {
-			iter=iter.flatMap(mapper);
+		if ( mapper == null ) {
+			throw new NullPointerException("null mapper");
 		}
 
-		return iter;
+		final AsyncSpliterator<T, R> spliterator=new AsyncSpliterator<>(
+				executor, parallelism, buffer, ordered, mapper, stream.iterator()
+		);
+
+		return from(StreamSupport.stream(spliterator, false)
+				.onClose(spliterator::close)
+				.onClose(stream::close)
+		);
 	}
 
 
@@ -953,6 +1242,214 @@ public final class Xtream<T> implements Stream<T> {
 	@Override public void close() { stream.close(); }
 
 
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Binary record codec.
+	 *
+	 * <p>Converts stream elements to and from binary records, for instance while spilling them to external
+	 * memory.</p>
+	 *
+	 * @param <T> the type of the converted elements
+	 */
+	public static interface Codec<T> {
+
+		/**
+		 * Retrieves the byte array codec.
+		 *
+		 * @return a codec for byte arrays
+		 */
+		public static Codec<byte[]> bytes() {
+			return new Codec<byte[]>() {
+
+				@Override public void encode(final DataOutput output, final byte[] value) throws IOException {
+					output.writeInt(value.length);
+					output.write(value);
+				}
+
+				@Override public byte[] decode(final DataInput input) throws IOException {
+
+					final byte[] value=new byte[input.readInt()];
+
+					input.readFully(value);
+
+					return value;
+				}
+
+			};
+		}
+
+		/**
+		 * Retrieves the string codec.
+		 *
+		 * @return a codec for strings of any length
+		 */
+		public static Codec<String> strings() {
+			return new Codec<String>() {
+
+				@Override public void encode(final DataOutput output, final String value) throws IOException {
+					bytes().encode(output, value.getBytes(UTF_8));
+				}
+
+				@Override public String decode(final DataInput input) throws IOException {
+					return new String(bytes().decode(input), UTF_8);
+				}
+
+			};
+		}
+
+		/**
+		 * Retrieves the RDF value codec.
+		 *
+		 * @return a codec for RDF values, including RDF-star triples; null values are supported
+		 */
+		public static Codec<Value> values() {
+			return new Codec<Value>() {
+
+				@Override public void encode(final DataOutput output, final Value value) throws IOException {
+					if ( value == null ) {
+
+						output.writeByte(0);
+
+					} else if ( value.isIRI() ) {
+
+						output.writeByte('I');
+						strings().encode(output, value.stringValue());
+
+					} else if ( value.isBNode() ) {
+
+						output.writeByte('B');
+						strings().encode(output, ((BNode)value).getID());
+
+					} else if ( value.isTriple() ) {
+
+						output.writeByte('T');
+						encode(output, ((Triple)value).getSubject());
+						encode(output, ((Triple)value).getPredicate());
+						encode(output, ((Triple)value).getObject());
+
+					} else {
+
+						final Literal literal=(Literal)value;
+						final Optional<String> lang=literal.getLanguage();
+
+						output.writeByte(lang.isPresent() ? 'L' : 'D');
+						strings().encode(output, literal.getLabel());
+						strings().encode(output, lang.isPresent() ? lang.get() : literal.getDatatype().stringValue());
+
+					}
+				}
+
+				@Override public Value decode(final DataInput input) throws IOException {
+
+					final byte type=input.readByte();
+
+					switch ( type ) {
+
+						case 0: return null;
+
+						case 'I': return iri(strings().decode(input));
+						case 'B': return bnode(strings().decode(input));
+						case 'T': return triple((Resource)decode(input), (IRI)decode(input), decode(input));
+						case 'L': return literal(strings().decode(input), strings().decode(input));
+						case 'D': return literal(strings().decode(input), iri(strings().decode(input)));
+
+						default: throw new IOException(format("unknown value type <%d>", type));
+
+					}
+				}
+
+			};
+		}
+
+		/**
+		 * Retrieves the RDF statement codec.
+		 *
+		 * @return a codec for RDF statements, including their context
+		 */
+		public static Codec<Statement> statements() {
+			return new Codec<Statement>() {
+
+				@Override public void encode(final DataOutput output, final Statement value) throws IOException {
+					values().encode(output, value.getSubject());
+					values().encode(output, value.getPredicate());
+					values().encode(output, value.getObject());
+					values().encode(output, value.getContext());
+				}
+
+				@Override public Statement decode(final DataInput input) throws IOException {
+					return statement(
+							(Resource)values().decode(input),
+							(IRI)values().decode(input),
+							values().decode(input),
+							(Resource)values().decode(input)
+					);
+				}
+
+			};
+		}
+
+		/**
+		 * Retrieves an entry codec.
+		 *
+		 * @param keys   the codec for entry keys
+		 * @param values the codec for entry values
+		 * @param <K>    the type of entry keys
+		 * @param <V>    the type of entry values
+		 *
+		 * @return a codec for map entries
+		 *
+		 * @throws NullPointerException if either {@code keys} or {@code values} is null
+		 */
+		public static <K, V> Codec<Entry<K, V>> entries(final Codec<K> keys, final Codec<V> values) {
+
+			if ( keys == null ) {
+				throw new NullPointerException("null keys codec");
+			}
+
+			if ( values == null ) {
+				throw new NullPointerException("null values codec");
+			}
+
+			return new Codec<Entry<K, V>>() {
+
+				@Override public void encode(final DataOutput output, final Entry<K, V> value) throws IOException {
+					keys.encode(output, value.getKey());
+					values.encode(output, value.getValue());
+				}
+
+				@Override public Entry<K, V> decode(final DataInput input) throws IOException {
+					return new SimpleImmutableEntry<>(keys.decode(input), values.decode(input));
+				}
+
+			};
+		}
+
+
+		/**
+		 * Encodes an element.
+		 *
+		 * @param output the output the encoded element is to be written to
+		 * @param value  the element to be encoded
+		 *
+		 * @throws IOException if an I/O error occurs while writing to {@code output}
+		 */
+		public void encode(final DataOutput output, final T value) throws IOException;
+
+		/**
+		 * Decodes an element.
+		 *
+		 * @param input the input the encoded element is to be read from
+		 *
+		 * @return the decoded element
+		 *
+		 * @throws IOException if an I/O error occurs while reading from {@code input}
+		 */
+		public T decode(final DataInput input) throws IOException;
+
+	}
+
+
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	// !!! https://www.airpair.com/java/posts/parallel-processing-of-io-based-data-with-java-streams
@@ -960,12 +1457,19 @@ public final class Xtream<T> implements Stream<T> {
 
 	private static final class BatchSpliterator<T> implements Spliterator<Collection<T>> {
 
+		private static final int SplitLimit=1<<16; // maximum number of elements buffered on prefix splits
+
+
 		private final int size;
+		private final boolean ordered;
 		private final Spliterator<T> base;
 
+		private int split; // the number of batches buffered on the last prefix split
+
 
-		private BatchSpliterator(final int size, final Spliterator<T> base) {
+		private BatchSpliterator(final int size, final boolean ordered, final Spliterator<T> base) {
 			this.size=size;
+			this.ordered=ordered;
 			this.base=base;
 		}
 
@@ -991,18 +1495,498 @@ public final class Xtream<T> implements Stream<T> {
 		}
 
 		@Override public Spliterator<Collection<T>> trySplit() {
-			return base.estimateSize() <= size ? null : Optional
-					.ofNullable(base.trySplit())
-					.map(spliterator -> new BatchSpliterator<>(size, spliterator))
-					.orElse(null);
+
+			if ( base.estimateSize() <= size ) { return null; }
+
+			if ( !ordered ) { // split the base, possibly generating partial batches at split boundaries
+
+				final Spliterator<T> spliterator=base.trySplit();
+
+				if ( spliterator != null ) {
+					return new BatchSpliterator<>(size, false, spliterator);
+				}
+
+			}
+
+			// split a prefix of buffered batches, growing the prefix at each split as in Spliterators.AbstractSpliterator
+
+			final int limit=Math.min(split+1, Math.max(1, SplitLimit/size));
+			final List<Collection<T>> batches=new ArrayList<>(limit);
+
+			while ( batches.size() < limit && tryAdvance(batches::add) ) { }
+
+			split=batches.size();
+
+			return batches.isEmpty() ? null : Spliterators.spliterator(batches, characteristics());
 		}
 
 		@Override public long estimateSize() {
-			return (base.estimateSize()+size-1)/size;
+
+			final long estimate=base.estimateSize();
+
+			return estimate == Long.MAX_VALUE ? estimate : estimate/size+(estimate%size == 0 ? 0 : 1);
 		}
 
 		@Override public int characteristics() {
-			return base.characteristics();
+			return NONNULL|base.characteristics()&ORDERED; // splits are prefixes in both modes
+		}
+
+	}
+
+	private static final class TimedBatchSpliterator<T> extends Spliterators.AbstractSpliterator<Collection<T>> {
+
+		private static final int Backlog=1024; // maximum number of elements buffered ahead of unlimited batches
+
+		private static final Object Null=new Object();
+		private static final Object End=new Object();
+
+
+		private final int size;
+		private final long latency;
+		private final Spliterator<T> base;
+
+		private final BlockingQueue<Object> queue;
+
+		private ExecutorService feeder;
+		private Throwable failure; // source failure pending after the last delivered batch
+		private boolean done;
+
+
+		private TimedBatchSpliterator(final int size, final Duration latency, final Spliterator<T> base) {
+
+			super(Long.MAX_VALUE, ORDERED|NONNULL);
+
+			this.size=size;
+			this.latency=latency.toNanos();
+			this.base=base;
+
+			this.queue=new ArrayBlockingQueue<>(size == 0 ? Backlog : size);
+		}
+
+
+		@SuppressWarnings("unchecked") @Override public boolean tryAdvance(final Consumer<? super Collection<T>> action) {
+
+			if ( failure != null ) { done=true; throw failure(failure); }
+
+			if ( done ) { return false; }
+
+			if ( feeder == null ) { start(); }
+
+			try {
+
+				final List<T> batch=new ArrayList<>();
+
+				long deadline=0;
+
+				while ( size == 0 || batch.size() < size ) {
+
+					final Object item=batch.isEmpty() ? queue.take()
+							: queue.poll(deadline-System.nanoTime(), TimeUnit.NANOSECONDS);
+
+					if ( item == null ) { break; } // latency elapsed
+
+					if ( item == End ) { done=true; break; }
+
+					if ( item instanceof Failure ) {
+
+						final Throwable cause=((Failure)item).cause;
+
+						if ( batch.isEmpty() ) { done=true; throw failure(cause); }
+
+						failure=cause; // deliver buffered elements first
+
+						break;
+
+					}
+
+					if ( batch.isEmpty() ) {
+						deadline=System.nanoTime()+latency;
+					}
+
+					batch.add(item == Null ? null : (T)item);
+
+				}
+
+				if ( batch.isEmpty() ) {
+
+					return false;
+
+				} else {
+
+					action.accept(batch);
+
+					return true;
+
+				}
+
+			} catch ( final InterruptedException e ) {
+
+				Thread.currentThread().interrupt();
+
+				throw new CompletionException(e);
+
+			}
+		}
+
+
+		private void start() {
+
+			final Supplier<Object> task=Toolbox.scoped(() -> {
+
+				try {
+
+					base.forEachRemaining(element -> put(element == null ? Null : element));
+
+					put(End);
+
+				} catch ( final CancellationException ignored ) { // closed
+
+				} catch ( final Throwable e ) {
+
+					try { put(new Failure(e)); } catch ( final CancellationException ignored ) {}
+
+				}
+
+				return null;
+
+			});
+
+			feeder=Executors.newSingleThreadExecutor(runnable -> {
+
+				final Thread thread=new Thread(runnable, "xtream-batch");
+
+				thread.setDaemon(true);
+
+				return thread;
+
+			});
+
+			feeder.execute(task::get);
+			feeder.shutdown(); // release the thread as soon as the task is done
+		}
+
+		private void put(final Object item) {
+			try {
+
+				queue.put(item);
+
+			} catch ( final InterruptedException e ) {
+
+				throw new CancellationException("closed");
+
+			}
+		}
+
+		private void close() {
+
+			done=true;
+
+			if ( feeder != null ) { feeder.shutdownNow(); }
+		}
+
+
+		private static RuntimeException failure(final Throwable cause) {
+
+			if ( cause instanceof Error ) { throw (Error)cause; }
+
+			return cause instanceof RuntimeException ? (RuntimeException)cause : new CompletionException(cause);
+		}
+
+
+		private static final class Failure {
+
+			private final Throwable cause;
+
+			private Failure(final Throwable cause) { this.cause=cause; }
+
+		}
+
+	}
+
+	private static final class AsyncSpliterator<T, R> extends Spliterators.AbstractSpliterator<R> {
+
+		private final Executor executor;
+		private final int buffer;
+		private final boolean ordered;
+		private final Function<? super T, ? extends R> mapper;
+		private final Iterator<T> base;
+
+		private final Semaphore running;
+
+		private final Deque<CompletableFuture<R>> pending=new ArrayDeque<>(); // in submission order
+		private final BlockingQueue<CompletableFuture<R>> completed=new LinkedBlockingQueue<>(); // in completion order
+
+
+		private AsyncSpliterator(
+				final Executor executor, final int parallelism, final int buffer, final boolean ordered,
+				final Function<? super T, ? extends R> mapper,
+				final Iterator<T> base
+		) {
+
+			super(Long.MAX_VALUE, ordered ? ORDERED : 0);
+
+			this.executor=executor;
+			this.buffer=buffer;
+			this.ordered=ordered;
+			this.mapper=mapper;
+			this.base=base;
+
+			this.running=new Semaphore(parallelism);
+		}
+
+
+		@Override public boolean tryAdvance(final Consumer<? super R> action) {
+
+			submit();
+
+			if ( pending.isEmpty() ) { return false; } else {
+
+				action.accept(next());
+
+				return true;
+
+			}
+		}
+
+		private R next() {
+			try {
+
+				final CompletableFuture<R> next;
+
+				if ( ordered ) {
+
+					while ( !pending.peek().isDone() ) {
+						completed.take(); // wait for any task to complete and refill freed slots
+						submit();
+					}
+
+					next=pending.remove();
+
+					completed.clear(); // only used as a completion signal
+
+				} else {
+
+					next=completed.take();
+
+					pending.remove(next);
+
+				}
+
+				return next.join();
+
+			} catch ( final InterruptedException e ) {
+
+				Thread.currentThread().interrupt();
+
+				throw new CompletionException(e);
+
+			} catch ( final CompletionException e ) {
+
+				final Throwable cause=e.getCause();
+
+				if ( cause instanceof RuntimeException ) { throw (RuntimeException)cause; }
+				if ( cause instanceof Error ) { throw (Error)cause; }
+
+				throw e;
+
+			}
+		}
+
+		private void submit() {
+			while ( pending.size() < buffer && base.hasNext() && running.tryAcquire() ) {
+
+				final T element=base.next();
+
+				final Supplier<R> task=Toolbox.scoped(() -> mapper.apply(element));
+				final CompletableFuture<R> future=new CompletableFuture<>();
+
+				pending.add(future);
+
+				future.whenComplete((value, error) -> completed.add(future)); // signal only after completion
+
+				try {
+
+					executor.execute(() -> {
+
+						R value=null;
+						Throwable error=null;
+
+						try {
+
+							value=future.isDone() ? null : task.get(); // skip tasks cancelled on close
+
+						} catch ( final Throwable e ) {
+
+							error=e;
+
+						}
+
+						running.release(); // before completing, so that freed slots are visible to woken consumers
+
+						if ( error == null ) { future.complete(value); } else { future.completeExceptionally(error); }
+
+					});
+
+				} catch ( final RuntimeException e ) {
+
+					pending.removeLast();
+					running.release();
+
+					throw e;
+
+				}
+
+			}
+		}
+
+		private void close() {
+			while ( !pending.isEmpty() ) {
+				pending.remove().cancel(false);
+			}
+		}
+
+	}
+
+	private static final class LoopSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final Supplier<? extends Set<T>> factory;
+		private final Function<? super T, ? extends Stream<T>> mapper;
+
+		private final Queue<T> pending=new LinkedList<>(); // discovered but not yet expanded; nulls allowed
+
+		private Set<T> visited;
+
+		private Iterator<T> cursor;
+		private Stream<T> expansion;
+
+
+		private LoopSpliterator(
+				final Supplier<? extends Set<T>> factory,
+				final Function<? super T, ? extends Stream<T>> mapper,
+				final Iterator<T> base
+		) {
+
+			super(Long.MAX_VALUE, 0);
+
+			this.factory=factory;
+			this.mapper=mapper;
+
+			this.cursor=base;
+		}
+
+
+		@Override public boolean tryAdvance(final Consumer<? super T> action) {
+
+			if ( visited == null && (visited=factory.get()) == null ) {
+				throw new NullPointerException("null visited set");
+			}
+
+			while ( true ) {
+
+				while ( cursor.hasNext() ) {
+
+					final T element=cursor.next();
+
+					if ( visited.add(element) ) {
+
+						pending.add(element);
+						action.accept(element);
+
+						return true;
+
+					}
+
+				}
+
+				close();
+
+				if ( pending.isEmpty() ) {
+
+					return false;
+
+				} else {
+
+					expansion=mapper.apply(pending.remove());
+					cursor=expansion == null ? Collections.emptyIterator() : expansion.iterator();
+
+				}
+
+			}
+
+		}
+
+		private void close() {
+			if ( expansion != null ) {
+				try { expansion.close(); } finally { expansion=null; }
+			}
+		}
+
+	}
+
+	private static final class IterSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final int steps;
+		private final Function<? super T, ? extends Stream<T>> mapper;
+
+		private final Deque<Iterator<T>> cursors=new ArrayDeque<>(); // the depth-first expansion path
+		private final Deque<Stream<T>> expansions=new ArrayDeque<>();
+
+
+		private IterSpliterator(
+				final int steps,
+				final Function<? super T, ? extends Stream<T>> mapper,
+				final Iterator<T> base
+		) {
+
+			super(Long.MAX_VALUE, 0);
+
+			this.steps=steps;
+			this.mapper=mapper;
+
+			cursors.push(base);
+		}
+
+
+		@Override public boolean tryAdvance(final Consumer<? super T> action) {
+
+			while ( !cursors.isEmpty() ) {
+
+				final Iterator<T> cursor=cursors.peek();
+
+				if ( !cursor.hasNext() ) {
+
+					cursors.pop();
+
+					if ( !expansions.isEmpty() ) {
+						expansions.pop().close();
+					}
+
+				} else if ( expansions.size() == steps ) {
+
+					action.accept(cursor.next());
+
+					return true;
+
+				} else {
+
+					final Stream<T> expansion=mapper.apply(cursor.next());
+
+					if ( expansion != null ) {
+						expansions.push(expansion);
+						cursors.push(expansion.iterator());
+					}
+
+				}
+
+			}
+
+			return false;
+		}
+
+		private void close() {
+			while ( !expansions.isEmpty() ) {
+				expansions.pop().close();
+			}
 		}
 
 	}
@@ -21,11 +21,13 @@ import com.metreeca.rest.Request;
 import com.metreeca.rest.Response;
 import com.metreeca.rest.services.Fetcher;
 import com.metreeca.rest.services.Logger;
+import com.metreeca.rest.services.Metrics;
 
 import java.util.Optional;
 import java.util.function.Function;
 
 import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.services.Logger.time;
 
 
 /**
@@ -41,6 +43,7 @@ public final class Fetch implements Function<Request, Optional<Response>> {
 
 
 	private final Logger logger=service(Logger.logger());
+	private final Metrics metrics=service(Metrics.metrics());
 
 
 	/**
@@ -100,7 +103,7 @@ public final class Fetch implements Function<Request, Optional<Response>> {
 				.ofNullable(request)
 
 				.map(limit)
-				.map(fetcher)
+				.map(this::fetch)
 
 				.filter(response -> {
 
@@ -117,4 +120,12 @@ public final class Fetch implements Function<Request, Optional<Response>> {
 				});
 	}
 
+	private Response fetch(final Request request) {
+		return time(() -> fetcher.apply(request)).apply((elapsed, response) -> {
+			if ( response != null ) {
+				metrics.histogram("fetch_seconds", "status", String.valueOf(response.status())).record(elapsed/1000.0);
+			}
+		});
+	}
+
 }
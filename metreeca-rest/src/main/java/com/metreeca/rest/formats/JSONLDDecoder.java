@@ -29,29 +29,36 @@ import java.net.URISyntaxException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 import javax.json.*;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
 
 import static com.metreeca.json.Values.*;
-import static com.metreeca.json.shapes.Field.labels;
 import static com.metreeca.rest.formats.JSONLDInspector.driver;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toMap;
 
-import static javax.json.Json.createObjectBuilder;
+import static javax.json.stream.JsonParser.Event.*;
 
 
 /**
  * Shape-driven JSON-LD to RDF decoder.
  *
- * <p>Converts leniently compacted/framed JSON-LD descriptions to RDF models.</p>
+ * <p>Converts leniently compacted/framed JSON-LD descriptions to RDF models, consuming JSON parser events as they
+ * are generated, without building intermediate JSON object trees.</p>
  */
 final class JSONLDDecoder {
 
+	private static final JsonParserFactory JsonParsers=Json.createParserFactory(emptyMap());
+
+
 	private final IRI focus;
 	private final Shape shape;
 	private final Set<Statement> model;
@@ -62,6 +69,9 @@ final class JSONLDDecoder {
 
 	private final Function<String, String> resolver;
 
+	private final Map<Shape, Map<String, Field>> labels=new IdentityHashMap<>(); // per-shape memos
+	private final Map<Shape, Optional<IRI>> datatypes=new IdentityHashMap<>();
+
 
 	JSONLDDecoder(final IRI focus, final Shape shape, final Map<String, String> keywords) {
 
@@ -88,202 +98,324 @@ final class JSONLDDecoder {
 			throw new NullPointerException("null json");
 		}
 
-		final Map<String, String> keywords=keywords(json);
+		try ( final JsonParser parser=JsonParsers.createParser(json) ) {
+			return decode(parser);
+		}
+	}
 
-		final String expected=focus.stringValue();
-		final String declared=resolve(keywords.getOrDefault("@id", expected));
+	Collection<Statement> decode(final JsonParser parser) throws JsonException {
 
-		if ( !declared.equals(expected) ) {
-			error("conflicting object identifiers: expected <%s>, declared <%s>", expected, declared);
+		if ( parser == null ) {
+			throw new NullPointerException("null parser");
 		}
 
-		final JsonObject object=keywords.containsKey("@id") ? json
-				: createObjectBuilder(json).add("@id", expected).build(); // make sure the root object contains @id
+		if ( !parser.hasNext() || parser.next() != START_OBJECT ) {
+			error("expected JSON object");
+		}
 
-		final Collection<Statement> model=new ArrayList<>(this.model); // include inferred statements
+		final List<Statement> model=new ArrayList<>(this.model); // include inferred statements
 
-		value(object, shape).getValue().forEachOrdered(model::add);
+		object(parser, shape, focus, model);
 
 		return model;
 	}
 
 
-	Stream<Entry<Value, Stream<Statement>>> values(final JsonValue value, final Shape shape) {
+	Collection<Value> values(final JsonValue value, final Shape shape) {
+		try ( final JsonParser parser=parser(value) ) {
+
+			final Collection<Value> values=new ArrayList<>();
+
+			values(parser, parser.next(), shape, new ArrayList<>(), values::add);
+
+			return values;
+
+		}
+	}
+
+	Value value(final JsonValue value, final Shape shape) {
+		try ( final JsonParser parser=parser(value) ) {
+
+			return value(parser, parser.next(), shape, new ArrayList<>());
+
+		}
+	}
+
+
+	//// Values ////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Decodes the values of a field.
+	 *
+	 * @param parser the source JSON parser
+	 * @param event  the event for the first token of the field value
+	 * @param shape  the expected shape of the field values
+	 * @param model  the target model for the statements describing decoded values
+	 * @param values the target consumer for decoded values
+	 */
+	private void values(
+			final JsonParser parser, final Event event, final Shape shape,
+			final List<Statement> model, final Consumer<Value> values
+	) {
 
 		final boolean tagged=JSONLDInspector.tagged(shape);
 
 		final Set<String> langs=tagged ? JSONLDInspector.langs(shape).orElseGet(Collections::emptySet) : emptySet();
 		final String lang=langs.size() == 1 ? langs.iterator().next() : "";
 
-		if ( tagged && value instanceof JsonArray && !lang.isEmpty() ) {
+		if ( event == START_ARRAY ) {
 
-			return value.asJsonArray().stream().map(v -> v instanceof JsonString
-					? literal((JsonString)v, lang)
-					: value(v, shape)
-			);
+			final Collection<Value> merged=new LinkedHashSet<>(); // merge duplicates
+
+			for (Event next; (next=parser.next()) != END_ARRAY; ) {
+				merged.add(tagged && next == VALUE_STRING && !lang.isEmpty()
+						? literal(parser.getString(), lang)
+						: value(parser, next, shape, model)
+				);
+			}
+
+			merged.forEach(values);
 
-		} else if ( tagged && value instanceof JsonString && !lang.isEmpty() ) {
+		} else if ( tagged && event == VALUE_STRING && !lang.isEmpty() ) {
 
-			return Stream.of(literal((JsonString)value, lang));
+			values.accept(literal(parser.getString(), lang));
 
-		} else if ( tagged && value instanceof JsonObject
-				&& value.asJsonObject().keySet().stream().noneMatch(field -> field.startsWith("@"))
-		) {
+		} else if ( tagged && event == START_OBJECT ) { // lookahead required: buffer the (usually small) object
 
-			return literals(value.asJsonObject());
+			final JsonObject object=read(parser, event).asJsonObject();
+
+			if ( object.keySet().stream().noneMatch(key -> key.startsWith("@")) ) {
+
+				literals(object).forEach(values);
+
+			} else {
+
+				try ( final JsonParser nested=JsonParsers.createParser(object) ) {
+					values.accept(value(nested, nested.next(), shape, model));
+				}
+
+			}
 
 		} else {
 
-			return (value instanceof JsonArray ? value.asJsonArray().stream() : Stream.of(value))
-					.map(v -> value(v, shape))
-					.collect(toMap(Entry::getKey, Entry::getValue, Stream::concat))
-					.entrySet()
-					.stream();
+			values.accept(value(parser, event, shape, model));
 
 		}
 	}
 
-	Entry<Value, Stream<Statement>> value(final JsonValue value, final Shape shape) {
-		return value instanceof JsonArray ? error("unsupported JSON value <%s>", value.asJsonArray())
-				: value instanceof JsonObject ? value(value.asJsonObject(), shape)
-				: value instanceof JsonString ? value((JsonString)value, shape)
-				: value instanceof JsonNumber ? value((JsonNumber)value, shape)
-				: value.equals(JsonValue.TRUE) ? entry(True, Stream.empty())
-				: value.equals(JsonValue.FALSE) ? entry(False, Stream.empty())
-				: error("unsupported JSON value <%s>", value);
-	}
+	private Value value(final JsonParser parser, final Event event, final Shape shape, final List<Statement> model) {
+		switch ( event ) {
 
+			case START_OBJECT:
 
-	//// Values ////////////////////////////////////////////////////////////////////////////////////////////////////////
+				return object(parser, shape, null, model);
 
-	private Entry<Value, Stream<Statement>> value(final JsonObject object, final Shape shape) {
+			case START_ARRAY:
 
-		final Map<String, String> keywords=keywords(object);
+				return error("unsupported JSON value <%s>", read(parser, event));
 
-		final String id=keywords.get("@id");
-		final String value=keywords.get("@value");
-		final String type=keywords.get("@type");
-		final String language=keywords.get("@language");
+			case VALUE_STRING:
 
-		return (id != null) ? resource(object, shape, resource(id))
+				return string(parser.getString(), shape);
 
-				: (value == null) ? resource(object, shape, bnode())
+			case VALUE_NUMBER:
 
-				: (type != null) ? entry(literal(value, iri(type)), Stream.empty())
-				: (language != null) ? entry(literal(value, language), Stream.empty())
+				return number(Json.createValue(parser.getBigDecimal()), shape);
 
-				: entry(literal(value, JSONLDInspector.datatype(shape).orElse(XSD.STRING)), Stream.empty());
-	}
+			case VALUE_TRUE:
 
-	private Entry<Value, Stream<Statement>> value(final JsonString string, final Shape shape) {
+				return True;
 
-		final String text=string.getString();
-		final IRI type=
-				JSONLDInspector.datatype(shape).filter(IRI.class::isInstance).map(IRI.class::cast).orElse(XSD.STRING);
+			case VALUE_FALSE:
 
-		final Value value=ResourceType.equals(type) ? resource(text)
-				: BNodeType.equals(type) ? bnode(text)
-				: IRIType.equals(type) ? iri(text)
-				: literal(text, type);
+				return False;
+
+			default:
 
-		return entry(value, Stream.empty());
+				return error("unsupported JSON value <%s>", read(parser, event));
+
+		}
 	}
 
-	private Entry<Value, Stream<Statement>> value(final JsonNumber number, final Shape shape) {
 
-		final IRI datatype=JSONLDInspector.datatype(shape).orElse(null);
+	/**
+	 * Decodes a JSON object.
+	 *
+	 * <p>Statements describing nested values are added to the target model as soon as they are decoded; links from
+	 * the object being decoded are added on object end, when JSON-LD keywords are known.</p>
+	 *
+	 * @param parser the source JSON parser, positioned after the {@link Event#START_OBJECT} event
+	 * @param shape  the expected shape of the object
+	 * @param root   the expected identifier of the object or {@code null} if the object is nested
+	 * @param model  the target model for the statements describing the object
+	 *
+	 * @return the value decoded from the object
+	 */
+	private Value object(final JsonParser parser, final Shape shape, final IRI root, final List<Statement> model) {
 
-		final Literal value
+		final Map<String, Field> labels=labels(shape);
 
-				=XSD.DECIMAL.equals(datatype) ? Values.literal(number.bigDecimalValue())
-				: XSD.INTEGER.equals(datatype) ? Values.literal(number.bigIntegerValue())
+		final int mark=model.size();
 
-				: XSD.DOUBLE.equals(datatype) ? Values.literal(number.numberValue().doubleValue(), false)
-				: XSD.FLOAT.equals(datatype) ? Values.literal(number.numberValue().floatValue())
+		final Map<String, String> keywords=new HashMap<>();
+		final Collection<Entry<Field, Value>> links=new ArrayList<>();
 
-				: XSD.LONG.equals(datatype) ? Values.literal(number.numberValue().longValue())
-				: XSD.INTEGER.equals(datatype) ? Values.literal(number.numberValue().intValue())
-				: XSD.SHORT.equals(datatype) ? Values.literal(number.numberValue().shortValue())
-				: XSD.BYTE.equals(datatype) ? Values.literal(number.numberValue().byteValue())
+		String unknown=null;
 
-				: number.isIntegral() ? Values.literal(number.bigIntegerValue())
-				: Values.literal(number.bigDecimalValue());
+		while ( parser.next() != END_OBJECT ) {
 
-		return entry(value, Stream.empty());
-	}
+			final String label=resolver.apply(parser.getString());
+			final Event next=parser.next();
 
+			if ( label.startsWith("@") ) {
 
-	private Entry<Value, Stream<Statement>> resource(final JsonObject object, final Shape shape, final Resource focus) {
+				final String value=next == VALUE_STRING ? parser.getString()
+						: error("<%s> field is not a string", label);
 
-		final Map<String, Field> labels=labels(shape, keywords);
+				final String current=keywords.putIfAbsent(label, value);
 
-		return entry(focus, object.entrySet().stream().flatMap(entry -> {
+				if ( current != null && !current.equals(value) ) {
+					error("conflicting values for JSON-LD keyword <%s> / <%s>", current, value);
+				}
 
-			final String label=resolver.apply(entry.getKey());
-			final JsonValue value=entry.getValue();
+			} else if ( next != VALUE_NULL ) {
 
-			if ( label.equals("@type") && value instanceof JsonString ) {
+				final Field field=labels.get(label);
 
-				return Stream.of(statement(focus, RDF.TYPE, iri(((JsonString)value).getString())));
+				if ( field != null ) {
 
-			} else if ( !label.startsWith("@") && !value.equals(JsonValue.NULL) ) {
+					values(parser, next, field.shape(), model, value -> links.add(entry(field, value)));
 
-				final Field field=labels.get(label);
+				} else {
+
+					unknown=unknown == null ? label : unknown; // report only if actually decoding a resource
+
+					skip(parser, next);
 
-				if ( field == null ) {
-					return error("unknown property label <%s>", label);
 				}
 
-				return values(value, field.shape()).flatMap(pair -> {
+			}
 
-					final Value target=pair.getKey();
-					final Stream<Statement> model=pair.getValue();
+		}
 
-					final Statement edge=traverse(field.iri(),
+		final String id=keywords.get("@id");
+		final String value=keywords.get("@value");
+		final String type=keywords.get("@type");
+		final String language=keywords.get("@language");
 
-							iri -> statement(focus, iri, target),
+		if ( root == null && id == null && value != null ) { // literal: drop nested values
 
-							iri -> target instanceof Resource
-									? statement((Resource)target, iri, focus)
-									: error("target for inverse property is not a resource <%s: %s>", label, pair)
+			model.subList(mark, model.size()).clear();
 
-					);
+			return type != null ? literal(value, iri(type))
+					: language != null ? literal(value, language)
+					: literal(value, datatype(shape).orElse(XSD.STRING));
 
-					return Stream.concat(Stream.of(edge), model);
+		} else {
 
-				});
+			if ( unknown != null ) {
+				error("unknown property label <%s>", unknown);
+			}
+
+			final Resource resource;
+
+			if ( root != null ) {
+
+				final String expected=root.stringValue();
+				final String declared=resolve(id != null ? id : expected);
+
+				if ( !declared.equals(expected) ) {
+					error("conflicting object identifiers: expected <%s>, declared <%s>", expected, declared);
+				}
+
+				resource=resource(expected);
 
 			} else {
 
-				return Stream.empty();
+				resource=id != null ? resource(id) : bnode();
+
+			}
 
+			if ( type != null ) {
+				model.add(statement(resource, RDF.TYPE, iri(type)));
 			}
 
-		}));
+			for (final Entry<Field, Value> link : links) {
+
+				final Field field=link.getKey();
+				final Value target=link.getValue();
+
+				model.add(traverse(field.iri(),
+
+						iri -> statement(resource, iri, target),
+
+						iri -> target instanceof Resource
+								? statement((Resource)target, iri, resource)
+								: error("target for inverse property is not a resource <%s: %s>",
+								field.label(), target
+						)
+
+				));
+
+			}
+
+			return resource;
+
+		}
+	}
+
+	private Value string(final String text, final Shape shape) {
+
+		final IRI type=datatype(shape).orElse(XSD.STRING);
+
+		return ResourceType.equals(type) ? resource(text)
+				: BNodeType.equals(type) ? bnode(text)
+				: IRIType.equals(type) ? iri(text)
+				: literal(text, type);
+	}
+
+	private Value number(final JsonNumber number, final Shape shape) {
+
+		final IRI datatype=datatype(shape).orElse(null);
+
+		return XSD.DECIMAL.equals(datatype) ? Values.literal(number.bigDecimalValue())
+				: XSD.INTEGER.equals(datatype) ? Values.literal(number.bigIntegerValue())
+
+				: XSD.DOUBLE.equals(datatype) ? Values.literal(number.numberValue().doubleValue(), false)
+				: XSD.FLOAT.equals(datatype) ? Values.literal(number.numberValue().floatValue())
+
+				: XSD.LONG.equals(datatype) ? Values.literal(number.numberValue().longValue())
+				: XSD.INTEGER.equals(datatype) ? Values.literal(number.numberValue().intValue())
+				: XSD.SHORT.equals(datatype) ? Values.literal(number.numberValue().shortValue())
+				: XSD.BYTE.equals(datatype) ? Values.literal(number.numberValue().byteValue())
+
+				: number.isIntegral() ? Values.literal(number.bigIntegerValue())
+				: Values.literal(number.bigDecimalValue());
 	}
 
 
 	//// Tagged Literals ///////////////////////////////////////////////////////////////////////////////////////////////
 
-	private Stream<Entry<Value, Stream<Statement>>> literals(final JsonObject json) {
-		return json.entrySet().stream().flatMap(entry -> {
+	private Collection<Value> literals(final JsonObject json) {
 
-			final String lang=entry.getKey();
-			final JsonValue value=entry.getValue();
+		final Collection<Value> literals=new LinkedHashSet<>();
+
+		json.forEach((lang, value) -> {
 
 			if ( lang.isEmpty() ) {
 				error("empty language tag");
 			}
 
-			return (value instanceof JsonArray ? value.asJsonArray().stream() : Stream.of(value))
-					.map(v -> v instanceof JsonString ? v : error("<%s> is not a string", v))
-					.map(v -> literal((JsonString)v, lang));
+			(value instanceof JsonArray ? value.asJsonArray() : Collections.singletonList(value)).forEach(v ->
+					literals.add(v instanceof JsonString
+							? literal(((JsonString)v).getString(), lang)
+							: error("<%s> is not a string", v)
+					)
+			);
 
 		});
-	}
 
-	private Entry<Value, Stream<Statement>> literal(final JsonString json, final String lang) {
-		return entry(literal(json.getString(), lang), Stream.empty());
+		return literals;
 	}
 
 
@@ -333,23 +465,108 @@ final class JSONLDDecoder {
 		}
 	}
 
-	private Map<String, String> keywords(final Map<String, JsonValue> object) {
-		return object.entrySet().stream()
+	private Map<String, Field> labels(final Shape shape) {
+		return labels.computeIfAbsent(shape, s -> Field.labels(s, keywords));
+	}
 
-				.map(e -> entry(resolver.apply(e.getKey()), e.getValue()))
-				.filter(e -> e.getKey().startsWith("@"))
+	private Optional<IRI> datatype(final Shape shape) {
+		return datatypes.computeIfAbsent(shape, JSONLDInspector::datatype);
+	}
 
-				.collect(toMap(
 
-						Entry::getKey,
+	/**
+	 * Creates a parser for a JSON value.
+	 *
+	 * @return a parser positioned before the first event for {@code value}
+	 */
+	private JsonParser parser(final JsonValue value) {
 
-						e -> e.getValue() instanceof JsonString ? ((JsonString)e.getValue()).getString()
-								: error("<%s> field is not a string", e.getKey()),
+		final JsonParser parser=JsonParsers.createParser(Json.createArrayBuilder().add(value).build());
 
-						(x, y) -> x.equals(y) ? x
-								: error("conflicting values for JSON-LD keyword <%s> / <%s>", x, y)
+		parser.next(); // skip wrapping array start
 
-				));
+		return parser;
+	}
+
+	private void skip(final JsonParser parser, final Event event) {
+		if ( event == START_OBJECT || event == START_ARRAY ) {
+			for (int depth=1; depth > 0; ) {
+				switch ( parser.next() ) {
+
+					case START_OBJECT:
+					case START_ARRAY:
+
+						++depth;
+						break;
+
+					case END_OBJECT:
+					case END_ARRAY:
+
+						--depth;
+						break;
+
+					default:
+
+						break;
+
+				}
+			}
+		}
+	}
+
+	/**
+	 * Buffers a JSON value.
+	 *
+	 * <p>Doesn't rely on optional parser methods like {@link JsonParser#getValue()}, which are not supported by
+	 * parsers created from JSON object trees.</p>
+	 */
+	private JsonValue read(final JsonParser parser, final Event event) {
+		switch ( event ) {
+
+			case START_OBJECT:
+
+				final JsonObjectBuilder object=Json.createObjectBuilder();
+
+				while ( parser.next() != END_OBJECT ) {
+
+					final String key=parser.getString();
+
+					object.add(key, read(parser, parser.next()));
+				}
+
+				return object.build();
+
+			case START_ARRAY:
+
+				final JsonArrayBuilder array=Json.createArrayBuilder();
+
+				for (Event next; (next=parser.next()) != END_ARRAY; ) {
+					array.add(read(parser, next));
+				}
+
+				return array.build();
+
+			case VALUE_STRING:
+
+				return Json.createValue(parser.getString());
+
+			case VALUE_NUMBER:
+
+				return Json.createValue(parser.getBigDecimal());
+
+			case VALUE_TRUE:
+
+				return JsonValue.TRUE;
+
+			case VALUE_FALSE:
+
+				return JsonValue.FALSE;
+
+			default:
+
+				return JsonValue.NULL;
+
+		}
 	}
 
 
@@ -24,30 +24,26 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import javax.json.*;
+import javax.json.stream.JsonGenerator;
 
 import static com.metreeca.json.Values.*;
-import static com.metreeca.json.shapes.Field.labels;
 import static com.metreeca.rest.formats.JSONLDInspector.datatype;
 import static com.metreeca.rest.formats.JSONLDInspector.driver;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.emptyMap;
+import static java.util.Collections.*;
 import static java.util.stream.Collectors.*;
 
-import static javax.json.Json.*;
-
 
 /**
  * Shape-driven RDF to JSON-LD encoder.
  *
- * <p>Converts RDF models to strictly compacted/framed JSON-LD descriptions.</p>
+ * <p>Converts RDF models to strictly compacted/framed JSON-LD descriptions, streaming them to a JSON generator
+ * without building intermediate JSON object trees.</p>
  */
 final class JSONLDEncoder {
 
@@ -66,6 +62,9 @@ final class JSONLDEncoder {
 
 	private final Function<String, String> aliaser;
 
+	private final Map<Shape, Map<String, Field>> labels=new IdentityHashMap<>(); // per-shape memos
+	private final Map<Shape, Optional<IRI>> datatypes=new IdentityHashMap<>();
+
 
 	JSONLDEncoder(final IRI focus, final Shape shape, final Map<String, String> keywords, final boolean context) {
 
@@ -83,143 +82,212 @@ final class JSONLDEncoder {
 
 	///////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	JsonObject encode(final Collection<Statement> model) {
+	void encode(final Collection<Statement> model, final JsonGenerator generator) {
 
 		if ( model == null ) {
 			throw new NullPointerException("null model");
 		}
 
-		return resource(focus, shape, model, resource -> false).asJsonObject();
+		if ( generator == null ) {
+			throw new NullPointerException("null generator");
+		}
+
+		final Index index=new Index(model);
+
+		references(focus, shape, index, new HashSet<>(), index.referenced);
+
+		object(focus, shape, index, resource -> false, generator);
 	}
 
 
 	//// Values ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private JsonValue values(
+	private void values(
 			final Collection<? extends Value> values, final Shape shape,
-			final Collection<Statement> model, final Predicate<Resource> trail
+			final Index index, final Predicate<Resource> trail,
+			final JsonGenerator generator
 	) {
 
 		final int maxCount=MaxCount.maxCount(shape);
 
 		if ( JSONLDInspector.tagged(shape) ) { // tagged literals
 
-			return taggeds(values, shape, maxCount == 1);
+			taggeds(values, shape, maxCount == 1, generator);
 
 		} else if ( maxCount == 1 ) { // single value
 
-			return value(values.iterator().next(), shape, model, trail); // values required to be not empty
+			value(values.iterator().next(), shape, index, trail, generator); // values required to be not empty
 
 		} else { // multiple values
 
-			final JsonArrayBuilder array=createArrayBuilder();
+			generator.writeStartArray();
 
-			values.stream().map(value -> value(value, shape, model, trail)).forEach(array::add);
+			values.forEach(value -> value(value, shape, index, trail, generator));
 
-			return array.build();
+			generator.writeEnd();
 
 		}
 
 	}
 
-	private JsonValue value(
+	private void value(
 			final Value value, final Shape shape,
-			final Collection<Statement> model, final Predicate<Resource> trail
+			final Index index, final Predicate<Resource> trail,
+			final JsonGenerator generator
 	) {
 
-		return value instanceof Resource ? resource((Resource)value, shape, model, trail)
-				: value instanceof Literal ? literal((Literal)value, shape)
-				: null; // unexpected
+		if ( value instanceof Resource ) {
+
+			resource((Resource)value, shape, index, trail, generator);
+
+		} else if ( value instanceof Literal ) {
+
+			literal((Literal)value, shape, generator);
+
+		} else { // unexpected
+
+			generator.writeNull();
+
+		}
 
 	}
 
 
 	//// Resources ////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private JsonValue resource(
+	private void resource(
 			final Resource resource, final Shape shape,
-			final Collection<Statement> model, final Predicate<Resource> trail
-	) { // !!! refactor
-
-		final Object datatype=datatype(shape).orElse(null);
-		final Map<String, Field> labels=labels(shape, keywords);
-
-		final boolean inlineable=IRIType.equals(datatype)
-				|| BNodeType.equals(datatype)
-				|| ResourceType.equals(datatype);
+			final Index index, final Predicate<Resource> trail,
+			final JsonGenerator generator
+	) {
 
+		final boolean inlineable=inlineable(shape);
 		final String id=id(resource);
 
 		if ( trail.test(resource) ) { // a back-reference to an enclosing copy of self -> omit fields
 
-			return inlineable
-					? createValue(id)
-					: createObjectBuilder().add(aliaser.apply("@id"), id).build();
+			if ( inlineable ) {
+				generator.write(id);
+			} else {
+				generator.writeStartObject().write(aliaser.apply("@id"), id).writeEnd();
+			}
 
-		} else if ( inlineable && resource instanceof IRI && labels.isEmpty() ) { // inline proved leaf IRI
+		} else if ( inlineable && resource instanceof IRI && labels(shape).isEmpty() ) { // inline proved leaf IRI
 
-			return createValue(id);
+			generator.write(id);
 
 		} else {
 
-			final JsonObjectBuilder object=createObjectBuilder().add(aliaser.apply("@id"), id);
+			object(resource, shape, index, trail, generator);
 
-			final Collection<Resource> references=new ArrayList<>();
+		}
 
-			final Predicate<Resource> nestedTrail=reference -> {
+	}
 
-				if ( reference.equals(resource) ) {
-					references.add(reference); // mark resource as back-referenced
-				}
+	private void object(
+			final Resource resource, final Shape shape,
+			final Index index, final Predicate<Resource> trail,
+			final JsonGenerator generator
+	) {
 
-				return reference.equals(resource) || trail.test(reference);
+		final Map<String, Field> labels=labels(shape);
 
-			};
+		final Predicate<Resource> nestedTrail=reference -> reference.equals(resource) || trail.test(reference);
 
-			for (final Map.Entry<String, Field> entry : labels.entrySet()) {
+		generator.writeStartObject();
 
-				final String label=entry.getKey();
-				final Field field=entry.getValue();
+		// blank nodes ids are included only if back-referenced by nested resources
 
-				final Shape nestedShape=field.shape();
+		if ( !(resource instanceof BNode) || index.referenced.contains(resource) ) {
+			generator.write(aliaser.apply("@id"), id(resource));
+		}
 
-				final Collection<? extends Value> values=traverse(field.iri(),
-						iri -> objects(model, resource, iri),
-						iri -> subjects(model, resource, iri)
-				);
+		for (final Map.Entry<String, Field> entry : labels.entrySet()) {
 
-				if ( !values.isEmpty() ) { // omit null value and empty arrays
+			final String label=entry.getKey();
+			final Field field=entry.getValue();
 
-					object.add(label, values(values, nestedShape, model, nestedTrail));
+			final Collection<? extends Value> values=index.values(resource, field.iri());
 
-				}
+			if ( !values.isEmpty() ) { // omit null value and empty arrays
 
-			}
+				generator.writeKey(label);
 
-			if ( resource instanceof BNode && references.isEmpty() ) { // no back-references > drop id
-				object.remove(aliaser.apply("@id"));
-			}
+				values(values, field.shape(), index, nestedTrail, generator);
 
-			if ( context ) {
-				context(resource.equals(focus) ? keywords : emptyMap(), labels).ifPresent(context ->
-						object.add("@context", context)
-				);
 			}
 
-			return object.build();
+		}
 
+		if ( context ) {
+			context(resource.equals(focus) ? keywords : emptyMap(), labels, generator);
 		}
 
+		generator.writeEnd();
 	}
 
-	private Optional<JsonObject> context(final Map<String, String> keywords, final Map<String, Field> fields) {
-		if ( keywords.isEmpty() && fields.isEmpty() ) { return Optional.empty(); } else {
 
-			final JsonObjectBuilder context=createObjectBuilder();
+	/**
+	 * Collects blank nodes back-referenced by nested resources.
+	 *
+	 * <p>Mirrors the traversal performed by {@link #object(Resource, Shape, Index, Predicate, JsonGenerator)} without
+	 * generating any output, in order to identify in a single pass blank nodes whose ids must be included.</p>
+	 */
+	private void references(
+			final Resource resource, final Shape shape,
+			final Index index, final Set<Resource> trail, final Set<Resource> references
+	) {
+
+		trail.add(resource);
+
+		for (final Field field : labels(shape).values()) {
+
+			final Shape nested=field.shape();
+
+			if ( !JSONLDInspector.tagged(nested) ) {
+
+				final Collection<? extends Value> values=index.values(resource, field.iri());
+
+				final Collection<? extends Value> visited=MaxCount.maxCount(nested) == 1 && !values.isEmpty()
+						? singleton(values.iterator().next())
+						: values;
+
+				for (final Value value : visited) {
+					if ( value instanceof Resource ) {
+
+						final Resource reference=(Resource)value;
+
+						if ( trail.contains(reference) ) {
+
+							if ( reference instanceof BNode ) { references.add(reference); }
+
+						} else if ( !(inlineable(nested) && reference instanceof IRI && labels(nested).isEmpty()) ) {
+
+							references(reference, nested, index, trail, references);
+
+						}
+
+					}
+				}
+
+			}
+
+		}
+
+		trail.remove(resource);
+	}
+
+
+	private void context(
+			final Map<String, String> keywords, final Map<String, Field> fields, final JsonGenerator generator
+	) {
+		if ( !keywords.isEmpty() || !fields.isEmpty() ) {
+
+			generator.writeStartObject("@context");
 
 			keywords.forEach((keyword, alias) ->
 
-					context.add(alias, keyword)
+					generator.write(alias, keyword)
 
 			);
 
@@ -236,46 +304,53 @@ final class JSONLDEncoder {
 
 				if ( datatype.filter(IRIType::equals).isPresent() ) {
 
-					context.add(alias, createObjectBuilder()
-							.add(traverse, label)
-							.add("@type", "@id")
-					);
+					generator.writeStartObject(alias)
+							.write(traverse, label)
+							.write("@type", "@id")
+							.writeEnd();
 
 				} else if ( datatype.filter(RDF.LANGSTRING::equals).isPresent() ) {
 
 					final Set<String> langs=JSONLDInspector.langs(shape).orElseGet(Collections::emptySet);
 
-					context.add(alias, langs.size() == 1
+					if ( langs.size() == 1 ) {
+
+						generator.writeStartObject(alias)
+								.write(traverse, label)
+								.write("@language", langs.iterator().next())
+								.writeEnd();
 
-							? createObjectBuilder()
-							.add(traverse, label)
-							.add("@language", langs.iterator().next())
+					} else {
 
-							: createObjectBuilder()
-							.add(traverse, label)
-							.add("@container", "@language")
-					);
+						generator.writeStartObject(alias)
+								.write(traverse, label)
+								.write("@container", "@language")
+								.writeEnd();
+
+					}
 
 				} else if ( datatype.filter(type -> !InternalTypes.contains(type)).isPresent() ) {
 
-					context.add(alias, createObjectBuilder()
-							.add(traverse, label)
-							.add("@type", datatype.get().stringValue())
-					);
+					generator.writeStartObject(alias)
+							.write(traverse, label)
+							.write("@type", datatype.get().stringValue())
+							.writeEnd();
 
 				} else if ( direct(iri) ) {
 
-					context.add(alias, label);
+					generator.write(alias, label);
 
 				} else {
 
-					context.add(alias, createObjectBuilder().add("@reverse", label));
+					generator.writeStartObject(alias)
+							.write("@reverse", label)
+							.writeEnd();
 
 				}
 
 			});
 
-			return Optional.of(context.build());
+			generator.writeEnd();
 
 		}
 	}
@@ -283,63 +358,66 @@ final class JSONLDEncoder {
 
 	//// Literals /////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private JsonValue literal(final Literal literal, final Shape shape) {
+	private void literal(final Literal literal, final Shape shape, final JsonGenerator generator) {
 
 		final IRI datatype=literal.getDatatype();
 
 		try {
 
-			return datatype.equals(XSD.BOOLEAN) ? literal(literal.booleanValue())
-					: datatype.equals(XSD.STRING) ? literal(literal.stringValue())
-					: datatype.equals(XSD.INTEGER) ? literal(literal.integerValue())
-					: datatype.equals(XSD.DECIMAL) ? literal(literal.decimalValue())
-					: datatype.equals(RDF.LANGSTRING) ? literal(literal, literal.getLanguage().orElse(""))
-					: datatype(shape).isPresent() ? literal(literal.stringValue()) // only lexical if type is known
-					: literal(literal, datatype);
+			if ( datatype.equals(XSD.BOOLEAN) ) {
 
-		} catch ( final IllegalArgumentException ignored ) { // malformed literals
-			return literal(literal, datatype);
-		}
-	}
+				generator.write(literal.booleanValue());
 
+			} else if ( datatype.equals(XSD.STRING) ) {
 
-	private JsonValue literal(final boolean value) {
-		return value ? JsonValue.TRUE : JsonValue.FALSE;
-	}
+				generator.write(literal.stringValue());
 
-	private JsonValue literal(final String value) {
-		return createValue(value);
-	}
+			} else if ( datatype.equals(XSD.INTEGER) ) {
 
-	private JsonValue literal(final BigInteger value) {
-		return createValue(value);
-	}
+				generator.write(literal.integerValue());
 
-	private JsonValue literal(final BigDecimal value) {
-		return createValue(value);
-	}
+			} else if ( datatype.equals(XSD.DECIMAL) ) {
+
+				generator.write(literal.decimalValue());
+
+			} else if ( datatype.equals(RDF.LANGSTRING) ) {
+
+				generator.writeStartObject()
+						.write(aliaser.apply("@value"), literal.stringValue())
+						.write(aliaser.apply("@language"), literal.getLanguage().orElse(""))
+						.writeEnd();
+
+			} else if ( datatype(shape).isPresent() ) { // only lexical if type is known
+
+				generator.write(literal.stringValue());
+
+			} else {
+
+				typed(literal, datatype, generator);
 
+			}
+
+		} catch ( final IllegalArgumentException ignored ) { // malformed literals (parsed before any output)
 
-	private JsonValue literal(final Value literal, final String lang) {
-		return createObjectBuilder()
-				.add(aliaser.apply("@value"), literal.stringValue())
-				.add(aliaser.apply("@language"), lang)
-				.build();
+			typed(literal, datatype, generator);
+
+		}
 	}
 
-	private JsonValue literal(final Value literal, final IRI datatype) {
-		return createObjectBuilder()
-				.add(aliaser.apply("@value"), literal.stringValue())
-				.add(aliaser.apply("@type"), datatype.stringValue())
-				.build();
+	private void typed(final Literal literal, final IRI datatype, final JsonGenerator generator) {
+		generator.writeStartObject()
+				.write(aliaser.apply("@value"), literal.stringValue())
+				.write(aliaser.apply("@type"), datatype.stringValue())
+				.writeEnd();
 	}
 
 
 	//// Tagged Literals //////////////////////////////////////////////////////////////////////////////////////////////
 
-	private JsonValue taggeds(final Collection<? extends Value> values, final Shape shape, final boolean scalar) {
-
-		// !!! refactor
+	private void taggeds(
+			final Collection<? extends Value> values, final Shape shape, final boolean scalar,
+			final JsonGenerator generator
+	) {
 
 		final boolean localized=JSONLDInspector.localized(shape);
 		final Set<String> langs=JSONLDInspector.langs(shape).orElseGet(Collections::emptySet);
@@ -354,45 +432,59 @@ final class JSONLDEncoder {
 
 		if ( langs.size() == 1 ) { // known language
 
-			final List<String> strings=langToStrings.values().iterator().next(); // values required to be non empty
+			strings(langToStrings.values().iterator().next(), localized || scalar, generator); // values not empty
 
-			if ( localized || scalar ) { // single value
+		} else { // multiple languages
 
-				return createValue(strings.get(0));
+			generator.writeStartObject();
 
-			} else { // multiple values
+			langToStrings.forEach((lang, strings) -> {
 
-				return createArrayBuilder(strings).build();
+				generator.writeKey(lang);
 
-			}
+				strings(strings, localized || scalar, generator);
 
-		} else { // multiple languages
+			});
 
-			final JsonObjectBuilder builder=createObjectBuilder();
+			generator.writeEnd();
 
-			langToStrings.forEach((lang, strings) -> {
+		}
 
-				if ( localized || scalar ) { // single value
+	}
 
-					builder.add(lang, createValue(strings.get(0)));
+	private void strings(final List<String> strings, final boolean single, final JsonGenerator generator) {
+		if ( single ) {
 
-				} else { // multiple values
+			generator.write(strings.get(0));
 
-					builder.add(lang, createArrayBuilder(strings));
+		} else {
 
-				}
+			generator.writeStartArray();
 
-			});
+			strings.forEach(generator::write);
 
-			return builder.build();
+			generator.writeEnd();
 
 		}
-
 	}
 
 
 	///////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	private Map<String, Field> labels(final Shape shape) {
+		return labels.computeIfAbsent(shape, s -> Field.labels(s, keywords));
+	}
+
+	private boolean inlineable(final Shape shape) {
+
+		final IRI datatype=datatypes.computeIfAbsent(shape, JSONLDInspector::datatype).orElse(null);
+
+		return IRIType.equals(datatype)
+				|| BNodeType.equals(datatype)
+				|| ResourceType.equals(datatype);
+	}
+
+
 	private String id(final Resource resource) {
 		return resource instanceof BNode ? "_:"+resource.stringValue() : relativize(resource.stringValue());
 	}
@@ -404,18 +496,44 @@ final class JSONLDEncoder {
 
 	///////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private Set<Resource> subjects(final Collection<Statement> model, final Value resource, final Value predicate) {
-		return model.stream()
-				.filter(pattern(null, predicate, resource))
-				.map(Statement::getSubject)
-				.collect(toCollection(LinkedHashSet::new));
-	}
+	/**
+	 * Statement index.
+	 *
+	 * <p>Provides constant-time access to the direct and inverse links of model resources, preserving model
+	 * order.</p>
+	 */
+	private static final class Index {
+
+		private final Map<Value, Map<IRI, Collection<Value>>> links=new HashMap<>();
+
+		private final Set<Resource> referenced=new HashSet<>(); // back-referenced blank nodes
+
+
+		private Index(final Collection<Statement> model) {
+			for (final Statement statement : model) {
+
+				final Resource subject=statement.getSubject();
+				final IRI predicate=statement.getPredicate();
+				final Value object=statement.getObject();
+
+				links.computeIfAbsent(subject, key -> new HashMap<>())
+						.computeIfAbsent(predicate, key -> new LinkedHashSet<>())
+						.add(object);
+
+				if ( object instanceof Resource ) {
+					links.computeIfAbsent(object, key -> new HashMap<>())
+							.computeIfAbsent(inverse(predicate), key -> new LinkedHashSet<>())
+							.add(subject);
+				}
+
+			}
+		}
+
+
+		private Collection<Value> values(final Value resource, final IRI predicate) {
+			return links.getOrDefault(resource, emptyMap()).getOrDefault(predicate, emptySet());
+		}
 
-	private Set<Value> objects(final Collection<Statement> model, final Value resource, final Value predicate) {
-		return model.stream()
-				.filter(pattern(resource, predicate, null))
-				.map(Statement::getObject)
-				.collect(toCollection(LinkedHashSet::new));
 	}
 
 }
@@ -27,6 +27,9 @@ import java.util.*;
 import java.util.function.Supplier;
 
 import javax.json.*;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
 
 import static com.metreeca.json.Frame.frame;
 import static com.metreeca.json.Trace.trace;
@@ -42,6 +45,7 @@ import static com.metreeca.rest.formats.InputFormat.input;
 import static com.metreeca.rest.formats.OutputFormat.output;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 
@@ -89,8 +93,21 @@ public final class JSONLDFormat extends Format<Frame> {
 		return Collections::emptyMap;
 	}
 
+	/**
+	 * Retrieves the default JSON-LD pretty printing service factory.
+	 *
+	 * <p>The pretty printing service enables indented JSON-LD output; compact output is recommended in production, as
+	 * indentation inflates the size of response payloads.</p>
+	 *
+	 * @return the default pretty printing factory, which returns {@code false}
+	 */
+	public static Supplier<Boolean> pretty() {
+		return () -> false;
+	}
 
-	private static final JsonWriterFactory JsonWriters=Json.createWriterFactory(singletonMap(PRETTY_PRINTING, true));
+
+	private static final JsonGeneratorFactory CompactGenerators=Json.createGeneratorFactory(emptyMap());
+	private static final JsonGeneratorFactory PrettyGenerators=Json.createGeneratorFactory(singletonMap(PRETTY_PRINTING, true));
 
 
 	///////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -139,6 +156,8 @@ public final class JSONLDFormat extends Format<Frame> {
 	/**
 	 * Validate a JSON-LD model against a shape.
 	 *
+	 * <p>Shapes are compiled into validation rules on first use and cached for reuse across calls.</p>
+	 *
 	 * @param focus the target IRI for the validation process
 	 * @param shape the target shape for the validation process
 	 * @param model the JSON-LD model to be validated
@@ -189,6 +208,9 @@ public final class JSONLDFormat extends Format<Frame> {
 	 * body, if one is available and the {@code message} {@code Content-Type} header is either missing or matched by
 	 * {@link JSONFormat#MIMEPattern}
 	 *
+	 * <p>The JSON-LD description is decoded from parser events as they are read from the input, without building
+	 * intermediate JSON object trees.</p>
+	 *
 	 * <p><strong>Warning</strong> / Decoding is completely driven by the {@code message}
 	 * {@linkplain JSONLDFormat#shape() shape attribute}: embedded {@code @context} objects are ignored.</p>
 	 */
@@ -204,7 +226,7 @@ public final class JSONLDFormat extends Format<Frame> {
 					try (
 							final InputStream input=source.get();
 							final Reader reader=new InputStreamReader(input, message.charset());
-							final JsonReader jsonReader=Json.createReader(reader)
+							final JsonParser parser=Json.createParser(reader)
 					) {
 
 						final IRI focus=iri(message.item());
@@ -217,7 +239,7 @@ public final class JSONLDFormat extends Format<Frame> {
 								shape,
 								keywords
 
-						).decode(jsonReader.readObject());
+						).decode(parser);
 
 						return validate(focus, shape, model).fold(
 
@@ -259,6 +281,9 @@ public final class JSONLDFormat extends Format<Frame> {
 	 * header, a suitably {@linkplain Shape#localize localized} version of the message shape is used in the conversion
 	 * process and only matching tagged literals from {@code value} are included in the response body.</p>
 	 *
+	 * <p>The JSON-LD description is streamed to the output without building intermediate JSON object trees; output
+	 * is indented only if enabled by the {@linkplain #pretty() pretty printing} service.</p>
+	 *
 	 * <p><strong>Warning</strong> / {@code @context} objects generated from the {@code message}
 	 * {@linkplain JSONLDFormat#shape() shape attribute} are embedded only if {@code Content-Type} is {@value MIME}.</p>
 	 */
@@ -313,25 +338,27 @@ public final class JSONLDFormat extends Format<Frame> {
 
 		});
 
+		final JsonGeneratorFactory generators=service(pretty()) ? PrettyGenerators : CompactGenerators;
+
 		return message
 
 				.header("~Content-Type", mime)
 
-				.body(output(), output -> {
+				.body(output(), output -> Tracing.span(JSONLDFormat.class, "write", () -> { // deferred serialization
 
 					try (
 							final Writer writer=new OutputStreamWriter(output, message.charset());
-							final JsonWriter jsonWriter=JsonWriters.createWriter(writer)
+							final JsonGenerator generator=generators.createGenerator(writer)
 					) {
 
-						jsonWriter.writeObject(new JSONLDEncoder(
+						new JSONLDEncoder(
 
 								iri(item),
 								shape.localize(langs),
 								service(keywords()),
 								mime.equals(MIME) // include context objects for application/ld+json
 
-						).encode(validated));
+						).encode(validated, generator);
 
 					} catch ( final IOException e ) {
 
@@ -339,7 +366,7 @@ public final class JSONLDFormat extends Format<Frame> {
 
 					}
 
-				});
+				}));
 	}
 
 }
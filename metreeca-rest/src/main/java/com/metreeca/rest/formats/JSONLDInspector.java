@@ -33,7 +33,7 @@ import static java.util.stream.Collectors.toSet;
 
 abstract class JSONLDInspector<V> extends Shape.Probe<V> {
 
-	static Shape driver(final Shape shape) { // !!! caching
+	static Shape driver(final Shape shape) { // transformations memoized by Shape
 		return shape
 
 				.redact(Role)
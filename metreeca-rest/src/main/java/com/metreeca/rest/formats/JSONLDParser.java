@@ -445,11 +445,11 @@ final class JSONLDParser {
 	//// Values ////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	private List<Value> values(final JsonValue value, final Shape shape) {
-		return decoder.values(value, shape).map(Map.Entry::getKey).collect(toList());
+		return new ArrayList<>(decoder.values(value, shape));
 	}
 
 	private Value value(final JsonValue value, final Shape shape) {
-		return decoder.value(value, shape).getKey();
+		return decoder.value(value, shape);
 	}
 
 
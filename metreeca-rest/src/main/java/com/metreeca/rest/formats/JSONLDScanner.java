@@ -23,66 +23,82 @@ import com.metreeca.rest.Either;
 import org.eclipse.rdf4j.model.*;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static com.metreeca.json.Trace.trace;
+import static com.metreeca.json.Values.LiteralType;
+import static com.metreeca.json.Values.ResourceType;
+import static com.metreeca.json.Values.ValueType;
 import static com.metreeca.json.Values.compare;
 import static com.metreeca.json.Values.direct;
 import static com.metreeca.json.Values.format;
-import static com.metreeca.json.Values.is;
 import static com.metreeca.json.Values.lang;
 import static com.metreeca.json.Values.text;
 import static com.metreeca.json.Values.traverse;
+import static com.metreeca.json.Values.type;
 import static com.metreeca.rest.Either.Left;
 import static com.metreeca.rest.Either.Right;
 import static com.metreeca.rest.formats.JSONLDInspector.driver;
 
 import static java.lang.String.format;
 import static java.lang.String.join;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.*;
 
 /**
  * Shape-driven RDF validator.
+ *
+ * <p>Shapes are compiled into reusable validation rules, with precompiled regular expressions, pre-resolved
+ * datatypes and flattened logical operators; compiled rules are cached and reused across validation requests.</p>
  */
-final class JSONLDScanner extends Shape.Probe<Either<Trace, Stream<Statement>>> {
+final class JSONLDScanner {
+
+	private static final int CacheSize=256;
+
+	private static final Map<Shape, Rule> cache=Collections.synchronizedMap(
+			new LinkedHashMap<Shape, Rule>(16, 0.75f, true) {
+
+				@Override protected boolean removeEldestEntry(final Map.Entry<Shape, Rule> eldest) {
+					return size() > CacheSize;
+				}
+
+			}
+	);
+
 
 	static Either<Trace, Collection<Statement>> scan(
 			final Value focus, final Shape shape, final Collection<Statement> model
 	) {
-		return driver(shape)
-				.map(new JSONLDScanner(focus, singleton(focus), model))
+		return compile(shape)
+				.check(focus, singleton(focus), new Index(model))
 				.fold(Either::Left, stream -> Right(stream.collect(toList())));
 	}
 
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+	private static Rule compile(final Shape shape) {
 
-	private final Value focus;
+		final Rule cached=cache.get(shape);
 
-	private final Collection<Value> group;
-	private final Collection<Statement> model;
+		if ( cached != null ) { return cached; } else { // compile outside the lock
 
+			final Rule compiled=driver(shape).map(new Compiler());
 
-	private JSONLDScanner(final Value focus, final Collection<Value> group, final Collection<Statement> model) {
+			cache.put(shape, compiled);
 
-		this.focus=focus;
-
-		this.group=group;
-		this.model=model;
+			return compiled;
+		}
 	}
 
 
-	private <T> Predicate<T> negate(final Predicate<T> predicate) {
-		return predicate.negate();
-	}
-
-	private Either<Trace, Stream<Statement>> report(final Trace trace) {
+	private static Either<Trace, Stream<Statement>> report(final Trace trace) {
 		return trace.empty() ? Right(Stream.empty()) : Left(trace);
 	}
 
-	private Either<Trace, Stream<Statement>> merge(
+	private static Either<Trace, Stream<Statement>> merge(
 			final Either<Trace, Stream<Statement>> x, final Either<Trace, Stream<Statement>> y
 	) {
 		return x.fold(
@@ -92,279 +108,432 @@ final class JSONLDScanner extends Shape.Probe<Either<Trace, Stream<Statement>>>
 	}
 
 
-	private Value resolve(final Value value) {
-		return value instanceof Focus ? ((Focus)value).resolve(focus) : value;
-	}
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Compiled validation rule.
+	 */
+	@FunctionalInterface private interface Rule {
+
+		/**
+		 * Validates a value group.
+		 *
+		 * @param focus the focus value for resolving {@link Focus} references
+		 * @param group the value group to be validated
+		 * @param index the statement index for the model to be validated
+		 *
+		 * @return either a validation trace or the statements reachable from {@code group}
+		 */
+		Either<Trace, Stream<Statement>> check(Value focus, Collection<Value> group, Index index);
 
-	private Set<Value> resolve(final Collection<Value> values) {
-		return values.stream().map(this::resolve).collect(toSet());
 	}
 
+	/**
+	 * Model statement index.
+	 *
+	 * <p>Supports constant-time lookup of outgoing and incoming edges during field validation.</p>
+	 */
+	private static final class Index {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Guard guard) {
-		throw new UnsupportedOperationException(guard.toString());
-	}
+		private final Map<Value, Map<IRI, List<Statement>>> direct=new HashMap<>();
+		private final Map<Value, Map<IRI, List<Statement>>> inverse=new HashMap<>();
 
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Datatype datatype) {
+		private Index(final Collection<Statement> model) {
+			for (final Statement statement : model) {
 
-		final IRI iri=datatype.iri();
+				direct.computeIfAbsent(statement.getSubject(), key -> new HashMap<>())
+						.computeIfAbsent(statement.getPredicate(), key -> new ArrayList<>())
+						.add(statement);
 
-		return report(trace(group.stream()
-				.filter(negate(value -> is(value, iri)))
-				.map(value -> format("%s is not of datatype %s", format(value), format(iri)))
-		));
-	}
+				inverse.computeIfAbsent(statement.getObject(), key -> new HashMap<>())
+						.computeIfAbsent(statement.getPredicate(), key -> new ArrayList<>())
+						.add(statement);
 
+			}
+		}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Range range) {
 
-		final Set<Value> values=resolve(range.values());
+		private List<Statement> statements(final Value value, final IRI iri) {
+			return traverse(iri,
+					recto -> direct.getOrDefault(value, emptyMap()).getOrDefault(recto, emptyList()),
+					verso -> inverse.getOrDefault(value, emptyMap()).getOrDefault(verso, emptyList())
+			);
+		}
 
-		return report(trace(group.stream()
-				.filter(value -> !values.contains(value))
-				.map(value -> format("%s is not in the expected value range {%s}", format(value), format(values)))
-		));
 	}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Lang lang) {
 
-		final Set<String> tags=lang.tags();
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-		return report(trace(group.stream()
+	private static final class Compiler extends Shape.Probe<Rule> {
 
-				.filter(negate(tags.isEmpty()
-						? value -> !lang(value).isEmpty()
-						: value -> tags.contains(lang(value))
-				))
+		private static <T> Predicate<T> negate(final Predicate<T> predicate) {
+			return predicate.negate();
+		}
 
-				.map(value -> format(
-						"%s is not in the expected language set {%s}", format(value), join(", ", tags)
-				))
-		));
-	}
 
+		private static Function<Value, Value> resolve(final Value value) {
+			return value instanceof Focus ? ((Focus)value)::resolve : focus -> value;
+		}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MinExclusive minExclusive) {
+		private static Function<Value, Set<Value>> resolve(final Collection<Value> values) {
+			if ( values.stream().anyMatch(Focus.class::isInstance) ) {
 
-		final Value limit=resolve(minExclusive.limit());
+				return focus -> values.stream()
+						.map(value -> value instanceof Focus ? ((Focus)value).resolve(focus) : value)
+						.collect(toSet());
 
-		return report(trace(group.stream()
-				.filter(negate(value -> compare(value, limit) > 0))
-				.map(value -> format("%s is not strictly greater than %s", format(value), format(limit)))
-		));
-	}
+			} else {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MaxExclusive maxExclusive) {
+				final Set<Value> resolved=new HashSet<>(values);
 
-		final Value limit=resolve(maxExclusive.limit());
+				return focus -> resolved;
 
-		return report(trace(group.stream()
-				.filter(negate(value -> compare(value, limit) < 0))
-				.map(value -> format("%s is not strictly less than %s", format(value), format(limit)))
-		));
-	}
+			}
+		}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MinInclusive minInclusive) {
 
-		final Value limit=resolve(minInclusive.limit());
+		private static Rule filter(final Predicate<Value> predicate, final Function<Value, String> message) {
+			return (focus, group, index) -> report(trace(group.stream()
+					.filter(negate(predicate))
+					.map(message)
+			));
+		}
 
-		return report(trace(group.stream()
-				.filter(negate(value -> compare(value, limit) >= 0))
-				.map(value -> format("%s is not greater than or equal to %s", format(value), format(limit)))
-		));
-	}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MaxInclusive maxInclusive) {
+		@Override public Rule probe(final Guard guard) {
+			throw new UnsupportedOperationException(guard.toString());
+		}
 
-		final Value limit=resolve(maxInclusive.limit());
 
-		return report(trace(group.stream()
-				.filter(negate(value -> compare(value, limit) <= 0))
-				.map(value -> format("%s is not less than or equal to %s", format(value), format(limit)))
-		));
-	}
+		@Override public Rule probe(final Datatype datatype) {
 
+			final IRI iri=datatype.iri();
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MinLength minLength) {
+			final Predicate<Value> predicate=ValueType.equals(iri) ? value -> true // pre-resolve abstract datatypes
+					: ResourceType.equals(iri) ? value -> value instanceof Resource || iri.equals(type(value))
+					: LiteralType.equals(iri) ? value -> value instanceof Literal || iri.equals(type(value))
+					: value -> iri.equals(type(value));
 
-		final int limit=minLength.limit();
+			return filter(predicate, value -> format("%s is not of datatype %s", format(value), format(iri)));
+		}
 
-		return report(trace(group.stream()
-				.filter(negate(value -> text(value).length() >= limit))
-				.map(value -> format("%s length is not greater than or equal to %s", format(value), limit))
-		));
-	}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MaxLength maxLength) {
+		@Override public Rule probe(final Range range) {
 
-		final int limit=maxLength.limit();
+			final Function<Value, Set<Value>> resolved=resolve(range.values());
 
-		return report(trace(group.stream()
-				.filter(negate(value -> text(value).length() <= limit))
-				.map(value -> format("%s length is not less than or equal to %s", format(value), limit))
-		));
-	}
+			return (focus, group, index) -> {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Pattern pattern) {
+				final Set<Value> values=resolved.apply(focus);
 
-		final String expression=pattern.expression();
-		final String flags=pattern.flags();
+				return report(trace(group.stream()
+						.filter(value -> !values.contains(value))
+						.map(value -> format(
+								"%s is not in the expected value range {%s}", format(value), format(values)
+						))
+				));
 
-		final java.util.regex.Pattern compiled=java.util.regex.Pattern
-				.compile(flags.isEmpty() ? expression : "(?"+flags+":"+expression+")");
+			};
+		}
 
-		// match the whole string: don't use compiled.asPredicate() (implemented using .find())
+		@Override public Rule probe(final Lang lang) {
 
-		return report(trace(group.stream()
-				.filter(negate(value -> compiled.matcher(text(value)).matches()))
-				.map(value -> format("%s textual value doesn't match <%s> pattern", format(value), compiled.pattern()))
-		));
-	}
+			final Set<String> tags=lang.tags();
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Like like) {
+			return filter(
 
-		final String expression=like.toExpression();
+					tags.isEmpty()
+							? value -> !lang(value).isEmpty()
+							: value -> tags.contains(lang(value)),
 
-		final Predicate<String> predicate=java.util.regex.Pattern.compile(expression).asPredicate();
+					value -> format("%s is not in the expected language set {%s}", format(value), join(", ", tags))
 
-		return report(trace(group.stream()
-				.filter(negate(value -> predicate.test(text(value))))
-				.map(value -> format("%s textual value doesn't match <%s> keywords", format(value), like.keywords()))
-		));
-	}
+			);
+		}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Stem stem) {
 
-		final String prefix=stem.prefix();
+		@Override public Rule probe(final MinExclusive minExclusive) {
 
-		final Predicate<String> predicate=lexical -> lexical.startsWith(prefix);
+			final Function<Value, Value> resolved=resolve(minExclusive.limit());
 
-		return report(trace(group.stream()
-				.filter(negate(value -> predicate.test(text(value))))
-				.map(value -> format("%s textual value has not stem <%s>", format(value), prefix))
-		));
-	}
+			return (focus, group, index) -> {
 
+				final Value limit=resolved.apply(focus);
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MinCount minCount) {
+				return report(trace(group.stream()
+						.filter(negate(value -> compare(value, limit) > 0))
+						.map(value -> format("%s is not strictly greater than %s", format(value), format(limit)))
+				));
 
-		final int count=group.size();
-		final int limit=minCount.limit();
+			};
+		}
 
-		return count >= limit ? Right(Stream.empty()) : report(trace(format(
-				"value count is not greater than or equal to %s", limit
-		)));
-	}
+		@Override public Rule probe(final MaxExclusive maxExclusive) {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final MaxCount maxCount) {
+			final Function<Value, Value> resolved=resolve(maxExclusive.limit());
 
-		final int count=group.size();
-		final int limit=maxCount.limit();
+			return (focus, group, index) -> {
 
-		return count <= limit ? Right(Stream.empty()) : report(trace(format(
-				"value count is not less than or equal to %s", limit
-		)));
-	}
+				final Value limit=resolved.apply(focus);
 
-	@Override public Either<Trace, Stream<Statement>> probe(final All all) {
+				return report(trace(group.stream()
+						.filter(negate(value -> compare(value, limit) < 0))
+						.map(value -> format("%s is not strictly less than %s", format(value), format(limit)))
+				));
 
-		final Set<Value> values=resolve(all.values());
+			};
+		}
 
-		return group.containsAll(values) ? Right(Stream.empty()) : report(trace(format(
-				"values don't include all the expected set {%s}", format(values)
-		)));
-	}
+		@Override public Rule probe(final MinInclusive minInclusive) {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Any any) {
+			final Function<Value, Value> resolved=resolve(minInclusive.limit());
 
-		final Set<Value> values=resolve(any.values());
+			return (focus, group, index) -> {
 
-		return values.stream().anyMatch(group::contains) ? Right(Stream.empty()) : report(trace(format(
-				"values don't include at least one of the expected set {%s}", format(values)
-		)));
-	}
+				final Value limit=resolved.apply(focus);
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Localized localized) {
-		return report(trace(group.stream()
+				return report(trace(group.stream()
+						.filter(negate(value -> compare(value, limit) >= 0))
+						.map(value -> format("%s is not greater than or equal to %s", format(value), format(limit)))
+				));
 
-				.collect(groupingBy(Values::lang, toList()))
+			};
+		}
 
-				.entrySet().stream()
+		@Override public Rule probe(final MaxInclusive maxInclusive) {
 
-				.filter(negate(entry -> entry.getValue().size() <= 1))
+			final Function<Value, Value> resolved=resolve(maxInclusive.limit());
 
-				.map(entry -> format("multiple values for <%s> language tag", entry.getKey()))
-		));
-	}
+			return (focus, group, index) -> {
 
+				final Value limit=resolved.apply(focus);
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Link link) {
-		return link.shape().map(this);
-	}
+				return report(trace(group.stream()
+						.filter(negate(value -> compare(value, limit) <= 0))
+						.map(value -> format("%s is not less than or equal to %s", format(value), format(limit)))
+				));
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Field field) {
-		return group.stream().map(value -> {
+			};
+		}
 
-			final IRI iri=field.iri();
-			final Shape shape=field.shape();
 
-			final List<Statement> statements=model.stream()
-					.filter(traverse(iri,
-							recto -> s -> s.getPredicate().equals(recto) && s.getSubject().equals(value),
-							verso -> s -> s.getPredicate().equals(verso) && s.getObject().equals(value)
-					))
-					.collect(toList());
+		@Override public Rule probe(final MinLength minLength) {
+
+			final int limit=minLength.limit();
 
-			final Set<Value> values=statements.stream()
-					.map(direct(iri) ? Statement::getObject : Statement::getSubject)
-					.collect(toSet());
+			return filter(
+					value -> text(value).length() >= limit,
+					value -> format("%s length is not greater than or equal to %s", format(value), limit)
+			);
+		}
 
-			return merge(
+		@Override public Rule probe(final MaxLength maxLength) {
 
-					shape.map(new JSONLDScanner(focus, values, model)).fold(
-							trace -> Left(trace(iri.toString(), trace)),
-							Either::Right
-					),
+			final int limit=maxLength.limit();
 
-					Right(statements.stream())
+			return filter(
+					value -> text(value).length() <= limit,
+					value -> format("%s length is not less than or equal to %s", format(value), limit)
 			);
+		}
 
-		}).reduce(Right(Stream.empty()), this::merge);
-	}
+		@Override public Rule probe(final Pattern pattern) {
 
+			final String expression=pattern.expression();
+			final String flags=pattern.flags();
 
-	@Override public Either<Trace, Stream<Statement>> probe(final When when) {
-		return when.test().map(this).fold(trace -> when.fail(), stream -> when.pass()).map(this);
-	}
+			final java.util.regex.Pattern compiled=java.util.regex.Pattern
+					.compile(flags.isEmpty() ? expression : "(?"+flags+":"+expression+")");
 
-	@Override public Either<Trace, Stream<Statement>> probe(final And and) {
-		return and.shapes().stream()
+			// match the whole string: don't use compiled.asPredicate() (implemented using .find())
 
-				.map(s -> s.map(this))
+			return filter(
+					value -> compiled.matcher(text(value)).matches(),
+					value -> format("%s textual value doesn't match <%s> pattern", format(value), compiled.pattern())
+			);
+		}
 
-				.reduce(Right(Stream.empty()), this::merge);
-	}
+		@Override public Rule probe(final Like like) {
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Or or) {
+			final Predicate<String> predicate=java.util.regex.Pattern.compile(like.toExpression()).asPredicate();
 
-		final List<Either<Trace, Stream<Statement>>> reports=or.shapes().stream()
+			return filter(
+					value -> predicate.test(text(value)),
+					value -> format("%s textual value doesn't match <%s> keywords", format(value), like.keywords())
+			);
+		}
 
-				.map(s -> s.map(this))
+		@Override public Rule probe(final Stem stem) {
 
+			final String prefix=stem.prefix();
 
-				.filter(entry -> entry.fold(trace -> false, stream -> true))
+			return filter(
+					value -> text(value).startsWith(prefix),
+					value -> format("%s textual value has not stem <%s>", format(value), prefix)
+			);
+		}
 
-				.collect(toList());
 
-		return reports.isEmpty()
-				? Left(trace("values don't match any alternative"))
-				: reports.stream().reduce(Right(Stream.empty()), this::merge);
-	}
+		@Override public Rule probe(final MinCount minCount) {
+
+			final int limit=minCount.limit();
+
+			return (focus, group, index) -> group.size() >= limit ? Right(Stream.empty()) : report(trace(format(
+					"value count is not greater than or equal to %s", limit
+			)));
+		}
+
+		@Override public Rule probe(final MaxCount maxCount) {
+
+			final int limit=maxCount.limit();
+
+			return (focus, group, index) -> group.size() <= limit ? Right(Stream.empty()) : report(trace(format(
+					"value count is not less than or equal to %s", limit
+			)));
+		}
+
+		@Override public Rule probe(final All all) {
+
+			final Function<Value, Set<Value>> resolved=resolve(all.values());
+
+			return (focus, group, index) -> {
 
+				final Set<Value> values=resolved.apply(focus);
+
+				return group.containsAll(values) ? Right(Stream.empty()) : report(trace(format(
+						"values don't include all the expected set {%s}", format(values)
+				)));
+
+			};
+		}
+
+		@Override public Rule probe(final Any any) {
+
+			final Function<Value, Set<Value>> resolved=resolve(any.values());
+
+			return (focus, group, index) -> {
+
+				final Set<Value> values=resolved.apply(focus);
+
+				return values.stream().anyMatch(group::contains) ? Right(Stream.empty()) : report(trace(format(
+						"values don't include at least one of the expected set {%s}", format(values)
+				)));
+
+			};
+		}
+
+		@Override public Rule probe(final Localized localized) {
+			return (focus, group, index) -> report(trace(group.stream()
+
+					.collect(groupingBy(Values::lang, toList()))
+
+					.entrySet().stream()
+
+					.filter(negate(entry -> entry.getValue().size() <= 1))
+
+					.map(entry -> format("multiple values for <%s> language tag", entry.getKey()))
+			));
+		}
+
+
+		@Override public Rule probe(final Link link) {
+			return link.shape().map(this);
+		}
+
+		@Override public Rule probe(final Field field) {
+
+			final IRI iri=field.iri();
+			final Rule rule=field.shape().map(this);
+
+			final Function<Statement, Value> target=direct(iri) ? Statement::getObject : Statement::getSubject;
+
+			return (focus, group, index) -> group.stream().map(value -> {
+
+				final List<Statement> statements=index.statements(value, iri);
+
+				final Set<Value> values=statements.stream()
+						.map(target)
+						.collect(toSet());
+
+				return merge(
+
+						rule.check(focus, values, index).fold(
+								trace -> Left(trace(iri.toString(), trace)),
+								Either::Right
+						),
+
+						Right(statements.stream())
+				);
+
+			}).reduce(Right(Stream.empty()), JSONLDScanner::merge);
+		}
+
+
+		@Override public Rule probe(final When when) {
+
+			final Rule test=when.test().map(this);
+			final Rule pass=when.pass().map(this);
+			final Rule fail=when.fail().map(this);
+
+			return (focus, group, index) -> test.check(focus, group, index)
+					.fold(trace -> fail, stream -> pass)
+					.check(focus, group, index);
+		}
+
+		@Override public Rule probe(final And and) {
+
+			final List<Rule> rules=and(and.shapes().stream()).collect(toList());
+
+			return rules.size() == 1 ? rules.get(0) : (focus, group, index) -> rules.stream()
+
+					.map(rule -> rule.check(focus, group, index))
+
+					.reduce(Right(Stream.empty()), JSONLDScanner::merge);
+		}
+
+		@Override public Rule probe(final Or or) {
+
+			final List<Rule> rules=or(or.shapes().stream()).collect(toList());
+
+			return (focus, group, index) -> {
+
+				final List<Either<Trace, Stream<Statement>>> reports=rules.stream()
+
+						.map(rule -> rule.check(focus, group, index))
+
+						.filter(entry -> entry.fold(trace -> false, stream -> true))
+
+						.collect(toList());
+
+				return reports.isEmpty()
+						? Left(trace("values don't match any alternative"))
+						: reports.stream().reduce(Right(Stream.empty()), JSONLDScanner::merge);
+
+			};
+		}
+
+
+		@Override public Rule probe(final Shape shape) {
+			return (focus, group, index) -> Right(Stream.empty());
+		}
+
+
+		private Stream<Rule> and(final Stream<Shape> shapes) { // flatten nested conjunctions
+			return shapes.flatMap(shape -> shape instanceof And
+					? and(((And)shape).shapes().stream())
+					: Stream.of(shape.map(this))
+			);
+		}
+
+		private Stream<Rule> or(final Stream<Shape> shapes) { // flatten nested disjunctions
+			return shapes.flatMap(shape -> shape instanceof Or
+					? or(((Or)shape).shapes().stream())
+					: Stream.of(shape.map(this))
+			);
+		}
 
-	@Override public Either<Trace, Stream<Statement>> probe(final Shape shape) {
-		return Right(Stream.empty());
 	}
 
 }
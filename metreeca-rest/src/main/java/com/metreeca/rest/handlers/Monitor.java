@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.handlers;
+
+import com.metreeca.rest.*;
+import com.metreeca.rest.services.Metrics;
+
+import static com.metreeca.rest.Response.OK;
+import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.formats.TextFormat.text;
+import static com.metreeca.rest.handlers.Router.router;
+import static com.metreeca.rest.services.Metrics.metrics;
+
+/**
+ * Metrics monitor.
+ *
+ * <p>Exposes the metrics recorded by the {@linkplain Metrics#metrics() shared metrics registry} in the Prometheus
+ * text exposition format.</p>
+ */
+public final class Monitor extends Delegator {
+
+	/**
+	 * The MIME type of the Prometheus text exposition format ({@value}).
+	 */
+	public static final String MIME="text/plain; version=0.0.4";
+
+
+	/**
+	 * Creates a metrics monitor.
+	 *
+	 * @return a new metrics monitor
+	 */
+	public static Monitor monitor() {
+		return new Monitor();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final Metrics metrics=service(metrics());
+
+
+	private Monitor() {
+		delegate(router()
+
+				.head(this::export)
+				.get(this::export)
+
+		);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private Future<Response> export(final Request request) {
+		return request.reply(response -> response.status(OK)
+				.header("Content-Type", MIME)
+				.body(text(), metrics.export())
+		);
+	}
+
+}
@@ -23,7 +23,6 @@ import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.*;
-import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -68,7 +67,9 @@ import static java.util.Collections.emptyList;
  *
  *          </ul>
  *
- *          <p>Registered path patterns are tested in order of definition.</p>
+ *          <p>Registered path patterns are tested in order of definition; patterns are compiled into a step-based
+ *          lookup tree, so that routing cost depends on the length of the request path rather than on the number of
+ *          registered patterns.</p>
  *
  *     </dd>
  *
@@ -89,10 +90,11 @@ import static java.util.Collections.emptyList;
 public final class Router implements Handler {
 
 	private static final Supplier<String> RoutingPrefix=() -> "";
+	private static final Supplier<String> RoutingPattern=() -> "";
 
 
 	private static final Pattern KeyPattern=Pattern.compile(
-			"\\{(?<key>[^}]*)}"
+			"\\{(?<key>[^/}]*)}"
 	);
 
 	private static final Pattern PathPattern=Pattern.compile(String.format(
@@ -109,10 +111,23 @@ public final class Router implements Handler {
 		return new Router();
 	}
 
+	/**
+	 * Retrieves the routing pattern option.
+	 *
+	 * @return the request {@linkplain Request#get(Supplier) option} holding the path pattern matched by the routers
+	 * handling a request, including the patterns matched by enclosing routers, for instance {@code /items/{id}}; empty
+	 * if the request was not routed by path
+	 */
+	public static Supplier<String> pattern() {
+		return RoutingPattern;
+	}
+
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final Map<String, Function<Request, Optional<Future<Response>>>> routes=new LinkedHashMap<>();
+	private final Collection<String> paths=new HashSet<>();
+	private final Node routes=new Node();
+
 	private final Map<String, Handler> methods=new LinkedHashMap<>();
 
 
@@ -152,16 +167,14 @@ public final class Router implements Handler {
 		final String prefix=matcher.group("prefix");
 		final String suffix=matcher.group("suffix");
 
-		final Function<Request, Optional<Future<Response>>> route=route(
-				prefix == null ? "" : prefix,
-				suffix == null ? "" : suffix,
-				handler
-		);
-
-		if ( routes.putIfAbsent(path, route) != null ) {
+		if ( paths.contains(path) ) {
 			throw new IllegalStateException("path already mapped <"+path+">");
 		}
 
+		route(path, prefix == null ? "" : prefix, suffix != null, handler);
+
+		paths.add(path);
+
 		return this;
 	}
 
@@ -300,83 +313,227 @@ public final class Router implements Handler {
 			throw new NullPointerException("null request");
 		}
 
-		return routes.values().stream()
+		final String head=request.get(RoutingPrefix);
+		final String tail=request.path().substring(head.length());
+
+		final int[] steps=steps(tail);
+		final Route route=steps.length == 0 ? null : routes.match(tail, steps, 0, null);
+
+		return route != null ? route.handle(request, head, tail, steps) : (
+
+				methods.isEmpty() ? status(NotFound)
+						: methods.getOrDefault(request.method(), this::options)
+
+		).handle(request);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private void route(final String path, final String prefix, final boolean suffix, final Handler handler) {
+
+		final Collection<String> keys=new HashSet<>();
+
+		final List<String> steps=new ArrayList<>();
+		final List<String> labels=new ArrayList<>();
 
-				.map(route -> route.apply(request))
+		for (int head=0, tail; head < prefix.length(); head=tail) { // prefix is either empty or starts with '/'
+
+			tail=prefix.indexOf('/', head+1);
+			tail=tail < 0 ? prefix.length() : tail;
+
+			final String step=prefix.substring(head+1, tail);
+			final Matcher matcher=KeyPattern.matcher(step);
+
+			if ( matcher.matches() ) {
+
+				final String key=matcher.group("key");
+
+				if ( !key.isEmpty() && !keys.add(key) ) {
+					throw new IllegalArgumentException("repeated placeholder key <"+key+">");
+				}
+
+				steps.add(null);
+				labels.add(key);
+
+			} else {
+
+				steps.add(step);
+				labels.add("");
+
+			}
+
+		}
+
+		final Route route=new Route(paths.size(), path, suffix, labels.toArray(new String[0]), handler);
+
+		Node node=routes;
+
+		node.first=Math.min(node.first, route.index);
+
+		for (final String step : steps) {
+
+			node=step == null
+					? node.wildcard != null ? node.wildcard : (node.wildcard=new Node())
+					: node.literals.computeIfAbsent(step, s -> new Node());
+
+			node.first=Math.min(node.first, route.index);
+
+		}
 
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.findFirst()
+		if ( suffix ) { // retain the first route for each step sequence
 
-				.orElseGet(() -> (
+			if ( node.prefix == null ) { node.prefix=route; }
 
-						methods.isEmpty() ? status(NotFound)
-								: methods.getOrDefault(request.method(), this::options)
+		} else {
 
-				).handle(request));
+			if ( node.exact == null ) { node.exact=route; }
+
+		}
+
+	}
+
+
+	/**
+	 * Splits a path into steps.
+	 *
+	 * @return an array containing the offsets of the leading slash of each step in {@code path} or an empty array if
+	 * {@code path} doesn't start with a slash
+	 */
+	private static int[] steps(final String path) {
+
+		if ( !path.startsWith("/") ) { return new int[0]; } else {
+
+			int count=0;
+
+			for (int index=0; index >= 0; index=path.indexOf('/', index+1)) { ++count; }
+
+			final int[] steps=new int[count];
+
+			for (int n=0, index=0; index >= 0; index=path.indexOf('/', index+1)) { steps[n++]=index; }
+
+			return steps;
+		}
+	}
+
+	private static String step(final String path, final int[] steps, final int step) {
+		return path.substring(steps[step]+1, step+1 < steps.length ? steps[step+1] : path.length());
 	}
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private Function<Request, Optional<Future<Response>>> route(
-			final String prefix, final String suffix, final Handler handler
-	) {
+	private static final class Node {
+
+		private final Map<String, Node> literals=new HashMap<>();
+
+		private Node wildcard;
 
-		final Collection<String> keys=new LinkedHashSet<>();
+		private Route exact; // the first route ending at this node
+		private Route prefix; // the first route ending at this node with a trailing prefix step
 
-		final Matcher scanner=KeyPattern.matcher(prefix.isEmpty() ? "" : Pattern.quote(prefix));
+		private int first=Integer.MAX_VALUE; // the index of the first route in the subtree rooted at this node
 
-		final StringBuffer buffer=new StringBuffer(2*(prefix.length()+suffix.length())).append("(");
 
-		while ( scanner.find() ) { // collect placeholder keys and replace with wildcard step patterns
+		/**
+		 * Looks for the first matching route.
+		 *
+		 * @param path  the path to be matched
+		 * @param steps the step offsets of {@code path}
+		 * @param step  the index of the first step of {@code path} still to be matched
+		 * @param best  the first matching route found so far or {@code null} if no route was found so far
+		 *
+		 * @return the first route matching {@code path} in the subtree rooted at this node, if preceding {@code best};
+		 * {@code best}, otherwise
+		 */
+		private Route match(final String path, final int[] steps, final int step, final Route best) {
 
-			final String key=scanner.group("key");
+			if ( step == steps.length ) { return Route.first(best, exact); } else {
 
-			if ( !key.isEmpty() && !keys.add(key) ) {
-				throw new IllegalArgumentException("repeated placeholder key <"+key+">");
+				Route match=Route.first(best, prefix); // at least one trailing step left
+
+				final Node literal=literals.isEmpty() ? null : literals.get(step(path, steps, step));
+
+				if ( literal != null && literal.first < Route.index(match) ) {
+					match=literal.match(path, steps, step+1, match);
+				}
+
+				if ( wildcard != null && wildcard.first < Route.index(match) ) {
+					match=wildcard.match(path, steps, step+1, match);
+				}
+
+				return match;
 			}
+		}
 
-			scanner.appendReplacement(buffer, key.isEmpty()
-					? "\\\\E[^/]*\\\\Q"
-					: "\\\\E(?<${key}>[^/]*)\\\\Q"
-			);
+	}
+
+	private static final class Route {
+
+		private static int index(final Route route) {
+			return route == null ? Integer.MAX_VALUE : route.index;
+		}
 
+		private static Route first(final Route x, final Route y) {
+			return index(x) <= index(y) ? x : y;
 		}
 
-		scanner.appendTail(buffer).append(suffix.isEmpty() ? ")" : ")(/.*)");
 
-		final Pattern pattern=Pattern.compile(buffer.toString());
+		private final int index;
+		private final String path;
+		private final boolean prefix;
+		private final String[] keys; // placeholder keys for each step; empty for literal and wildcard steps
 
-		return request -> {
+		private final Handler handler;
 
-			final String head=request.get(RoutingPrefix);
-			final String tail=request.path().substring(head.length());
 
-			return Optional.of(pattern.matcher(tail))
+		private Route(final int index,
+				final String path, final boolean prefix, final String[] keys, final Handler handler
+		) {
+			this.index=index;
+			this.path=path;
+			this.prefix=prefix;
+			this.keys=keys;
+			this.handler=handler;
+		}
+
 
-					.filter(Matcher::matches)
+		private Future<Response> handle(final Request request, final String head, final String tail, final int[] steps) {
 
-					.map(matcher -> {
+			for (int step=0; step < keys.length; ++step) {
+				if ( !keys[step].isEmpty() ) {
+					request.parameter(keys[step], decode(step(tail, steps, step)));
+				}
+			}
 
-						keys.forEach(key -> {
-							try {
-								request.parameter(key, URLDecoder.decode(matcher.group(key), "UTF-8"));
-							} catch ( final UnsupportedEncodingException unexpected ) {
-								throw new UncheckedIOException(unexpected);
-							}
-						});
+			final String enclosing=request.get(RoutingPattern);
+
+			return handler.handle(request
+					.set(RoutingPrefix, prefix ? head+tail.substring(0, steps[keys.length]) : head+tail)
+					.set(RoutingPattern, (enclosing.endsWith("/*")
+							? enclosing.substring(0, enclosing.length()-2)
+							: enclosing
+					)+path)
+			);
+		}
 
-						return request.set(RoutingPrefix, head+matcher.group(1));
+		private String decode(final String step) {
+			if ( step.indexOf('%') < 0 && step.indexOf('+') < 0 ) { return step; } else {
+				try {
 
-					})
+					return URLDecoder.decode(step, "UTF-8");
 
-					.map(handler::handle);
+				} catch ( final UnsupportedEncodingException unexpected ) {
+					throw new UncheckedIOException(unexpected);
+				}
+			}
+		}
 
-		};
 	}
 
 
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
 	private Future<Response> head(final Request request) {
 		return handle(request.method(GET)).map(response -> response
 				.headers("Content-Length", emptyList())
@@ -19,6 +19,8 @@ package com.metreeca.rest.services;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.*;
 import java.util.logging.Formatter;
 import java.util.logging.*;
@@ -83,6 +85,30 @@ public abstract class Logger {
 
 	}
 
+	/**
+	 * Asynchronous logging overflow policies.
+	 *
+	 * @see #async(Supplier, int, Overflow)
+	 */
+	public enum Overflow {
+
+		/**
+		 * Waits until buffer space is available.
+		 */
+		block,
+
+		/**
+		 * Discards the incoming log entry.
+		 */
+		drop,
+
+		/**
+		 * Discards the oldest buffered log entry.
+		 */
+		evict
+
+	}
+
 	/**
 	 * Retrieves the default logger factory.
 	 *
@@ -120,6 +146,60 @@ public abstract class Logger {
 	}
 
 
+	/**
+	 * Retrieves the default asynchronous logger factory.
+	 *
+	 * @return an {@linkplain #async(Supplier, int, Overflow) asynchronous} logger factory, delegating to the
+	 * {@linkplain #logger() default} logger through a buffer of 8192 entries and blocking on overflow
+	 */
+	public static Supplier<Logger> async() {
+		return async(logger(), 8192, Overflow.block);
+	}
+
+	/**
+	 * Retrieves an asynchronous logger factory.
+	 *
+	 * <p>The asynchronous logger checks if log entries are {@linkplain #enabled(Level, Object) enabled} on the calling
+	 * thread, before building their messages, and hands enabled entries to a lock-free ring buffer drained by a
+	 * background writer thread, which forwards them to the delegate logger. The logger is {@linkplain AutoCloseable
+	 * auto-closeable}: on closing, pending entries are flushed and further entries, including those
+	 * waiting for buffer space, are forwarded synchronously.</p>
+	 *
+	 * @param delegate the factory for the logger buffered entries are forwarded to
+	 * @param capacity the buffer capacity, rounded up to the next power of 2
+	 * @param overflow the policy applied to incoming entries if the buffer is full
+	 *
+	 * @return an asynchronous logger factory
+	 *
+	 * @throws NullPointerException     if either {@code delegate} or {@code overflow} is null
+	 * @throws IllegalArgumentException if {@code capacity} is less than 1 or greater than 2<sup>30</sup>
+	 */
+	public static Supplier<Logger> async(final Supplier<Logger> delegate, final int capacity, final Overflow overflow) {
+
+		if ( delegate == null ) {
+			throw new NullPointerException("null delegate");
+		}
+
+		if ( capacity < 1 || capacity > 1<<30 ) {
+			throw new IllegalArgumentException("illegal capacity");
+		}
+
+		if ( overflow == null ) {
+			throw new NullPointerException("null overflow");
+		}
+
+		return () -> new AsyncLogger(delegate.get(), capacity, overflow);
+	}
+
+
+	private static String name(final Object source) {
+		return source == null ? ""
+				: source instanceof String ? source.toString()
+				: source instanceof Class ? ((Class<?>)source).getName()
+				: source.getClass().getName();
+	}
+
+
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 
@@ -336,6 +416,22 @@ public abstract class Logger {
 	}
 
 
+	/**
+	 * Checks if log entries are enabled.
+	 *
+	 * <p>The default implementation returns {@code true}; concrete loggers are expected to check this method before
+	 * retrieving log messages from their suppliers.</p>
+	 *
+	 * @param level  the logging level for the log entries
+	 * @param source the source object for the log entries or {@code null} for global log entries; may be a
+	 *               human-readable string label
+	 *
+	 * @return {@code true} if log entries with the given {@code level} and {@code source} are to be recorded
+	 */
+	public boolean enabled(final Level level, final Object source) {
+		return true;
+	}
+
 	/**
 	 * Adds a log entry.
 	 *
@@ -413,30 +509,279 @@ public abstract class Logger {
 
 	private static final class SystemLogger extends Logger {
 
+		@Override public boolean enabled(final Level level, final Object source) {
+			return level != null && java.util.logging.Logger.getLogger(name(source)).isLoggable(level.level);
+		}
+
 		@Override public Logger entry(final Level level,
 				final Object source, final Supplier<String> message, final Throwable cause
 		) {
 
-			final String logger=(source == null) ? ""
-					: source instanceof String ? source.toString()
-					: source instanceof Class ? ((Class<?>)source).getName()
-					: source.getClass().getName();
+			final String logger=name(source);
+			final java.util.logging.Logger delegate=java.util.logging.Logger.getLogger(logger);
 
-			final String text=message.get();
+			if ( delegate.isLoggable(level.level) ) { // don't build messages for disabled entries
 
-			final LogRecord record=new LogRecord(level.level,
-					text.indexOf('\n') >= 0 && !text.endsWith("\n") ? text+"\n" : text
-			);
+				final String text=message.get();
+
+				final LogRecord record=new LogRecord(level.level,
+						text.indexOf('\n') >= 0 && !text.endsWith("\n") ? text+"\n" : text
+				);
 
-			record.setLoggerName(logger);
-			record.setSourceClassName(logger);
-			//record.setSourceMethodName(???); // !!! support
-			record.setThrown(cause);
+				record.setLoggerName(logger);
+				record.setSourceClassName(logger);
+				//record.setSourceMethodName(???); // !!! support
+				record.setThrown(cause);
 
-			java.util.logging.Logger.getLogger(logger).log(record);
+				delegate.log(record);
+
+			}
 
 			return this;
 		}
 	}
 
+	private static final class AsyncLogger extends Logger implements AutoCloseable {
+
+		private final Logger delegate;
+		private final Overflow overflow;
+
+		private final Ring<Entry> ring;
+		private final Thread writer;
+
+		private final AtomicBoolean parked=new AtomicBoolean();
+
+		private volatile boolean closed;
+
+
+		private AsyncLogger(final Logger delegate, final int capacity, final Overflow overflow) {
+
+			this.delegate=delegate;
+			this.overflow=overflow;
+
+			this.ring=new Ring<>(capacity);
+
+			this.writer=new Thread(this::drain, "logger");
+			this.writer.setDaemon(true);
+			this.writer.start();
+		}
+
+
+		@Override public boolean enabled(final Level level, final Object source) {
+			return delegate.enabled(level, source);
+		}
+
+		@Override public Logger entry(final Level level,
+				final Object source, final Supplier<String> message, final Throwable cause
+		) {
+
+			if ( closed ) {
+
+				delegate.entry(level, source, message, cause);
+
+			} else if ( delegate.enabled(level, source) ) { // don't build messages for disabled entries
+
+				final Entry entry=new Entry(level, source, message.get(), cause);
+
+				boolean queued=ring.offer(entry);
+
+				while ( !queued && !closed && overflow != Overflow.drop ) {
+
+					if ( overflow == Overflow.evict ) { ring.poll(); } else { wake(); LockSupport.parkNanos(1000); }
+
+					queued=ring.offer(entry);
+
+				}
+
+				if ( closed ) { // the writer may be gone and the final flush may be over: drain on this thread
+
+					flush();
+
+					if ( !queued ) { write(entry); }
+
+				} else {
+
+					wake();
+
+				}
+
+			}
+
+			return this;
+		}
+
+		@Override public void close() {
+
+			closed=true;
+
+			LockSupport.unpark(writer);
+
+			try {
+
+				writer.join();
+
+			} catch ( final InterruptedException e ) {
+
+				Thread.currentThread().interrupt();
+
+			}
+
+			flush(); // entries possibly offered while closing
+		}
+
+
+		private void wake() {
+			if ( parked.get() && parked.compareAndSet(true, false) ) {
+				LockSupport.unpark(writer);
+			}
+		}
+
+		private void drain() {
+			while ( !closed ) {
+
+				if ( !flush() ) {
+
+					parked.set(true);
+
+					if ( ring.isEmpty() && !closed ) { LockSupport.park(this); }
+
+					parked.set(false);
+
+				}
+
+			}
+		}
+
+		private boolean flush() {
+
+			boolean flushed=false;
+
+			for (Entry entry; (entry=ring.poll()) != null; flushed=true) {
+				write(entry);
+			}
+
+			return flushed;
+		}
+
+		private void write(final Entry entry) {
+
+			final String text=entry.text;
+
+			try {
+
+				delegate.entry(entry.level, entry.source, () -> text, entry.cause);
+
+			} catch ( final RuntimeException ignored ) {} // keep draining
+
+		}
+
+
+		private static final class Entry {
+
+			private final Level level;
+			private final Object source;
+			private final String text;
+			private final Throwable cause;
+
+
+			private Entry(final Level level, final Object source, final String text, final Throwable cause) {
+				this.level=level;
+				this.source=source;
+				this.text=text;
+				this.cause=cause;
+			}
+
+		}
+
+	}
+
+	/**
+	 * Lock-free bounded multi-producer/multi-consumer ring buffer.
+	 *
+	 * @see <a href="https://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue">Dmitry Vyukov -
+	 * Bounded MPMC queue</a>
+	 */
+	private static final class Ring<T> {
+
+		private final int mask;
+
+		private final Object[] items;
+		private final AtomicLongArray sequences;
+
+		private final AtomicLong head=new AtomicLong(); // next dequeue position
+		private final AtomicLong tail=new AtomicLong(); // next enqueue position
+
+
+		private Ring(final int capacity) {
+
+			final int size=Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity)<<1;
+
+			this.mask=size-1;
+			this.items=new Object[size];
+			this.sequences=new AtomicLongArray(size);
+
+			for (int i=0; i < size; ++i) { sequences.set(i, i); }
+		}
+
+
+		private boolean isEmpty() {
+			return head.get() >= tail.get();
+		}
+
+		private boolean offer(final T item) {
+
+			for (long position=tail.get(); ; ) {
+
+				final int index=(int)(position&mask);
+				final long delta=sequences.get(index)-position;
+
+				if ( delta == 0 && tail.compareAndSet(position, position+1) ) {
+
+					items[index]=item;
+					sequences.set(index, position+1); // publish
+
+					return true;
+
+				} else if ( delta < 0 ) { // full
+
+					return false;
+
+				} else {
+
+					position=tail.get();
+
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked") private T poll() {
+
+			for (long position=head.get(); ; ) {
+
+				final int index=(int)(position&mask);
+				final long delta=sequences.get(index)-(position+1);
+
+				if ( delta == 0 && head.compareAndSet(position, position+1) ) {
+
+					final T item=(T)items[index];
+
+					items[index]=null;
+					sequences.set(index, position+mask+1); // release slot
+
+					return item;
+
+				} else if ( delta < 0 ) { // empty
+
+					return null;
+
+				} else {
+
+					position=head.get();
+
+				}
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,492 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.services;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Metrics registry.
+ *
+ * <p>Records application metrics, identified by a name and an optional set of labels; all the metrics sharing a
+ * name must be of the same type. Measures should be expressed in base units, for instance seconds for durations,
+ * as recommended by Prometheus naming conventions.</p>
+ *
+ * @see <a href="https://prometheus.io/docs/practices/naming/">Prometheus - Metric and label naming</a>
+ */
+public interface Metrics {
+
+	/**
+	 * Retrieves the default metrics registry factory.
+	 *
+	 * @return the default metrics registry factory, which creates {@link MemoryMetrics} instances
+	 */
+	public static Supplier<Metrics> metrics() {
+		return MemoryMetrics::new;
+	}
+
+
+	/**
+	 * Retrieves a counter.
+	 *
+	 * @param name   the name of the counter
+	 * @param labels the labels of the counter, as a sequence of alternating label names and values
+	 *
+	 * @return the counter identified by {@code name} and {@code labels}, created on first access
+	 *
+	 * @throws NullPointerException     if either {@code name} or {@code labels} is null or if {@code labels} contains
+	 *                                  null values
+	 * @throws IllegalArgumentException if {@code name} or label names are not valid metric names, if {@code labels}
+	 *                                  contains an odd number of values or if {@code name} already identifies a metric
+	 *                                  of a different type
+	 */
+	public Counter counter(final String name, final String... labels);
+
+	/**
+	 * Retrieves a histogram.
+	 *
+	 * @param name   the name of the histogram
+	 * @param labels the labels of the histogram, as a sequence of alternating label names and values
+	 *
+	 * @return the histogram identified by {@code name} and {@code labels}, created on first access
+	 *
+	 * @throws NullPointerException     if either {@code name} or {@code labels} is null or if {@code labels} contains
+	 *                                  null values
+	 * @throws IllegalArgumentException if {@code name} or label names are not valid metric names, if {@code labels}
+	 *                                  contains an odd number of values or if {@code name} already identifies a metric
+	 *                                  of a different type
+	 */
+	public Histogram histogram(final String name, final String... labels);
+
+	/**
+	 * Registers a gauge.
+	 *
+	 * @param name   the name of the gauge
+	 * @param gauge  the supplier of the current value of the gauge; must be thread-safe
+	 * @param labels the labels of the gauge, as a sequence of alternating label names and values
+	 *
+	 * @return this metrics registry
+	 *
+	 * @throws NullPointerException     if any of {@code name}, {@code gauge} or {@code labels} is null or if {@code
+	 *                                  labels} contains null values
+	 * @throws IllegalArgumentException if {@code name} or label names are not valid metric names, if {@code labels}
+	 *                                  contains an odd number of values or if {@code name} already identifies a metric
+	 *                                  of a different type
+	 */
+	public Metrics gauge(final String name, final DoubleSupplier gauge, final String... labels);
+
+
+	/**
+	 * Exports recorded metrics.
+	 *
+	 * @return a textual representation of the recorded metrics in the Prometheus text exposition format
+	 *
+	 * @see <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus - Exposition formats</a>
+	 */
+	public String export();
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Monotonic counter {thread-safe}.
+	 */
+	public static interface Counter {
+
+		/**
+		 * Increments this counter.
+		 */
+		public default void increment() {
+			add(1);
+		}
+
+		/**
+		 * Increments this counter.
+		 *
+		 * @param delta the non-negative increment
+		 *
+		 * @throws IllegalArgumentException if {@code delta} is negative
+		 */
+		public void add(final long delta);
+
+		/**
+		 * Retrieves the current count.
+		 *
+		 * @return the current value of this counter
+		 */
+		public long count();
+
+	}
+
+	/**
+	 * Value distribution {thread-safe}.
+	 *
+	 * <p>Records non-negative values, for instance execution times in seconds.</p>
+	 */
+	public static interface Histogram {
+
+		/**
+		 * Records a value.
+		 *
+		 * @param value the value to be recorded; negative and {@code NaN} values are recorded as 0
+		 */
+		public void record(final double value);
+
+		/**
+		 * Retrieves the number of recorded values.
+		 *
+		 * @return the number of values recorded by this histogram
+		 */
+		public long count();
+
+		/**
+		 * Retrieves the sum of recorded values.
+		 *
+		 * @return the sum of the values recorded by this histogram
+		 */
+		public double sum();
+
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Memory metrics registry.
+	 *
+	 * <p>Records metrics in memory; histograms use lock-free base-2 exponential buckets, exported as the full set of
+	 * cumulative buckets with inclusive upper bounds {@code 2^n}, for {@code n} in {@code [-20, 20]}. Labels are
+	 * validated and formatted only on the first lookup of each metric.</p>
+	 */
+	public static final class MemoryMetrics implements Metrics {
+
+		private static final Pattern NamePattern=Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+
+		private final Map<Key, Object> metrics=new ConcurrentHashMap<>();
+		private final Map<String, Class<?>> types=new ConcurrentHashMap<>(); // metric name to metric type
+
+		private final Map<Lookup, Object> lookups=new ConcurrentHashMap<>(); // raw labels to validated metrics
+
+
+		@Override public Counter counter(final String name, final String... labels) {
+			return metric(MemoryCounter.class, name, labels, MemoryCounter::new);
+		}
+
+		@Override public Histogram histogram(final String name, final String... labels) {
+			return metric(MemoryHistogram.class, name, labels, MemoryHistogram::new);
+		}
+
+		@Override public Metrics gauge(final String name, final DoubleSupplier gauge, final String... labels) {
+
+			if ( gauge == null ) {
+				throw new NullPointerException("null gauge");
+			}
+
+			final Key key=new Key(name, labels);
+
+			type(key, DoubleSupplier.class);
+
+			metrics.put(key, gauge);
+
+			return this;
+		}
+
+
+		@Override public String export() {
+
+			final Map<Key, Object> sorted=new TreeMap<>(metrics);
+			final StringBuilder builder=new StringBuilder(100*sorted.size());
+
+			String last=null;
+
+			for (final Map.Entry<Key, Object> entry : sorted.entrySet()) {
+
+				final Key key=entry.getKey();
+				final Object metric=entry.getValue();
+
+				if ( !key.name.equals(last) ) {
+
+					builder.append("# TYPE ").append(key.name).append(' ')
+							.append(metric instanceof MemoryCounter ? "counter"
+									: metric instanceof MemoryHistogram ? "histogram"
+									: "gauge"
+							)
+							.append('\n');
+
+					last=key.name;
+				}
+
+				if ( metric instanceof MemoryCounter ) {
+
+					sample(builder, key.name, key.labels, null, ((Counter)metric).count());
+
+				} else if ( metric instanceof MemoryHistogram ) {
+
+					((MemoryHistogram)metric).export(builder, key);
+
+				} else {
+
+					sample(builder, key.name, key.labels, null, ((DoubleSupplier)metric).getAsDouble());
+
+				}
+
+			}
+
+			return builder.toString();
+		}
+
+
+		private <M> M metric(final Class<M> type, final String name, final String[] labels, final Supplier<M> factory) {
+
+			final Object cached=name == null || labels == null ? null : lookups.get(new Lookup(name, labels));
+
+			if ( type.isInstance(cached) ) { return type.cast(cached); } else { // validate and format labels once
+
+				final Key key=new Key(name, labels);
+
+				type(key, type);
+
+				final M metric=type.cast(metrics.computeIfAbsent(key, k -> factory.get()));
+
+				lookups.putIfAbsent(new Lookup(name, labels.clone()), metric);
+
+				return metric;
+			}
+		}
+
+		private void type(final Key key, final Class<?> type) {
+			if ( !types.computeIfAbsent(key.name, name -> type).equals(type) ) {
+				throw new IllegalArgumentException(format("conflicting metric type for <%s>", key));
+			}
+		}
+
+
+		private static void sample(final StringBuilder builder,
+				final String name, final String labels, final String bucket, final Number value
+		) {
+
+			builder.append(name);
+
+			if ( !labels.isEmpty() || bucket != null ) {
+
+				builder.append('{').append(labels);
+
+				if ( bucket != null ) {
+					builder.append(labels.isEmpty() ? "" : ",").append("le=\"").append(bucket).append('"');
+				}
+
+				builder.append('}');
+			}
+
+			builder.append(' ').append(value).append('\n');
+		}
+
+
+		private static final class Key implements Comparable<Key> {
+
+			private final String name;
+			private final String labels; // formatted label set
+
+
+			private Key(final String name, final String... labels) {
+
+				if ( name == null ) {
+					throw new NullPointerException("null name");
+				}
+
+				if ( labels == null || Arrays.stream(labels).anyMatch(Objects::isNull) ) {
+					throw new NullPointerException("null labels");
+				}
+
+				if ( !NamePattern.matcher(name).matches() ) {
+					throw new IllegalArgumentException(format("illegal metric name <%s>", name));
+				}
+
+				if ( labels.length%2 != 0 ) {
+					throw new IllegalArgumentException("odd number of label values");
+				}
+
+				final StringBuilder builder=new StringBuilder();
+
+				for (int i=0; i < labels.length; i+=2) {
+
+					if ( !NamePattern.matcher(labels[i]).matches() ) {
+						throw new IllegalArgumentException(format("illegal label name <%s>", labels[i]));
+					}
+
+					builder.append(i == 0 ? "" : ",").append(labels[i]).append("=\"").append(labels[i+1]
+							.replace("\\", "\\\\")
+							.replace("\"", "\\\"")
+							.replace("\n", "\\n")
+					).append('"');
+				}
+
+				this.name=name;
+				this.labels=builder.toString();
+			}
+
+
+			@Override public boolean equals(final Object object) {
+				return this == object || object instanceof Key
+						&& name.equals(((Key)object).name)
+						&& labels.equals(((Key)object).labels);
+			}
+
+			@Override public int hashCode() {
+				return name.hashCode()^labels.hashCode();
+			}
+
+			@Override public int compareTo(final Key key) {
+
+				final int order=name.compareTo(key.name);
+
+				return order != 0 ? order : labels.compareTo(key.labels);
+			}
+
+			@Override public String toString() {
+				return labels.isEmpty() ? name : name+"{"+labels+"}";
+			}
+
+		}
+
+		private static final class Lookup {
+
+			private final String name;
+			private final String[] labels; // raw label names and values
+
+			private final int hash;
+
+
+			private Lookup(final String name, final String[] labels) {
+				this.name=name;
+				this.labels=labels;
+				this.hash=name.hashCode()^Arrays.hashCode(labels);
+			}
+
+
+			@Override public boolean equals(final Object object) {
+				return this == object || object instanceof Lookup
+						&& name.equals(((Lookup)object).name)
+						&& Arrays.equals(labels, ((Lookup)object).labels);
+			}
+
+			@Override public int hashCode() {
+				return hash;
+			}
+
+		}
+
+		private static final class MemoryCounter implements Counter {
+
+			private final LongAdder count=new LongAdder();
+
+
+			@Override public void add(final long delta) {
+
+				if ( delta < 0 ) {
+					throw new IllegalArgumentException("negative delta");
+				}
+
+				count.add(delta);
+			}
+
+			@Override public long count() {
+				return count.sum();
+			}
+
+		}
+
+		private static final class MemoryHistogram implements Histogram {
+
+			private static final int MinExponent=-20; // ~1µs
+			private static final int MaxExponent=20; // ~12 days
+
+			private static final String[] Bounds=bounds(); // formatted inclusive upper bounds
+
+
+			// bucket n ≫ values in (2^(n+MinExponent-1), 2^(n+MinExponent)]; the last bucket collects overflowing values
+
+			private final AtomicLongArray buckets=new AtomicLongArray(MaxExponent-MinExponent+2);
+			private final DoubleAdder sum=new DoubleAdder();
+
+
+			@Override public void record(final double value) {
+
+				final double normalized=value > 0 ? value : 0; // NaN ≫ 0
+
+				final int exponent=normalized == 0 ? MinExponent : Math.getExponent(Math.nextDown(normalized))+1;
+
+				buckets.incrementAndGet(Math.max(MinExponent, Math.min(exponent, MaxExponent+1))-MinExponent);
+
+				sum.add(normalized);
+			}
+
+			@Override public long count() {
+
+				long count=0;
+
+				for (int i=0; i < buckets.length(); ++i) { count+=buckets.get(i); }
+
+				return count;
+			}
+
+			@Override public double sum() {
+				return sum.sum();
+			}
+
+
+			private void export(final StringBuilder builder, final Key key) {
+
+				long cumulative=0;
+
+				for (int i=0; i < buckets.length()-1; ++i) { // fixed bucket set, as expected by aggregating queries
+					sample(builder, key.name+"_bucket", key.labels, Bounds[i], cumulative+=buckets.get(i));
+				}
+
+				cumulative+=buckets.get(buckets.length()-1); // overflowing values
+
+				sample(builder, key.name+"_bucket", key.labels, "+Inf", cumulative);
+				sample(builder, key.name+"_sum", key.labels, null, sum.sum());
+				sample(builder, key.name+"_count", key.labels, null, cumulative);
+			}
+
+			private static String[] bounds() {
+
+				final String[] bounds=new String[MaxExponent-MinExponent+1];
+
+				for (int i=0; i < bounds.length; ++i) {
+					bounds[i]=BigDecimal.valueOf(Math.scalb(1.0, i+MinExponent)).stripTrailingZeros().toPlainString();
+				}
+
+				return bounds;
+			}
+
+		}
+
+	}
+
+}
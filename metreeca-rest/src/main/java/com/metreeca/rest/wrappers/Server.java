@@ -20,7 +20,10 @@ import com.metreeca.rest.*;
 import com.metreeca.rest.formats.JSONFormat;
 import com.metreeca.rest.formats.TextFormat;
 import com.metreeca.rest.services.Logger;
+import com.metreeca.rest.services.Metrics;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import static com.metreeca.rest.MessageException.status;
@@ -28,10 +31,13 @@ import static com.metreeca.rest.Request.*;
 import static com.metreeca.rest.Response.InternalServerError;
 import static com.metreeca.rest.Toolbox.service;
 import static com.metreeca.rest.formats.TextFormat.text;
+import static com.metreeca.rest.handlers.Router.pattern;
 import static com.metreeca.rest.services.Logger.Level.*;
 import static com.metreeca.rest.services.Logger.logger;
+import static com.metreeca.rest.services.Metrics.metrics;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.function.Function.identity;
 
 
@@ -46,6 +52,8 @@ public final class Server implements Wrapper {
 	private static final Pattern TextualPattern=Pattern.compile(TextFormat.MIMEPattern+"|"+JSONFormat.MIMEPattern);
 	private static final Pattern URLEncodedPattern=Pattern.compile("application/x-www-form-urlencoded\\b");
 
+	private static final Set<String> Methods=new HashSet<>(asList(GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS));
+
 
 	/**
 	 * Creates an API server.
@@ -60,6 +68,7 @@ public final class Server implements Wrapper {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	private final Logger logger=service(logger());
+	private final Metrics metrics=service(metrics());
 
 	private Server() {}
 
@@ -73,6 +82,9 @@ public final class Server implements Wrapper {
 		}
 
 		return request -> consumer -> {
+
+			final long start=System.currentTimeMillis();
+
 			try {
 
 				request
@@ -82,7 +94,7 @@ public final class Server implements Wrapper {
 
 						.map(handler::handle)
 
-						.map(this::logging)
+						.map(response -> logging(response, start))
 						.map(this::charset)
 
 						.accept(consumer);
@@ -93,7 +105,7 @@ public final class Server implements Wrapper {
 
 						.reply(status(InternalServerError, e))
 
-						.map(this::logging)
+						.map(response -> logging(response, start))
 
 						.accept(consumer);
 
@@ -121,7 +133,7 @@ public final class Server implements Wrapper {
 
 	//// Post-Processing //////////////////////////////////////////////////////////////////////////////////////////////
 
-	private Response logging(final Response response) { // log request outcome
+	private Response logging(final Response response, final long start) { // log request outcome and latency
 
 		final Request request=response.request();
 		final String method=request.method();
@@ -136,6 +148,14 @@ public final class Server implements Wrapper {
 
 		logger.entry(level, this, () -> format("%s %s > %d", method, item, status), cause);
 
+		metrics.histogram("http_request_seconds", // bounded label values
+
+				"method", Methods.contains(method) ? method : "other",
+				"route", request.get(pattern()),
+				"status", String.valueOf(status)
+
+		).record((System.currentTimeMillis()-start)/1000.0);
+
 		return response;
 	}
 
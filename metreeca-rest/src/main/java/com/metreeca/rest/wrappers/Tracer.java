@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.wrappers;
+
+import com.metreeca.rest.*;
+import com.metreeca.rest.services.Logger;
+
+import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.services.Logger.logger;
+
+import static java.lang.String.format;
+
+
+/**
+ * Request tracer.
+ *
+ * <p>Activates {@link Tracing} while processing each request, reporting recorded spans:</p>
+ *
+ * <ul>
+ *
+ *     <li>in a {@code Server-Timing} response header, including spans completed before the response is generated;</li>
+ *
+ *     <li>in a debug log entry, including spans completed while the response is consumed, for instance while
+ *     streaming the response body; the entry is logged once the response is consumed, also if it is delivered by
+ *     asynchronous handlers on a different thread.</li>
+ *
+ * </ul>
+ *
+ * <p>Spans are recorded for {@linkplain Handler#with(Wrapper) chained} wrappers and handlers, for message body
+ * {@linkplain Message#body(Format) decoding} and {@linkplain Message#body(Format, Object) encoding} and for any
+ * other task {@linkplain Tracing#span(String, java.util.function.Supplier) explicitly traced} by services; if no
+ * tracer is active, instrumentation is reduced to a thread-local lookup.</p>
+ */
+public final class Tracer implements Wrapper {
+
+	/**
+	 * Creates a request tracer.
+	 *
+	 * @return a new request tracer
+	 */
+	public static Tracer tracer() {
+		return new Tracer();
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final Logger logger=service(logger());
+
+
+	private Tracer() {}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Override public Handler wrap(final Handler handler) {
+
+		if ( handler == null ) {
+			throw new NullPointerException("null handler");
+		}
+
+		return request -> consumer -> {
+
+			final Tracing trace=new Tracing();
+
+			trace.trace(() -> {
+
+				handler.handle(request).accept(response -> trace.trace(() -> { // possibly on a different thread
+
+					final String timing=trace.timing();
+
+					consumer.accept(timing.isEmpty() ? response : response.header("+Server-Timing", timing));
+
+					logger.debug(this, () -> format("%s %s %s", request.method(), request.item(), trace));
+
+					return null;
+
+				}));
+
+				return null;
+
+			});
+
+		};
+	}
+
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest;
+
+import com.metreeca.rest.Xtream.Codec;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.metreeca.json.Values.*;
+import static com.metreeca.rest.Toolbox.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import static java.util.Map.entry;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+
+final class XtreamTest {
+
+    private static final Function<Integer, Stream<Integer>> children=n -> Stream.of(2*n, 2*n+1);
+
+
+    private static void sleep(final long millis) {
+        try { Thread.sleep(millis); } catch ( final InterruptedException e ) { throw new RuntimeException(e); }
+    }
+
+
+    @Nested final class Batch {
+
+        private Stream<Integer> source(final int size) { // unsplittable parallel source
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                    IntStream.range(0, size).iterator(), Spliterator.ORDERED
+            ), true);
+        }
+
+
+        @Test void testBatchElements() {
+            assertThat(Xtream.of(1, 2, 3, 4, 5)
+                    .batch(2)
+                    .collect(toList())
+            ).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+        }
+
+        @Test void testSplitUnsplittableSources() {
+
+            final Set<Thread> threads=Collections.synchronizedSet(new HashSet<>());
+
+            assertThat(Xtream.from(source(10_000))
+                    .batch(10)
+                    .peek(batch -> threads.add(Thread.currentThread()))
+                    .peek(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10))
+                    .flatMap(Collection::stream)
+                    .collect(toSet())
+            ).hasSize(10_000);
+
+            assertThat(threads).hasSizeGreaterThan(1);
+        }
+
+        @Test void testPreserveBatchOrderIfRequired() {
+            assertThat(Xtream.from(source(10_000))
+                    .batch(10, true)
+                    .collect(toList())
+            ).isEqualTo(IntStream.range(0, 1000)
+                    .mapToObj(n -> IntStream.range(10*n, 10*n+10).boxed().collect(toList()))
+                    .collect(toList())
+            );
+        }
+
+        @Test void testPreserveEncounterOrder() {
+            assertThat(Xtream.from(IntStream.range(0, 10_000).boxed().parallel())
+                    .batch(10)
+                    .flatMap(Collection::stream)
+                    .collect(toList())
+            ).isEqualTo(IntStream.range(0, 10_000).boxed().collect(toList()));
+        }
+
+        @Test void testBatchBySize() {
+            assertThat(Xtream.from(IntStream.range(0, 5).boxed())
+                    .batch(2, Duration.ofSeconds(10))
+                    .collect(toList())
+            ).containsExactly(List.of(0, 1), List.of(2, 3), List.of(4));
+        }
+
+        @Test void testBatchByTime() {
+            try ( final Xtream<Collection<Integer>> batches=Xtream.from(Stream.iterate(0, n -> n+1))
+                    .peek(n -> {
+                        if ( n%3 == 2 ) { sleep(200); }
+                    })
+                    .batch(100, Duration.ofMillis(50))
+            ) {
+
+                assertThat(batches.limit(2).collect(toList()))
+                        .containsExactly(List.of(0, 1), List.of(2, 3, 4));
+
+            }
+        }
+
+        @Test void testBoundUnlimitedBatchBacklog() {
+
+            final AtomicInteger pulled=new AtomicInteger();
+
+            try ( final Xtream<Collection<Integer>> batches=Xtream.from(Stream.iterate(0, n -> n+1))
+                    .peek(n -> {
+                        if ( pulled.incrementAndGet() == 3 ) { sleep(200); }
+                    })
+                    .batch(0, Duration.ofMillis(50))
+            ) {
+
+                assertThat(batches.iterator().next()).containsExactly(0, 1);
+
+                sleep(500); // let the background thread fill the buffer
+
+                assertThat(pulled.get()).isLessThan(1100);
+
+            }
+        }
+
+        @Test void testDeliverBufferedElementsBeforeFailures() {
+            try ( final Xtream<Collection<Integer>> batches=Xtream.from(Stream.of(0, 1, 2))
+                    .peek(n -> {
+                        if ( n == 2 ) { throw new IllegalStateException("failed"); }
+                    })
+                    .batch(10, Duration.ofSeconds(10))
+            ) {
+
+                final Iterator<Collection<Integer>> iterator=batches.iterator();
+
+                assertThat(iterator.next()).containsExactly(0, 1);
+                assertThatIllegalStateException().isThrownBy(iterator::hasNext);
+
+            }
+        }
+
+    }
+
+    @Nested final class External {
+
+        @TempDir Path storage;
+
+
+        @SuppressWarnings("unchecked") private <V> V exec(final Supplier<V> task) {
+
+            final Object[] value={ null };
+
+            new Toolbox().set(storage(), () -> storage).exec(() -> value[0]=task.get()).clear();
+
+            return (V)value[0];
+        }
+
+        private <V> V roundtrip(final Codec<V> codec, final V value) throws IOException {
+
+            final ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+
+            codec.encode(new DataOutputStream(buffer), value);
+
+            return codec.decode(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+        }
+
+
+        @Test void testSortInMemory() {
+            assertThat(Xtream.of("c", "a", "b")
+                    .sorted(Comparator.naturalOrder(), Codec.strings(), 10)
+                    .collect(toList())
+            ).containsExactly("a", "b", "c");
+        }
+
+        @Test void testSortInExternalMemory() throws IOException {
+
+            final List<Integer> expected=IntStream.range(0, 1000).boxed().collect(toList());
+            final List<Integer> shuffled=new ArrayList<>(expected);
+
+            Collections.shuffle(shuffled, new Random(0));
+
+            assertThat(exec(() -> Xtream.from(shuffled)
+                    .map(String::valueOf)
+                    .sorted(Comparator.comparing(Integer::valueOf), Codec.strings(), 64)
+                    .map(Integer::valueOf)
+                    .collect(toList())
+            )).isEqualTo(expected);
+
+            try ( final Stream<Path> files=Files.walk(storage) ) {
+                assertThat(files.filter(Files::isRegularFile)).isEmpty();
+            }
+        }
+
+        @Test void testMergeRunsInMultiplePasses() throws IOException {
+
+            final List<String> shuffled=IntStream.range(0, 10_000).mapToObj(String::valueOf).collect(toList());
+
+            Collections.shuffle(shuffled, new Random(0));
+
+            final Comparator<String> comparator=Comparator.comparing(n -> n.charAt(n.length()-1)); // many ties
+
+            assertThat(exec(() -> Xtream.from(shuffled)
+                    .sorted(comparator, Codec.strings(), 8)
+                    .collect(toList())
+            )).isEqualTo(shuffled.stream().sorted(comparator).collect(toList()));
+
+            try ( final Stream<Path> files=Files.walk(storage) ) {
+                assertThat(files.filter(Files::isRegularFile)).isEmpty();
+            }
+        }
+
+        @Test void testReleaseStorageOnSpillFailures() throws IOException {
+
+            final Codec<String> strings=Codec.strings();
+
+            final Codec<String> failing=new Codec<String>() {
+
+                @Override public void encode(final DataOutput output, final String value) throws IOException {
+
+                    if ( value.equals("99") ) { throw new IOException("failed"); }
+
+                    strings.encode(output, value);
+                }
+
+                @Override public String decode(final DataInput input) throws IOException {
+                    return strings.decode(input);
+                }
+
+            };
+
+            assertThatExceptionOfType(UncheckedIOException.class)
+                    .isThrownBy(() -> exec(() -> {
+                        try ( final Stream<String> sorted=Xtream.from(IntStream.range(0, 1000).boxed())
+                                .map(String::valueOf)
+                                .sorted(Comparator.naturalOrder(), failing, 64)
+                        ) {
+                            return sorted.collect(toList());
+                        }
+                    }))
+                    .withMessageContaining("failed")
+                    .satisfies(e -> assertThat(e.getSuppressed()).isEmpty());
+
+            try ( final Stream<Path> files=Files.walk(storage) ) {
+                assertThat(files.filter(Files::isRegularFile)).isEmpty();
+            }
+        }
+
+        @Test void testRemoveDuplicatesInExternalMemory() {
+            assertThat(exec(() -> Xtream.from(IntStream.range(0, 1000).boxed())
+                    .map(n -> String.valueOf(n%10))
+                    .distinct(Codec.strings(), 64)
+                    .collect(toList())
+            )).containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+        }
+
+        @Test void testGroupInExternalMemory() {
+            assertThat(exec(() -> Xtream.from(IntStream.range(0, 1000).boxed())
+                    .map(String::valueOf)
+                    .groupBy(n -> n.substring(n.length()-1), Codec.strings(), Codec.strings(), 64)
+                    .collect(toList())
+            )).hasSize(10).first().satisfies(group -> assertThat(group).satisfies(entry -> {
+
+                assertThat(entry.getKey()).isEqualTo("0");
+                assertThat(entry.getValue()).hasSize(100).startsWith("0", "10", "20");
+
+            }));
+        }
+
+        @Test void testEncodeValues() throws IOException {
+
+            final Value[] values={
+                    RDF.TYPE,
+                    bnode("b"),
+                    literal("one"),
+                    literal("uno", "it"),
+                    literal(1),
+                    triple(RDF.NIL, RDF.VALUE, literal(true)),
+                    null
+            };
+
+            for (final Value value : values) {
+                assertThat(roundtrip(Codec.values(), value)).isEqualTo(value);
+            }
+        }
+
+        @Test void testEncodeStatements() throws IOException {
+
+            final Statement statement=statement(RDF.NIL, RDF.VALUE, literal("x"), iri("urn:x"));
+
+            assertThat(roundtrip(Codec.statements(), statement).getContext()).isEqualTo(statement.getContext());
+            assertThat(roundtrip(Codec.entries(Codec.strings(), Codec.statements()), entry("key", statement)))
+                    .isEqualTo(entry("key", statement));
+        }
+
+    }
+
+    @Nested final class Loop {
+
+        @Test void testExpandInBreadthFirstOrder() {
+            assertThat(Xtream.of(1)
+                    .loop(n -> n < 4 ? children.apply(n) : null)
+                    .collect(toList())
+            ).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        }
+
+        @Test void testIgnoreVisitedElements() {
+            assertThat(Xtream.of(0, 0)
+                    .loop(n -> Stream.of((n+1)%3, n))
+                    .collect(toList())
+            ).containsExactly(0, 1, 2);
+        }
+
+        @Test void testExpandLazily() {
+
+            final AtomicInteger expanded=new AtomicInteger();
+
+            assertThat(Xtream.of(1)
+                    .loop(n -> {
+                        expanded.incrementAndGet();
+                        return children.apply(n);
+                    })
+                    .limit(3)
+                    .collect(toList())
+            ).containsExactly(1, 2, 3);
+
+            assertThat(expanded).hasValue(1);
+        }
+
+        @Test void testUseCustomVisitedSets() {
+
+            final Set<Integer> visited=new TreeSet<>();
+
+            assertThat(Xtream.of(3, 1, 2)
+                    .loop(() -> visited, n -> Stream.of(n))
+                    .collect(toList())
+            ).containsExactly(3, 1, 2);
+
+            assertThat(visited).containsExactly(1, 2, 3);
+        }
+
+        @Test void testCloseExpansions() {
+
+            final AtomicInteger closed=new AtomicInteger();
+
+            Xtream.of(1)
+                    .loop(n -> n < 4 ? children.apply(n).onClose(closed::incrementAndGet) : null)
+                    .forEach(n -> {});
+
+            assertThat(closed).hasValue(3);
+        }
+
+    }
+
+    @Nested final class Iter {
+
+        @Test void testExpandInDepthFirstOrder() {
+            assertThat(Xtream.of(1, 2)
+                    .iter(2, children)
+                    .collect(toList())
+            ).containsExactly(4, 5, 6, 7, 8, 9, 10, 11);
+        }
+
+        @Test void testHandleNullExpansions() {
+            assertThat(Xtream.of(1, 2)
+                    .iter(2, n -> n == 2 ? null : children.apply(n))
+                    .collect(toList())
+            ).containsExactly(6, 7);
+        }
+
+        @Test void testExpandLazily() {
+
+            final AtomicInteger expanded=new AtomicInteger();
+
+            assertThat(Xtream.of(1)
+                    .iter(3, n -> {
+                        expanded.incrementAndGet();
+                        return children.apply(n);
+                    })
+                    .limit(1)
+                    .collect(toList())
+            ).containsExactly(8);
+
+            assertThat(expanded).hasValue(3);
+        }
+
+    }
+
+    @Nested final class Async {
+
+        private final ExecutorService executor=Executors.newFixedThreadPool(4);
+
+
+        private <V> V exec(final Supplier<V> task) {
+            try { return task.get(); } finally { executor.shutdownNow(); }
+        }
+
+
+        @Test void testPreserveOrderIfRequired() {
+            assertThat(exec(() -> Xtream.from(IntStream.range(0, 100).boxed())
+                    .async(executor, 4, n -> {
+                        sleep(n%3);
+                        return 2*n;
+                    })
+                    .collect(toList())
+            )).isEqualTo(IntStream.range(0, 100).mapToObj(n -> 2*n).collect(toList()));
+        }
+
+        @Test void testMapAllElementsIfUnordered() {
+            assertThat(exec(() -> Xtream.from(IntStream.range(0, 100).boxed())
+                    .async(executor, 4, 8, false, n -> {
+                        sleep(n%3);
+                        return 2*n;
+                    })
+                    .collect(toList())
+            )).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).mapToObj(n -> 2*n).collect(toList()));
+        }
+
+        @Test void testBoundParallelism() {
+
+            final AtomicInteger running=new AtomicInteger();
+            final AtomicInteger peak=new AtomicInteger();
+
+            exec(() -> Xtream.from(IntStream.range(0, 50).boxed())
+                    .async(executor, 2, 4, false, n -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(1);
+                        return running.decrementAndGet();
+                    })
+                    .count()
+            );
+
+            assertThat(peak.get()).isBetween(1, 2);
+        }
+
+        @Test void testPropagateToolbox() {
+
+            final Supplier<String> service=() -> "service";
+
+            new Toolbox().set(service, () -> "plugin").exec(() -> assertThat(exec(() -> Xtream.of(1, 2, 3)
+                    .async(executor, 2, n -> Toolbox.service(service))
+                    .collect(toList())
+            )).containsExactly("plugin", "plugin", "plugin")).clear();
+        }
+
+        @Test void testRethrowMapperExceptions() {
+            assertThatIllegalStateException().isThrownBy(() -> exec(() -> Xtream.of(1, 2, 3)
+                    .async(executor, 2, n -> {
+                        if ( n == 2 ) { throw new IllegalStateException("failed"); } else { return n; }
+                    })
+                    .collect(toList())
+            ));
+        }
+
+    }
+
+}
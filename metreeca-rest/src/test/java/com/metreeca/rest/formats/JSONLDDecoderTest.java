@@ -126,6 +126,37 @@ final class JSONLDDecoderTest {
 			);
 		}
 
+		@Test void testHandleTrailingKeywords() {
+			assertThat(decode(x, field(RDF.VALUE, field(RDF.VALUE)), createObjectBuilder()
+
+					.add("value", createObjectBuilder()
+							.add("value", "x")
+							.add("@id", "/y")
+					)
+
+			)).isIsomorphicTo(
+
+					statement(x, RDF.VALUE, y),
+					statement(y, RDF.VALUE, literal("x"))
+
+			);
+		}
+
+		@Test void testIgnoreNestedFieldsInLiterals() {
+			assertThat(decode(x, field(RDF.VALUE, and()), createObjectBuilder()
+
+					.add("value", createObjectBuilder()
+							.add("value", createObjectBuilder().add("@id", "/y"))
+							.add("@value", "x")
+					)
+
+			)).isIsomorphicTo(
+
+					statement(x, RDF.VALUE, literal("x"))
+
+			);
+		}
+
 	}
 
 	@Nested final class Values {
@@ -24,10 +24,15 @@ import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collection;
 import java.util.Map;
 
 import javax.json.JsonObject;
+import javax.json.JsonReader;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
 
 import static com.metreeca.json.Shape.optional;
 import static com.metreeca.json.Shape.required;
@@ -72,16 +77,30 @@ final class JSONLDEncoderTest {
 	private JsonObject encode(
 			final IRI focus, final Shape shape, final Map<String, String> keywords, final Statement... model
 	) {
-		return new JSONLDEncoder(focus, shape, keywords, false).encode(asList(model));
+		return encode(new JSONLDEncoder(focus, shape, keywords, false), asList(model));
+	}
+
+	private static JsonObject encode(final JSONLDEncoder encoder, final Collection<Statement> model) {
+
+		final StringWriter writer=new StringWriter();
+
+		try ( final JsonGenerator generator=createGenerator(writer) ) {
+			encoder.encode(model, generator);
+		}
+
+		try ( final JsonReader reader=createReader(new StringReader(writer.toString())) ) {
+			return reader.readObject();
+		}
 	}
 
 
 	@Nested final class Values {
 
 		private JsonValue encode(final Value value) {
-			return new JSONLDEncoder(focus, field(RDF.VALUE, optional()), emptyMap(), false)
-					.encode(singleton(statement(focus, RDF.VALUE, value))) // wrap value inside root object
-					.get("value"); // then unwrap
+			return JSONLDEncoderTest.encode( // wrap value inside root object
+					new JSONLDEncoder(focus, field(RDF.VALUE, optional()), emptyMap(), false),
+					singleton(statement(focus, RDF.VALUE, value))
+			).get("value"); // then unwrap
 		}
 
 
@@ -639,8 +658,7 @@ final class JSONLDEncoderTest {
 	@Nested final class Context {
 
 		private JsonObject encode(final Shape shape) {
-			final JsonObject context=new JSONLDEncoder(x, shape, emptyMap(), true)
-					.encode(emptyList())
+			final JsonObject context=JSONLDEncoderTest.encode(new JSONLDEncoder(x, shape, emptyMap(), true), emptyList())
 					.getJsonObject("@context");
 
 			System.out.println(context);
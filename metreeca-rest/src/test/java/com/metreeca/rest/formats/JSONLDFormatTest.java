@@ -20,11 +20,14 @@ import com.metreeca.rest.*;
 
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
 
 import javax.json.Json;
 
@@ -239,6 +242,49 @@ final class JSONLDFormatTest {
 		}
 
 
+		@Test void testWriteCompactPayloadsByDefault() {
+			exec(() -> request()
+
+					.reply(this::response)
+
+					.accept(response -> assertThat(response)
+							.hasBody(output(), target -> Assertions.assertThat(text(target))
+									.doesNotContain("\n")
+							)
+					)
+
+			);
+		}
+
+		@Test void testPrettyPrintPayloadsIfEnabled() {
+			new Toolbox()
+
+					.set(pretty(), () -> true)
+
+					.exec(() -> request()
+
+							.reply(this::response)
+
+							.accept(response -> assertThat(response)
+									.hasBody(output(), target -> Assertions.assertThat(text(target))
+											.contains("\n")
+									)
+							)
+					)
+
+					.clear();
+		}
+
+		private String text(final Consumer<OutputStream> target) {
+
+			final ByteArrayOutputStream output=new ByteArrayOutputStream();
+
+			target.accept(output);
+
+			return new String(output.toByteArray(), UTF_8);
+		}
+
+
 		@Test void testTrimPayload() {
 			exec(() -> request()
 
@@ -29,6 +29,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collection;
 
+import static com.metreeca.json.Focus.focus;
 import static com.metreeca.json.ModelAssert.assertThat;
 import static com.metreeca.json.Shape.required;
 import static com.metreeca.json.Values.*;
@@ -181,6 +182,17 @@ final class JSONLDScannerTest {
 		}
 
 
+		@Test void testReuseCompiledShapes() {
+
+			final Shape shape=field(p, all(focus()));
+
+			assertThat(JSONLDScanner.scan(s, shape, singletonList(statement(s, p, s)))).hasRight();
+			assertThat(JSONLDScanner.scan(x, shape, singletonList(statement(x, p, x)))).hasRight();
+			assertThat(JSONLDScanner.scan(x, shape, singletonList(statement(x, p, s)))).hasLeft();
+
+		}
+
+
 		@Test void testReportUnredactedGuard() {
 			assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
 					scan(when(guard("axis", "value"), maxInclusive(literal(100))))
@@ -194,6 +194,81 @@ final class RouterTest {
 
 		}
 
+		@Test void testPreferFirstMatchAcrossPlaceholders() {
+
+			final Router router=router()
+
+					.path("/{id}/tail", request -> request.reply(response -> response.status(100)))
+					.path("/head/tail", request -> request.reply(response -> response.status(200)))
+					.path("/head/*", request -> request.reply(response -> response.status(300)))
+					.path("/{id}/{}", request -> request.reply(response -> response.status(400)));
+
+			router.handle(request("/head/tail")).accept(response -> assertThat(response).hasStatus(100));
+			router.handle(request("/head/path")).accept(response -> assertThat(response).hasStatus(300));
+			router.handle(request("/path/path")).accept(response -> assertThat(response).hasStatus(400));
+			router.handle(request("/path/path/path")).accept(response -> assertThat(response).hasStatus(404));
+
+		}
+
+		@Test void testDecodePlaceholderValues() {
+			router().path("/{head}/{tail}", handler())
+					.handle(request("/one%20two/three+four"))
+					.accept(response -> assertThat(response.request())
+							.hasParameter("head", "one two")
+							.hasParameter("tail", "three four")
+					);
+		}
+
+		@Test void testMatchNestedRouters() {
+
+			final Router router=router()
+
+					.path("/head/*", router()
+							.path("/{id}", handler())
+							.path("/{id}/*", router()
+									.path("/tail", handler())
+							)
+					);
+
+			router.handle(request("/head/one")).accept(response -> assertThat(response)
+					.hasHeader("path", "/head/one")
+			);
+
+			router.handle(request("/head/one/tail")).accept(response -> assertThat(response)
+					.hasHeader("path", "/head/one/tail")
+			);
+
+			router.handle(request("/head/one/two")).accept(response -> assertThat(response)
+					.doesNotHaveHeader("path")
+			);
+
+		}
+
+		@Test void testRecordMatchedPatterns() {
+
+			final Router router=router()
+
+					.path("/head/*", router()
+							.path("/{id}", handler())
+							.path("/{id}/*", router()
+									.path("/tail", handler())
+							)
+					);
+
+			router.handle(request("/head/one")).accept(response ->
+					Assertions.assertThat(response.request().get(Router.pattern())).isEqualTo("/head/{id}")
+			);
+
+			router.handle(request("/head/one/tail")).accept(response ->
+					Assertions.assertThat(response.request().get(Router.pattern())).isEqualTo("/head/{id}/tail")
+			);
+
+			router.handle(request("/none")).accept(response ->
+					Assertions.assertThat(response.request().get(Router.pattern())).isEmpty()
+			);
+
+		}
+
 	}
 
 	@Nested final class Methods {
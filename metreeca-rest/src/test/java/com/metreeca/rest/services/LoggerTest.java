@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.services;
+
+import com.metreeca.rest.services.Logger.Level;
+import com.metreeca.rest.services.Logger.Overflow;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.metreeca.rest.services.Logger.async;
+import static com.metreeca.rest.services.Logger.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+
+
+final class LoggerTest {
+
+    private static final class Recorder extends Logger {
+
+        private final boolean enabled;
+        private final CountDownLatch latch;
+
+        private final List<String> messages=Collections.synchronizedList(new ArrayList<>());
+
+
+        private Recorder(final boolean enabled) {
+            this(enabled, new CountDownLatch(0));
+        }
+
+        private Recorder(final boolean enabled, final CountDownLatch latch) {
+            this.enabled=enabled;
+            this.latch=latch;
+        }
+
+
+        @Override public boolean enabled(final Level level, final Object source) {
+            return enabled;
+        }
+
+        @Override public Logger entry(final Level level,
+                final Object source, final Supplier<String> message, final Throwable cause
+        ) {
+
+            try { latch.await(); } catch ( final InterruptedException e ) { throw new RuntimeException(e); }
+
+            messages.add(message.get());
+
+            return this;
+        }
+
+    }
+
+
+    @Nested final class System {
+
+        @Test void testIgnoreMessagesOfDisabledEntries() {
+
+            final AtomicBoolean built=new AtomicBoolean();
+
+            logger().get().debug(this, () -> {
+
+                built.set(true);
+
+                return "message";
+
+            });
+
+            assertThat(built).isFalse();
+        }
+
+    }
+
+    @Nested final class Async {
+
+        @Test void testForwardEntriesInOrder() throws Exception {
+
+            final Recorder recorder=new Recorder(true);
+
+            try ( final AutoCloseable logger=(AutoCloseable)async(() -> recorder, 4, Overflow.block).get() ) {
+                range(0, 100).forEach(n -> ((Logger)logger).info(this, String.valueOf(n)));
+            }
+
+            assertThat(recorder.messages)
+                    .isEqualTo(range(0, 100).mapToObj(String::valueOf).collect(toList()));
+        }
+
+        @Test void testIgnoreMessagesOfDisabledEntries() throws Exception {
+
+            final AtomicBoolean built=new AtomicBoolean();
+
+            try ( final AutoCloseable logger=(AutoCloseable)async(() -> new Recorder(false), 4, Overflow.block).get() ) {
+                ((Logger)logger).debug(this, () -> {
+
+                    built.set(true);
+
+                    return "message";
+
+                });
+            }
+
+            assertThat(built).isFalse();
+        }
+
+        @Test void testDropEntriesOnOverflow() throws Exception {
+
+            final CountDownLatch latch=new CountDownLatch(1);
+            final Recorder recorder=new Recorder(true, latch);
+
+            try ( final AutoCloseable logger=(AutoCloseable)async(() -> recorder, 2, Overflow.drop).get() ) {
+
+                range(0, 100).forEach(n -> ((Logger)logger).info(this, String.valueOf(n)));
+
+                latch.countDown();
+
+            }
+
+            assertThat(recorder.messages)
+                    .hasSizeLessThan(100)
+                    .startsWith("0");
+        }
+
+
+        @Test void testReleaseBlockedProducersOnClose() throws Exception {
+
+            final CountDownLatch latch=new CountDownLatch(1);
+            final Recorder recorder=new Recorder(true, latch);
+
+            final Logger logger=async(() -> recorder, 2, Overflow.block).get();
+
+            final Thread producer=new Thread(() ->
+                    range(0, 100).forEach(n -> logger.info(this, String.valueOf(n)))
+            );
+
+            final Thread closer=new Thread(() -> {
+                try { ((AutoCloseable)logger).close(); } catch ( final Exception e ) { throw new RuntimeException(e); }
+            });
+
+            producer.setDaemon(true);
+            closer.setDaemon(true);
+
+            producer.start();
+            Thread.sleep(50); // let the producer fill the buffer
+
+            closer.start();
+            Thread.sleep(50); // let the closer flag the logger as closed
+
+            latch.countDown();
+
+            producer.join(5000);
+            closer.join(5000);
+
+            assertThat(producer.isAlive()).isFalse();
+            assertThat(closer.isAlive()).isFalse();
+
+            assertThat(recorder.messages).hasSize(100);
+        }
+
+    }
+
+}
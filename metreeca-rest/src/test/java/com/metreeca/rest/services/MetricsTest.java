@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.services;
+
+import com.metreeca.rest.services.Metrics.MemoryMetrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+
+final class MetricsTest {
+
+    @Test void testExportCounters() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.counter("requests", "method", "GET").increment();
+        metrics.counter("requests", "method", "GET").add(2);
+        metrics.counter("requests", "method", "POST").increment();
+
+        assertThat(metrics.export()).isEqualTo(""
+                +"# TYPE requests counter\n"
+                +"requests{method=\"GET\"} 3\n"
+                +"requests{method=\"POST\"} 1\n"
+        );
+    }
+
+    @Test void testExportGauges() {
+        assertThat(new MemoryMetrics().gauge("load", () -> 0.5).export()).isEqualTo(""
+                +"# TYPE load gauge\n"
+                +"load 0.5\n"
+        );
+    }
+
+    @Test void testExportHistograms() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.histogram("latency_seconds").record(0.5);
+        metrics.histogram("latency_seconds").record(1);
+        metrics.histogram("latency_seconds").record(5);
+
+        assertThat(metrics.export())
+                .startsWith(""
+                        +"# TYPE latency_seconds histogram\n"
+                        +"latency_seconds_bucket{le=\"0.00000095367431640625\"} 0\n"
+                )
+                .contains(""
+                        +"latency_seconds_bucket{le=\"0.25\"} 0\n"
+                        +"latency_seconds_bucket{le=\"0.5\"} 1\n"
+                        +"latency_seconds_bucket{le=\"1\"} 2\n"
+                        +"latency_seconds_bucket{le=\"2\"} 2\n"
+                        +"latency_seconds_bucket{le=\"4\"} 2\n"
+                        +"latency_seconds_bucket{le=\"8\"} 3\n"
+                        +"latency_seconds_bucket{le=\"16\"} 3\n"
+                )
+                .endsWith(""
+                        +"latency_seconds_bucket{le=\"1048576\"} 3\n"
+                        +"latency_seconds_bucket{le=\"+Inf\"} 3\n"
+                        +"latency_seconds_sum 6.5\n"
+                        +"latency_seconds_count 3\n"
+                );
+    }
+
+    @Test void testExportFixedHistogramBuckets() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.histogram("empty_seconds");
+        metrics.histogram("latency_seconds").record(1);
+
+        assertThat(metrics.export().split("\n"))
+                .filteredOn(line -> line.startsWith("empty_seconds_bucket"))
+                .hasSize(42);
+
+        assertThat(metrics.export().split("\n"))
+                .filteredOn(line -> line.startsWith("latency_seconds_bucket"))
+                .hasSize(42);
+    }
+
+    @Test void testReuseMetricsForEqualLabels() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        final String[] labels={ "method", "GET" };
+
+        final Metrics.Counter counter=metrics.counter("requests", labels);
+
+        labels[1]="POST";
+
+        assertThat(metrics.counter("requests", "method", "GET")).isSameAs(counter);
+        assertThat(metrics.counter("requests", labels)).isNotSameAs(counter);
+    }
+
+    @Test void testEscapeLabelValues() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.counter("requests", "path", "\"/\"\n").increment();
+
+        assertThat(metrics.export()).contains("requests{path=\"\\\"/\\\"\\n\"} 1");
+    }
+
+    @Test void testReportConflictingMetrics() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.counter("requests");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> metrics.histogram("requests"));
+        assertThatIllegalArgumentException().isThrownBy(() -> metrics.gauge("requests", () -> 0));
+    }
+
+    @Test void testReportConflictingMetricsAcrossLabels() {
+
+        final Metrics metrics=new MemoryMetrics();
+
+        metrics.counter("requests", "method", "GET");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> metrics.histogram("requests", "method", "POST"));
+        assertThatIllegalArgumentException().isThrownBy(() -> metrics.gauge("requests", () -> 0, "method", "PUT"));
+    }
+
+    @Test void testReportMalformedMetrics() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new MemoryMetrics().counter("requests", "method"));
+        assertThatIllegalArgumentException().isThrownBy(() -> new MemoryMetrics().counter("1requests"));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.rest.wrappers;
+
+import com.metreeca.rest.*;
+import com.metreeca.rest.services.Logger;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static com.metreeca.rest.Response.OK;
+import static com.metreeca.rest.formats.TextFormat.text;
+import static com.metreeca.rest.services.Logger.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+final class TracerTest {
+
+	private static final class Inner implements Wrapper {
+
+		@Override public Handler wrap(final Handler handler) {
+			return request -> Tracing.span("inner", () -> handler.handle(request));
+		}
+
+	}
+
+
+	private Handler handler() {
+		return request -> request.reply(response -> response.status(OK).body(text(), "text"));
+	}
+
+
+	@Nested final class Spans {
+
+		@Test void testRunUntracedTasks() {
+			assertThat(Tracing.span("task", () -> "value")).isEqualTo("value");
+		}
+
+		@Test void testRecordTracedTasks() {
+
+			final Tracing trace=new Tracing();
+
+			assertThat(trace.trace(() -> Tracing.span("task", () -> "value"))).isEqualTo("value");
+
+			assertThat(trace.spans()).extracting(Tracing.Span::name).containsExactly("task");
+			assertThat(trace.timing()).matches("task;dur=\\d+\\.\\d{3}");
+		}
+
+		@Test void testNameTypedSpans() {
+
+			final Tracing trace=new Tracing();
+
+			trace.trace(() -> Tracing.span(TracerTest.class, "task", () -> null));
+
+			assertThat(trace.spans()).extracting(Tracing.Span::name).containsExactly("TracerTest.task");
+		}
+
+		@Test void testAggregateTimingsByName() {
+
+			final Tracing trace=new Tracing();
+
+			trace.trace(() -> {
+
+				Tracing.span("x", () -> {});
+				Tracing.span("y", () -> {});
+				Tracing.span("x", () -> {});
+
+				return null;
+
+			});
+
+			assertThat(trace.spans()).hasSize(3);
+			assertThat(trace.timing()).matches("x;dur=[.\\d]+, y;dur=[.\\d]+");
+		}
+
+		@Test void testSanitizeTimingNames() {
+
+			final Tracing trace=new Tracing();
+
+			trace.trace(() -> Tracing.span("a b/c", () -> null));
+
+			assertThat(trace.timing()).startsWith("a_b_c;dur=");
+		}
+
+	}
+
+	@Nested final class Wrapping {
+
+		@Test void testReportChainedSpans() {
+			new Toolbox().get(Tracer::tracer)
+
+					.wrap(handler().with(new Inner()))
+
+					.handle(new Request())
+
+					.accept(response -> assertThat(response.header("Server-Timing")).hasValueSatisfying(timing ->
+							assertThat(timing)
+									.contains("TextFormat.encode;dur=")
+									.contains("inner;dur=")
+									.contains("Inner;dur=")
+									.contains("TracerTest;dur=")
+					));
+		}
+
+		@Test void testLogSpansOfAsynchronousResponses() throws InterruptedException {
+
+			final CountDownLatch latch=new CountDownLatch(1);
+			final List<String> messages=synchronizedList(new ArrayList<>());
+
+			final Logger recorder=new Logger() {
+
+				@Override public boolean enabled(final Level level, final Object source) { return true; }
+
+				@Override public Logger entry(final Level level,
+						final Object source, final Supplier<String> message, final Throwable cause
+				) {
+
+					messages.add(message.get());
+					latch.countDown();
+
+					return this;
+				}
+
+			};
+
+			final Handler async=request -> consumer -> new Thread(() ->
+					handler().handle(request).accept(consumer)
+			).start();
+
+			new Toolbox().set(logger(), () -> recorder).get(Tracer::tracer)
+
+					.wrap(async)
+
+					.handle(new Request())
+
+					.accept(response -> Tracing.span("consume", () -> {}));
+
+			assertThat(latch.await(10, SECONDS)).isTrue();
+			assertThat(messages).hasSize(1);
+			assertThat(messages.get(0)).contains("consume@");
+		}
+
+		@Test void testIgnoreUntracedRequests() {
+			handler().with(new Inner())
+
+					.handle(new Request())
+
+					.accept(response -> assertThat(response.header("Server-Timing")).isEmpty());
+		}
+
+	}
+
+}
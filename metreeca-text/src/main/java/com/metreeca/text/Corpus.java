@@ -0,0 +1,354 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import com.metreeca.rest.actions.Clean;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Compact word corpus.
+ *
+ * <p>Stores normalized entries as sorted UTF-8 byte sequences packed into a single buffer and searched by binary
+ * search, fronted by a Bloom filter rejecting most non-entries without touching entry data. The packed layout is also
+ * the {@linkplain #store(OutputStream) storage format}, so that prebuilt corpora may be {@linkplain #load(Path)
+ * memory-mapped} without further processing.</p>
+ */
+public final class Corpus implements Predicate<Token> {
+
+	private static final int Magic=0x4D544350; // 'MTCP'
+	private static final int Version=1;
+
+	private static final int Header=5*Integer.BYTES; // magic, version, count, bloom words, bloom hashes
+
+	private static final int Bits=10; // bloom bits per entry (~1% false positives)
+	private static final int Hashes=7; // bloom hashes per entry
+
+
+	/**
+	 * Checks for a stored corpus.
+	 *
+	 * @param head the first bytes of a resource
+	 *
+	 * @return {@code true} if {@code head} starts with the signature of a {@linkplain #store(OutputStream) stored}
+	 * corpus
+	 */
+	static boolean stored(final byte[] head) {
+		return head.length >= Integer.BYTES && ByteBuffer.wrap(head).getInt(0) == Magic;
+	}
+
+
+	/**
+	 * Creates a corpus.
+	 *
+	 * @param entries the corpus entries; matched against tokens after normalization and lowercasing
+	 *
+	 * @return a new corpus including {@code entries}
+	 *
+	 * @throws NullPointerException if {@code entries} is null or contains null values
+	 */
+	public static Corpus corpus(final Collection<String> entries) {
+
+		if ( entries == null || entries.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null entries");
+		}
+
+		final byte[][] keys=entries.stream()
+
+				.map(Corpus::key)
+				.distinct()
+				.map(key -> key.getBytes(UTF_8))
+				.sorted(Arrays::compareUnsigned)
+
+				.toArray(byte[][]::new);
+
+		final int count=keys.length;
+		final int words=Math.max(1, (count*Bits+Long.SIZE-1)/Long.SIZE);
+		final int data=Arrays.stream(keys).mapToInt(key -> key.length).sum();
+
+		final ByteBuffer buffer=ByteBuffer.allocate(Header+words*Long.BYTES+(count+1)*Integer.BYTES+data)
+				.putInt(Magic)
+				.putInt(Version)
+				.putInt(count)
+				.putInt(words)
+				.putInt(Hashes);
+
+		final long[] bloom=new long[words];
+
+		for (final byte[] key : keys) {
+
+			final long hash=hash(key, 0, key.length);
+
+			for (int i=0; i < Hashes; ++i) {
+
+				final long bit=probe(hash, i, words);
+
+				bloom[(int)(bit>>>6)]|=1L<<bit;
+			}
+		}
+
+		for (final long word : bloom) { buffer.putLong(word); }
+
+		for (int i=0, offset=0; i <= count; offset+=i < count ? keys[i].length : 0, ++i) { buffer.putInt(offset); }
+
+		for (final byte[] key : keys) { buffer.put(key); }
+
+		return new Corpus(buffer.flip());
+	}
+
+	/**
+	 * Reads a stored corpus.
+	 *
+	 * @param input the input stream the corpus is to be read from
+	 *
+	 * @return a new heap-resident corpus read from {@code input}
+	 *
+	 * @throws NullPointerException if {@code input} is null
+	 * @throws IOException          if an I/O exception occurs while reading from {@code input}
+	 */
+	public static Corpus read(final InputStream input) throws IOException {
+
+		if ( input == null ) {
+			throw new NullPointerException("null input");
+		}
+
+		return new Corpus(ByteBuffer.wrap(input.readAllBytes()));
+	}
+
+	/**
+	 * Memory-maps a stored corpus.
+	 *
+	 * @param file the file containing a corpus {@linkplain #store(OutputStream) stored} by a previous run
+	 *
+	 * @return a new corpus mapped from {@code file}, whose data is paged in on demand by the operating system and
+	 * doesn't occupy heap space
+	 *
+	 * @throws NullPointerException if {@code file} is null
+	 * @throws IOException          if an I/O exception occurs while mapping {@code file}
+	 */
+	public static Corpus load(final Path file) throws IOException {
+
+		if ( file == null ) {
+			throw new NullPointerException("null file");
+		}
+
+		try ( final FileChannel channel=FileChannel.open(file, READ) ) {
+			return new Corpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+
+	private static String key(final String text) {
+		return Clean.lower(Clean.normalize(text));
+	}
+
+
+	private static long hash(final byte[] key, final int offset, final int length) { // 64-bit FNV-1a + mixing
+
+		long hash=0xcbf29ce484222325L;
+
+		for (int i=offset, n=offset+length; i < n; ++i) {
+			hash=(hash^(key[i]&0xFF))*0x100000001b3L;
+		}
+
+		hash^=hash>>>33;
+		hash*=0xff51afd7ed558ccdL;
+		hash^=hash>>>33;
+
+		return hash;
+	}
+
+	private static long probe(final long hash, final int index, final int words) { // double hashing
+		return Long.remainderUnsigned((hash&0xFFFFFFFFL)+index*((hash>>>32)|1), (long)words*Long.SIZE);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final ByteBuffer buffer;
+
+	private final int count;
+	private final int words;
+	private final int hashes;
+
+	private final int bloom; // bloom filter offset
+	private final int offsets; // entry offsets offset
+	private final int data; // entry data offset
+
+
+	private Corpus(final ByteBuffer buffer) {
+
+		if ( buffer.remaining() < Header || buffer.getInt(0) != Magic ) {
+			throw new IllegalArgumentException("malformed corpus");
+		}
+
+		if ( buffer.getInt(Integer.BYTES) != Version ) {
+			throw new IllegalArgumentException("unsupported corpus version <"+buffer.getInt(Integer.BYTES)+">");
+		}
+
+		this.buffer=buffer;
+
+		this.count=buffer.getInt(2*Integer.BYTES);
+		this.words=buffer.getInt(3*Integer.BYTES);
+		this.hashes=buffer.getInt(4*Integer.BYTES);
+
+		this.bloom=Header;
+		this.offsets=bloom+words*Long.BYTES;
+		this.data=offsets+(count+1)*Integer.BYTES;
+
+		if ( data+buffer.getInt(offsets+count*Integer.BYTES) != buffer.limit() ) {
+			throw new IllegalArgumentException("malformed corpus");
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	public int size() {
+		return count;
+	}
+
+
+	@Override public boolean test(final Token token) {
+
+		if ( token == null ) {
+			throw new NullPointerException("null token");
+		}
+
+		return contains(token.key());
+	}
+
+	public boolean contains(final String entry) {
+
+		if ( entry == null ) {
+			throw new NullPointerException("null entry");
+		}
+
+		return contains(key(entry).getBytes(UTF_8));
+	}
+
+
+	/**
+	 * Stores this corpus.
+	 *
+	 * @param output the output stream this corpus is to be written to; suitable for {@linkplain #read(InputStream)
+	 *               reading} or {@linkplain #load(Path) mapping}
+	 *
+	 * @return this corpus
+	 *
+	 * @throws NullPointerException if {@code output} is null
+	 * @throws IOException          if an I/O exception occurs while writing to {@code output}
+	 */
+	public Corpus store(final OutputStream output) throws IOException {
+
+		if ( output == null ) {
+			throw new NullPointerException("null output");
+		}
+
+		final ByteBuffer buffer=this.buffer.duplicate().clear();
+		final byte[] chunk=new byte[64*1024];
+
+		while ( buffer.hasRemaining() ) {
+
+			final int length=Math.min(chunk.length, buffer.remaining());
+
+			buffer.get(chunk, 0, length);
+			output.write(chunk, 0, length);
+		}
+
+		output.flush();
+
+		return this;
+	}
+
+	/**
+	 * Stores this corpus.
+	 *
+	 * @param file the file this corpus is to be written to
+	 *
+	 * @return this corpus
+	 *
+	 * @throws NullPointerException if {@code file} is null
+	 * @throws IOException          if an I/O exception occurs while writing to {@code file}
+	 */
+	public Corpus store(final Path file) throws IOException {
+
+		if ( file == null ) {
+			throw new NullPointerException("null file");
+		}
+
+		try ( final OutputStream output=new BufferedOutputStream(Files.newOutputStream(file)) ) {
+			return store(output);
+		}
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private boolean contains(final byte[] key) {
+
+		if ( count == 0 ) { return false; }
+
+		final long hash=hash(key, 0, key.length);
+
+		for (int i=0; i < hashes; ++i) {
+
+			final long bit=probe(hash, i, words);
+
+			if ( (buffer.getLong(bloom+(int)(bit>>>6)*Long.BYTES)&(1L<<bit)) == 0 ) { return false; }
+		}
+
+		int lo=0;
+		int hi=count-1;
+
+		while ( lo <= hi ) {
+
+			final int mid=(lo+hi)>>>1;
+			final int order=compare(mid, key);
+
+			if ( order < 0 ) { lo=mid+1; } else if ( order > 0 ) { hi=mid-1; } else { return true; }
+
+		}
+
+		return false;
+	}
+
+	private int compare(final int entry, final byte[] key) {
+
+		final int lower=data+buffer.getInt(offsets+entry*Integer.BYTES);
+		final int upper=data+buffer.getInt(offsets+(entry+1)*Integer.BYTES);
+
+		for (int i=lower, j=0; i < upper && j < key.length; ++i, ++j) {
+
+			final int order=Integer.compare(buffer.get(i)&0xFF, key[j]&0xFF);
+
+			if ( order != 0 ) { return order; }
+		}
+
+		return Integer.compare(upper-lower, key.length);
+	}
+
+}
@@ -18,14 +18,28 @@ package com.metreeca.text;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.function.ToIntFunction;
-
-import static java.lang.Math.max;
 
+/**
+ * Token sequence model.
+ *
+ * <p>Models are compiled into a tree of offset-based matchers operating on random access views of the matched values,
+ * with no intermediate allocation; matching is greedy and doesn't backtrack, that is each component of a
+ * {@linkplain #seq(Model[]) sequence} commits to its own match, {@linkplain #alt(Model[]) alternatives} select the
+ * longest match and repetitions are possessive.</p>
+ *
+ * <p>Each model also tracks a necessary condition on the first token of its non-empty matches, used by {@link
+ * #scan(List)} to skip offsets where no match may start without running the full matcher.</p>
+ *
+ * @param <T> the type of the matched values
+ */
 public final class Model<T> {
 
+	private static final Predicate<Object> Any=value -> true;
+	private static final Predicate<Object> None=value -> false;
+
+
 	public static <T> Model<T> dot() {
-		return new Model<>(values -> values.isEmpty() ? -1 : 1);
+		return new Model<>((values, offset) -> offset < values.size() ? 1 : -1, false, any());
 	}
 
 	public static <T> Model<T> test(final Predicate<T> predicate) {
@@ -34,7 +48,10 @@ public final class Model<T> {
 			throw new NullPointerException("null predicate");
 		}
 
-		return new Model<>(values -> !values.isEmpty() && predicate.test(values.get(0)) ? 1 : -1);
+		return new Model<>(
+				(values, offset) -> offset < values.size() && predicate.test(values.get(offset)) ? 1 : -1,
+				false, predicate
+		);
 	}
 
 
@@ -44,13 +61,26 @@ public final class Model<T> {
 			throw new NullPointerException("null models");
 		}
 
-		return new Model<>(values -> {
+		final Matcher<T>[] matchers=matchers(models);
+
+		boolean nullable=true;
+		Predicate<T> first=none();
+
+		for (final Model<T> model : models) { // first tokens may be consumed by any component after nullable ones
+
+			first=union(first, model.first);
+
+			if ( !(nullable=model.nullable) ) { break; }
+
+		}
+
+		return new Model<>((values, offset) -> {
 
-			int i=0;
+			int i=offset;
 
-			for (final Model<T> model : models) {
+			for (final Matcher<T> matcher : matchers) {
 
-				final int j=model.find(values.subList(i, values.size()));
+				final int j=matcher.match(values, i);
 
 				if ( j >= 0 ) {
 
@@ -64,9 +94,9 @@ public final class Model<T> {
 
 			}
 
-			return i;
+			return i-offset;
 
-		});
+		}, nullable, first);
 	}
 
 	@SafeVarargs public static <T> Model<T> alt(final Model<T>... models) {
@@ -75,21 +105,62 @@ public final class Model<T> {
 			throw new NullPointerException("null models");
 		}
 
-		return new Model<>(values -> Arrays
-				.stream(models)
-				.mapToInt(model -> model.find(values))
-				.max()
-				.orElse(-1)
-		);
+		final Matcher<T>[] matchers=matchers(models);
+
+		boolean nullable=false;
+		Predicate<T> first=none();
+
+		for (final Model<T> model : models) {
+			nullable|=model.nullable;
+			first=union(first, model.first);
+		}
+
+		return new Model<>((values, offset) -> {
+
+			int max=-1;
+
+			for (final Matcher<T> matcher : matchers) {
+				max=Math.max(max, matcher.match(values, offset));
+			}
+
+			return max;
+
+		}, nullable, first);
+	}
+
+
+	@SuppressWarnings("unchecked") private static <T> Predicate<T> any() {
+		return (Predicate<T>)Any;
+	}
+
+	@SuppressWarnings("unchecked") private static <T> Predicate<T> none() {
+		return (Predicate<T>)None;
+	}
+
+	private static <T> Predicate<T> union(final Predicate<T> x, final Predicate<T> y) {
+		return x == None || y == Any ? y
+				: y == None || x == Any ? x
+				: x.or(y);
+	}
+
+	@SuppressWarnings("unchecked") private static <T> Matcher<T>[] matchers(final Model<T>[] models) {
+		return Arrays.stream(models).map(model -> model.matcher).toArray(Matcher[]::new);
 	}
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final ToIntFunction<? super List<T>> specs;
+	private final Matcher<T> matcher;
 
+	private final boolean nullable; // true if the model may match an empty sequence
+	private final Predicate<T> first; // a necessary condition on the first token of non-empty matches
 
-	private Model(final ToIntFunction<? super List<T>> specs) { this.specs=specs; }
+
+	private Model(final Matcher<T> matcher, final boolean nullable, final Predicate<T> first) {
+		this.matcher=matcher;
+		this.nullable=nullable;
+		this.first=first;
+	}
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -100,79 +171,91 @@ public final class Model<T> {
 			throw new NullPointerException("null values");
 		}
 
-		return specs.applyAsInt(values);
+		return matcher.match(values instanceof RandomAccess ? values : new ArrayList<>(values), 0);
 	}
 
+	/**
+	 * Scans a sequence.
+	 *
+	 * @param values the values to be scanned
+	 *
+	 * @return a list of views on {@code values} covering the non-empty, non-overlapping matches of this model found
+	 * in a single left-to-right pass, resuming after the end of each match
+	 *
+	 * @throws NullPointerException if {@code values} is null
+	 */
+	public List<List<T>> scan(final List<T> values) {
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+		if ( values == null ) {
+			throw new NullPointerException("null values");
+		}
 
-	public Model<T> opt() {
-		return new Model<>(values -> max(0, find(values)));
-	}
+		final List<T> list=values instanceof RandomAccess ? values : new ArrayList<>(values);
+		final List<List<T>> matches=new ArrayList<>();
 
-	public Model<T> star() {
-		return new Model<>(values -> {
+		for (int i=0, n=list.size(); i < n; ) {
 
-			final int n=values.size();
+			final int l=first.test(list.get(i)) ? matcher.match(list, i) : -1;
 
-			int i=0;
+			if ( l > 0 ) {
 
-			while ( i < n ) {
+				matches.add(list.subList(i, i+l));
 
-				final int l=find(values.subList(i, n));
+				i+=l;
 
-				if ( l >= 0 ) {
+			} else {
 
-					i+=l;
+				++i;
 
-				} else {
+			}
 
-					return i;
+		}
 
-				}
+		return matches;
+	}
 
-			}
 
-			return i;
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-		});
+	public Model<T> opt() {
+		return new Model<>((values, offset) -> Math.max(0, matcher.match(values, offset)), true, first);
 	}
 
-	public Model<T> plus() {
-		return new Model<>(values -> {
+	public Model<T> star() {
+		return new Model<>((values, offset) -> {
 
 			final int n=values.size();
 
-			int i=0;
+			int i=offset;
 
-			while ( i < n ) {
+			for (int l; i < n && (l=matcher.match(values, i)) > 0; ) { i+=l; } // stop on empty matches
 
-				final int l=find(values.subList(i, n));
+			return i-offset;
 
-				if ( l >= 0 ) {
-
-					i+=l;
+		}, true, first);
+	}
 
-				} else {
+	public Model<T> plus() {
+		return new Model<>((values, offset) -> {
 
-					return i > 0 ? i : -1;
+			final int n=values.size();
 
-				}
+			int i=offset;
 
-			}
+			for (int l; i < n && (l=matcher.match(values, i)) > 0; ) { i+=l; } // stop on empty matches
 
-			return i > 0 ? i : -1;
+			return i > offset ? i-offset : -1;
 
-		});
+		}, false, first);
 	}
 
 
 	public Model<T> at() {
-		return new Model<>(values -> find(values) >= 0 ? 0 : -1);
+		return new Model<>((values, offset) -> matcher.match(values, offset) >= 0 ? 0 : -1, true, none());
 	}
 
 	public Model<T> not() {
-		return new Model<>(values -> find(values) >= 0 ? -1 : 0);
+		return new Model<>((values, offset) -> matcher.match(values, offset) >= 0 ? -1 : 0, true, none());
 	}
 
 
@@ -201,13 +284,19 @@ public final class Model<T> {
 			throw new NullPointerException("null predicate");
 		}
 
-		return new Model<>(values -> {
+		return new Model<>((values, offset) -> {
+
+			final int n=matcher.match(values, offset);
+
+			if ( n <= 0 ) { return -1; }
 
-			final int n=find(values);
+			for (int i=offset; i < offset+n; ++i) {
+				if ( !predicate.test(values.get(i)) ) { return -1; }
+			}
 
-			return n > 0 && values.subList(0, n).stream().allMatch(predicate) ? n : -1;
+			return n;
 
-		});
+		}, false, first);
 	}
 
 	public Model<T> some(final Predicate<T> predicate) {
@@ -216,13 +305,19 @@ public final class Model<T> {
 			throw new NullPointerException("null predicate");
 		}
 
-		return new Model<>(values -> {
+		return new Model<>((values, offset) -> {
+
+			final int n=matcher.match(values, offset);
 
-			final int n=find(values);
+			if ( n <= 0 ) { return -1; }
 
-			return n > 0 && values.subList(0, n).stream().anyMatch(predicate) ? n : -1;
+			for (int i=offset; i < offset+n; ++i) {
+				if ( predicate.test(values.get(i)) ) { return n; }
+			}
 
-		});
+			return -1;
+
+		}, false, first);
 	}
 
 	public Model<T> none(final Predicate<T> predicate) {
@@ -231,13 +326,32 @@ public final class Model<T> {
 			throw new NullPointerException("null predicate");
 		}
 
-		return new Model<>(values -> {
+		return new Model<>((values, offset) -> {
+
+			final int n=matcher.match(values, offset);
+
+			if ( n <= 0 ) { return -1; }
+
+			for (int i=offset; i < offset+n; ++i) {
+				if ( predicate.test(values.get(i)) ) { return -1; }
+			}
+
+			return n;
+
+		}, false, first);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-			final int n=find(values);
+	@FunctionalInterface private static interface Matcher<T> {
 
-			return n > 0 && values.subList(0, n).stream().noneMatch(predicate) ? n : -1;
+		/**
+		 * @return the length of the match starting at {@code offset} in {@code values} or {@code -1} if no match was
+		 * found
+		 */
+		int match(final List<T> values, final int offset);
 
-		});
 	}
 
 }
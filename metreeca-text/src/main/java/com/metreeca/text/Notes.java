@@ -67,6 +67,7 @@ public final class Notes {
 	public static final IRI offset=iri(Name, "offset");
 	public static final IRI length=iri(Name, "length");
 	public static final IRI weight=iri(Name, "weight");
+	public static final IRI changed=iri(Name, "changed");
 
 
 	public static Frame reference(
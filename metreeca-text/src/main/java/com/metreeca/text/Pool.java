@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tool instance pool {thread-safe}.
+ *
+ * <p>Lends non thread-safe tool instances to concurrent tasks, creating new instances on demand and retaining at
+ * most a fixed number of idle instances for reuse; lending is lock-free and doesn't depend on thread identity, so it
+ * is safe for both platform and virtual threads.</p>
+ *
+ * @param <T> the type of the pooled tool instances
+ */
+public final class Pool<T> {
+
+	private static final int Limit=2*Runtime.getRuntime().availableProcessors();
+
+
+	private final Supplier<T> factory;
+	private final int limit;
+
+	private final Queue<T> idle=new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size=new AtomicInteger();
+
+
+	public Pool(final Supplier<T> factory) {
+		this(factory, Limit);
+	}
+
+	public Pool(final Supplier<T> factory, final int limit) {
+
+		if ( factory == null ) {
+			throw new NullPointerException("null factory");
+		}
+
+		if ( limit < 0 ) {
+			throw new IllegalArgumentException("negative limit");
+		}
+
+		this.factory=factory;
+		this.limit=limit;
+	}
+
+
+	/**
+	 * Executes a task on a pooled tool instance.
+	 *
+	 * <p>The instance is returned to the pool only if {@code task} completes normally.</p>
+	 *
+	 * @param task the task to be executed; takes as argument a tool instance reserved for the exclusive use of the
+	 *             task for the duration of the call
+	 * @param <R>  the type of the value returned by {@code task}
+	 *
+	 * @return the value returned by {@code task}
+	 *
+	 * @throws NullPointerException if {@code task} is null
+	 */
+	public <R> R apply(final Function<? super T, R> task) {
+
+		if ( task == null ) {
+			throw new NullPointerException("null task");
+		}
+
+		T instance=idle.poll();
+
+		if ( instance == null ) {
+			instance=factory.get();
+		} else {
+			size.decrementAndGet();
+		}
+
+		final R value=task.apply(instance);
+
+		if ( size.incrementAndGet() <= limit ) {
+			idle.offer(instance);
+		} else {
+			size.decrementAndGet();
+		}
+
+		return value;
+	}
+
+}
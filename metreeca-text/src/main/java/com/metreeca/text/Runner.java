@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import com.metreeca.rest.Xtream;
+import com.metreeca.rest.services.Logger;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.services.Logger.logger;
+
+import static java.lang.String.format;
+
+/**
+ * Parallel document annotation runner.
+ *
+ * <p>Annotates streams of documents on a dedicated work-stealing pool, feeding each document to a pipeline instance
+ * confined to the worker thread processing it; the {@linkplain com.metreeca.rest.Toolbox toolbox} active on the
+ * consuming thread is propagated to workers. Throughput is periodically reported to the shared {@link Logger} and
+ * summarized when the annotated stream is exhausted or closed.</p>
+ *
+ * @param <R> the type of the annotation results
+ */
+public final class Runner<R> implements Function<Stream<Token>, Xtream<R>> {
+
+	private static final long Period=10_000; // progress reporting period [ms]
+
+
+	private final Supplier<? extends Function<Token, R>> pipeline;
+
+	private int parallelism=Runtime.getRuntime().availableProcessors();
+	private boolean ordered=true;
+
+	private final Logger logger=service(logger());
+
+
+	/**
+	 * Creates a document annotation runner.
+	 *
+	 * @param pipeline a factory for annotation pipelines; invoked at most once for each worker thread, so that
+	 *                 pipelines may hold non thread-safe tool instances
+	 *
+	 * @throws NullPointerException if {@code pipeline} is {@code null}
+	 */
+	public Runner(final Supplier<? extends Function<Token, R>> pipeline) {
+
+		if ( pipeline == null ) {
+			throw new NullPointerException("null pipeline");
+		}
+
+		this.pipeline=pipeline;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Configures parallelism.
+	 *
+	 * @param parallelism the number of worker threads; defaults to the number of available processors
+	 *
+	 * @return this runner
+	 *
+	 * @throws IllegalArgumentException if {@code parallelism} is less than 1
+	 */
+	public Runner<R> parallelism(final int parallelism) {
+
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException("non-positive parallelism");
+		}
+
+		this.parallelism=parallelism;
+
+		return this;
+	}
+
+	/**
+	 * Configures result ordering.
+	 *
+	 * @param ordered if {@code true}, results are generated in the order of the input documents; if {@code false},
+	 *                results are generated as soon as they are available; defaults to {@code true}
+	 *
+	 * @return this runner
+	 */
+	public Runner<R> ordered(final boolean ordered) {
+
+		this.ordered=ordered;
+
+		return this;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Override public Xtream<R> apply(final Stream<Token> documents) {
+
+		if ( documents == null ) {
+			throw new NullPointerException("null documents");
+		}
+
+		final ForkJoinPool pool=new ForkJoinPool(parallelism);
+		final ThreadLocal<Function<Token, R>> pipelines=ThreadLocal.withInitial(pipeline);
+
+		final Meter meter=new Meter();
+
+		final Xtream<R> results=Xtream.from(documents).async(pool, parallelism, 2*parallelism, ordered, document -> {
+
+			final R result=pipelines.get().apply(document);
+
+			meter.record(document);
+
+			return result;
+
+		});
+
+		final Spliterator<R> spliterator=results.spliterator();
+
+		return Xtream.from(StreamSupport.stream(new Spliterators.AbstractSpliterator<R>(
+				Long.MAX_VALUE, spliterator.characteristics()&Spliterator.ORDERED
+		) {
+
+			@Override public boolean tryAdvance(final Consumer<? super R> action) {
+
+				if ( spliterator.tryAdvance(action) ) {
+
+					meter.progress();
+
+					return true;
+
+				} else {
+
+					pool.shutdown();
+					meter.summary();
+
+					return false;
+
+				}
+
+			}
+
+		}, false)
+
+				.onClose(results::close)
+				.onClose(pool::shutdownNow)
+				.onClose(meter::summary)
+
+		);
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private final class Meter {
+
+		private final long start=System.currentTimeMillis();
+
+		private final LongAdder docs=new LongAdder();
+		private final LongAdder chars=new LongAdder();
+
+		private long last=start; // last progress report [consuming thread only]
+		private boolean done;
+
+
+		private void record(final Token document) {
+			docs.increment();
+			chars.add(document.text().length());
+		}
+
+
+		private void progress() {
+
+			final long now=System.currentTimeMillis();
+
+			if ( now-last >= Period ) {
+
+				last=now;
+
+				logger.info(Runner.this, () -> report("annotated", now));
+			}
+		}
+
+		private void summary() {
+			if ( !done ) {
+
+				done=true;
+
+				logger.info(Runner.this, () -> report("completed", System.currentTimeMillis()));
+
+			}
+		}
+
+
+		private String report(final String status, final long now) {
+
+			final long elapsed=Math.max(now-start, 1);
+
+			final long docs=this.docs.sum();
+			final long chars=this.chars.sum();
+
+			return format("%s <%,d> docs / <%,d> chars in <%,d> ms (<%,.1f> docs/s, <%,.1f> chars/s)",
+					status, docs, chars, elapsed, docs*1000.0/elapsed, chars*1000.0/elapsed
+			);
+		}
+
+	}
+
+}
@@ -19,8 +19,11 @@ package com.metreeca.text;
 import com.metreeca.rest.actions.Clean;
 
 import java.io.*;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -28,15 +31,25 @@ import static com.metreeca.rest.actions.Clean.normalize;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
-import static java.util.Collections.synchronizedMap;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toList;
 
 @SuppressWarnings("FieldNotUsedInToString")
 public final class Token implements Range {
 
-	private static final Map<String, Predicate<Token>> corpora=synchronizedMap(new HashMap<>());
+	private static final Map<String, Corpus> corpora=new ConcurrentHashMap<>();
 
 
+	/**
+	 * Retrieves a shared corpus.
+	 *
+	 * @param corpus the URL of a corpus resource, either a {@linkplain Corpus#store(OutputStream) stored} corpus or a
+	 *               plain text list of entries, one per line, ignoring empty lines and {@code #} comments; stored
+	 *               corpora on the local file system are memory-mapped
+	 *
+	 * @return a predicate testing if a token is included in {@code corpus}
+	 *
+	 * @throws NullPointerException if {@code corpus} is null
+	 */
 	public static Predicate<Token> corpus(final URL corpus) {
 
 		if ( corpus == null ) {
@@ -44,18 +57,38 @@ public final class Token implements Range {
 		}
 
 		return corpora.computeIfAbsent(corpus.toExternalForm(), url -> {
-			try ( final BufferedReader reader=new BufferedReader(new InputStreamReader(corpus.openStream(), UTF_8)) ) {
+			try ( final InputStream input=new BufferedInputStream(corpus.openStream()) ) {
 
-				return corpus(reader.lines()
+				input.mark(Integer.BYTES);
 
-						.filter(line -> !line.isEmpty())
-						.filter(line -> !line.startsWith("#"))
+				final byte[] head=input.readNBytes(Integer.BYTES);
 
-						.collect(toSet())
-				);
+				input.reset();
+
+				if ( !Corpus.stored(head) ) {
+
+					return Corpus.corpus(new BufferedReader(new InputStreamReader(input, UTF_8)).lines()
+
+							.filter(line -> !line.isEmpty())
+							.filter(line -> !line.startsWith("#"))
+
+							.collect(toList())
+					);
+
+				} else if ( corpus.getProtocol().equals("file") ) {
+
+					return Corpus.load(Paths.get(corpus.toURI()));
+
+				} else {
+
+					return Corpus.read(input);
+
+				}
 
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
+			} catch ( final URISyntaxException e ) {
+				throw new IllegalArgumentException(e);
 			}
 		});
 	}
@@ -75,14 +108,7 @@ public final class Token implements Range {
 			throw new NullPointerException("null entries");
 		}
 
-		final Collection<String> set=entries.stream()
-
-				.map(Clean::normalize)
-				.map(Clean::lower)
-
-				.collect(toSet());
-
-		return token -> set.contains(Clean.lower(normalize(token.text(false))));
+		return Corpus.corpus(entries);
 	}
 
 
@@ -98,6 +124,8 @@ public final class Token implements Range {
 	private final int lower;
 	private final int upper;
 
+	private volatile byte[] key; // cached corpus key (volatile to safely publish the array contents)
+
 
 	public Token(final String text) {
 
@@ -226,6 +254,22 @@ public final class Token implements Range {
 	}
 
 
+	/**
+	 * @return the UTF-8 encoding of the normalized and lowercased {@linkplain #text(boolean) root text} of this token,
+	 * as matched against corpus entries
+	 */
+	byte[] key() {
+
+		byte[] cached=key;
+
+		if ( cached == null ) { // concurrent callers may compute equal keys: the last write wins
+			key=cached=Clean.lower(normalize(text(false))).getBytes(UTF_8);
+		}
+
+		return cached;
+	}
+
+
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	public <R> R map(final Function<Token, R> mapper) {
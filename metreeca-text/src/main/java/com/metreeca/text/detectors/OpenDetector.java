@@ -16,6 +16,7 @@
 
 package com.metreeca.text.detectors;
 
+import com.metreeca.text.Pool;
 import com.metreeca.text.Token;
 
 import opennlp.tools.langdetect.LanguageDetectorME;
@@ -26,19 +27,20 @@ import java.net.URL;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
-import static java.util.Collections.synchronizedMap;
+import static java.util.stream.Collectors.toList;
 
 
 public final class OpenDetector implements Function<Token, Optional<Entry<String, Double>>> {
 
-	private static final Map<String, LanguageDetectorModel> models=synchronizedMap(new HashMap<>());
+	private static final Map<String, Pool<LanguageDetectorME>> pools=new ConcurrentHashMap<>();
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final LanguageDetectorModel model;
+	private final Pool<LanguageDetectorME> detectors;
 
 
 	public OpenDetector(final URL model) {
@@ -47,9 +49,13 @@ public final class OpenDetector implements Function<Token, Optional<Entry<String
 			throw new NullPointerException("null model URL");
 		}
 
-		this.model=models.computeIfAbsent(model.toExternalForm(), url -> {
+		this.detectors=pools.computeIfAbsent(model.toExternalForm(), url -> {
 			try ( final InputStream input=model.openStream() ) {
-				return new LanguageDetectorModel(input);
+
+				final LanguageDetectorModel languages=new LanguageDetectorModel(input);
+
+				return new Pool<>(() -> new LanguageDetectorME(languages));
+
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
 			}
@@ -65,7 +71,24 @@ public final class OpenDetector implements Function<Token, Optional<Entry<String
 			throw new NullPointerException("null token");
 		}
 
-		return Optional.ofNullable(new LanguageDetectorME(model).predictLanguage(token.text()))
+		return detectors.apply(detector -> detect(detector, token));
+	}
+
+	public List<Optional<Entry<String, Double>>> apply(final List<Token> tokens) {
+
+		if ( tokens == null || tokens.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null tokens");
+		}
+
+		return detectors.apply(detector -> tokens.stream()
+				.map(token -> detect(detector, token))
+				.collect(toList())
+		);
+	}
+
+
+	private Optional<Entry<String, Double>> detect(final LanguageDetectorME detector, final Token token) {
+		return Optional.ofNullable(detector.predictLanguage(token.text()))
 				.map(language -> new SimpleImmutableEntry<>(language.getLang(), language.getConfidence()));
 	}
 
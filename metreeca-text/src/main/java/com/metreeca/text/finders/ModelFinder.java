@@ -18,7 +18,6 @@ package com.metreeca.text.finders;
 
 import com.metreeca.text.*;
 
-import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -88,20 +87,7 @@ public final class ModelFinder implements Function<Chunk, Stream<Chunk>> {
 			throw new NullPointerException("null chunk");
 		}
 
-		final List<Token> tokens=chunk.tokens();
-		final Collection<Chunk> matches=new ArrayList<>();
-
-		for (int l, i=0, n=tokens.size(); i < n; i+=(l > 0) ? l : 1) {
-
-			l=model.find(tokens.subList(i, n));
-
-			if ( l > 0 ) {
-				matches.add(new Chunk(tokens.subList(i, i+l)).type(type));
-			}
-
-		}
-
-		return matches.stream();
+		return model.scan(chunk.tokens()).stream().map(tokens -> new Chunk(tokens).type(type));
 	}
 
 }
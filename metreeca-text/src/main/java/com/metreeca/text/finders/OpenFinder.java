@@ -17,6 +17,7 @@
 package com.metreeca.text.finders;
 
 import com.metreeca.text.Chunk;
+import com.metreeca.text.Pool;
 import com.metreeca.text.Token;
 
 import opennlp.tools.namefind.NameFinderME;
@@ -25,20 +26,21 @@ import opennlp.tools.namefind.TokenNameFinderModel;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static java.util.Collections.synchronizedMap;
+import static java.util.stream.Collectors.toList;
 
 
 public final class OpenFinder implements Function<Chunk, Stream<Chunk>> {
 
-	private static final Map<String, TokenNameFinderModel> models=synchronizedMap(new HashMap<>());
+	private static final Map<String, Pool<NameFinderME>> pools=new ConcurrentHashMap<>();
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final TokenNameFinderModel model;
+	private final Pool<NameFinderME> finders;
 
 
 	public OpenFinder(final URL model) {
@@ -47,9 +49,13 @@ public final class OpenFinder implements Function<Chunk, Stream<Chunk>> {
 			throw new NullPointerException("null model URL");
 		}
 
-		this.model=models.computeIfAbsent(model.toExternalForm(), url -> {
+		this.finders=pools.computeIfAbsent(model.toExternalForm(), url -> {
 			try ( final InputStream input=model.openStream() ) {
-				return new TokenNameFinderModel(input);
+
+				final TokenNameFinderModel names=new TokenNameFinderModel(input);
+
+				return new Pool<>(() -> new NameFinderME(names));
+
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
 			}
@@ -65,19 +71,44 @@ public final class OpenFinder implements Function<Chunk, Stream<Chunk>> {
 			throw new NullPointerException("null chunk");
 		}
 
+		return finders.apply(finder -> find(finder, chunk)).stream();
+	}
+
+	public List<List<Chunk>> apply(final List<Chunk> chunks) {
+
+		if ( chunks == null || chunks.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null chunks");
+		}
+
+		return finders.apply(finder -> chunks.stream()
+				.map(chunk -> find(finder, chunk))
+				.collect(toList())
+		);
+	}
+
+
+	private List<Chunk> find(final NameFinderME finder, final Chunk chunk) {
+
 		final List<Token> tokens=chunk.tokens();
 
-		return Arrays
+		try {
+
+			return Arrays
 
-				.stream(new NameFinderME(model)
-						.find(tokens.stream().map(Token::text).toArray(String[]::new)) // !!! verbatim?
-				)
+					.stream(finder.find(tokens.stream().map(Token::text).toArray(String[]::new))) // !!! verbatim?
 
-				.map(span -> new Chunk(tokens.subList(span.getStart(), span.getEnd()))
-						.type(span.getType().toUpperCase(Locale.ROOT))
-						.weight(span.getProb())
-				);
+					.map(span -> new Chunk(tokens.subList(span.getStart(), span.getEnd()))
+							.type(span.getType().toUpperCase(Locale.ROOT))
+							.weight(span.getProb())
+					)
 
+					.collect(toList());
+
+		} finally {
+
+			finder.clearAdaptiveData(); // each chunk is handled as an independent document
+
+		}
 	}
 
 }
@@ -17,6 +17,7 @@
 package com.metreeca.text.lemmatizers;
 
 import com.metreeca.text.Chunk;
+import com.metreeca.text.Pool;
 import com.metreeca.text.Token;
 
 import opennlp.tools.lemmatizer.LemmatizerME;
@@ -24,11 +25,13 @@ import opennlp.tools.lemmatizer.LemmatizerModel;
 
 import java.io.*;
 import java.net.URL;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 
-import static java.util.Collections.synchronizedMap;
 import static java.util.stream.Collectors.toList;
 
 
@@ -37,12 +40,12 @@ public final class OpenLemmatizer implements UnaryOperator<Chunk> {
 	/*
 	 * see https://stackoverflow.com/a/57911951/739773 for training
 	 */
-	private static final Map<String, LemmatizerModel> models=synchronizedMap(new HashMap<>());
+	private static final Map<String, Pool<LemmatizerME>> pools=new ConcurrentHashMap<>();
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final LemmatizerModel model;
+	private final Pool<LemmatizerME> lemmatizers;
 
 
 	public OpenLemmatizer(final URL model) {
@@ -51,9 +54,13 @@ public final class OpenLemmatizer implements UnaryOperator<Chunk> {
 			throw new NullPointerException("null model");
 		}
 
-		this.model=models.computeIfAbsent(model.toExternalForm(), url -> {
+		this.lemmatizers=pools.computeIfAbsent(model.toExternalForm(), url -> {
 			try ( final InputStream input=model.openStream() ) {
-				return new LemmatizerModel(input);
+
+				final LemmatizerModel lemmas=new LemmatizerModel(input);
+
+				return new Pool<>(() -> new LemmatizerME(lemmas));
+
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
 			}
@@ -69,9 +76,27 @@ public final class OpenLemmatizer implements UnaryOperator<Chunk> {
 			throw new NullPointerException("null chunk");
 		}
 
+		return lemmatizers.apply(lemmatizer -> lemmatize(lemmatizer, chunk));
+	}
+
+	public List<Chunk> apply(final List<Chunk> chunks) {
+
+		if ( chunks == null || chunks.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null chunks");
+		}
+
+		return lemmatizers.apply(lemmatizer -> chunks.stream()
+				.map(chunk -> lemmatize(lemmatizer, chunk))
+				.collect(toList())
+		);
+	}
+
+
+	private Chunk lemmatize(final LemmatizerME lemmatizer, final Chunk chunk) {
+
 		final List<Token> tokens=chunk.tokens();
 
-		final String[] lemmas=new LemmatizerME(model).lemmatize(
+		final String[] lemmas=lemmatizer.lemmatize(
 				tokens.stream().map(Token::text).toArray(String[]::new),
 				tokens.stream().map(Token::type).toArray(String[]::new)
 		);
@@ -31,7 +31,7 @@ import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static com.metreeca.json.Frame.frame;
@@ -150,9 +150,10 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 						.map(finder)
 						.collect(toList());
 
-				final List<Token> tokens=chunk.tokens().stream()
+				final Alignment alignment=new Alignment(chunk.tokens().stream()
 						.map(token -> token.root(reader.andThen(normalizer).apply(token)))
-						.collect(toList());
+						.collect(toList())
+				);
 
 				return Xtream
 
@@ -168,7 +169,7 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 						.distinct()
 
 						.flatMap(match -> // look for complete anchors
-								anchor(match.source(), tokens).map(match::source)
+								alignment.anchors(match.source()).map(match::source)
 						)
 
 						// make sure the complete anchor includes at least one of the original partial anchors
@@ -181,9 +182,7 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 								.reversed()
 						)
 
-						.prune((x, y) -> // remove partially overlapping anchors
-								!x.source().matches(y.source()) && x.source().intersects(y.source())
-						)
+						.filter(disjoint(true)) // remove partially overlapping anchors
 
 						.batch(toList())
 
@@ -194,9 +193,7 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 								.reversed()
 						)
 
-						.prune((x, y) -> // retain only the weightiest match for each anchor
-								x.source().intersects(y.source())
-						)
+						.filter(disjoint(false)) // retain only the weightiest match for each anchor
 
 						// retain only minimal identifying infos
 
@@ -216,31 +213,42 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private Stream<Chunk> anchor(final CharSequence label, final List<Token> tokens) {
-		return IntStream.range(0, tokens.size())
+	/**
+	 * Creates an overlap filter.
+	 *
+	 * <p>Accepted anchors are pairwise disjoint (or identical, if {@code identical} is {@code true}), so that they may
+	 * be indexed by lower bound and the only candidate for a clash is the accepted anchor with the greatest lower
+	 * bound less than the upper bound of the tested anchor.</p>
+	 *
+	 * @param identical if {@code true}, anchors matching previously accepted anchors are accepted as well
+	 *
+	 * @return a stateful predicate accepting anchors not intersecting previously accepted anchors
+	 */
+	private static Predicate<Match<Chunk, Frame>> disjoint(final boolean identical) {
 
-				.mapToObj(i -> {
+		final NavigableMap<Integer, Chunk> accepted=new TreeMap<>();
 
-					final StringBuilder anchor=new StringBuilder(label.length());
+		return match -> {
 
-					int j=i;
+			final Chunk anchor=match.source();
 
-					while ( j < tokens.size() && anchor.length() < label.length() ) {
+			synchronized ( accepted ) {
 
-						if ( j > i && !tokens.get(j-1).borders(tokens.get(j)) ) {
-							anchor.append(' ');
-						}
+				final Map.Entry<Integer, Chunk> floor=accepted.lowerEntry(anchor.upper());
 
-						anchor.append(tokens.get(j++).root()); // use the extracted/normalized text
-					}
+				final boolean clash=floor != null
+						&& floor.getValue().intersects(anchor)
+						&& !(identical && floor.getValue().matches(anchor));
 
-					return i < j && anchor.toString().contentEquals(label) ? tokens.subList(i, j) : null;
+				if ( !clash && anchor.length() > 0 ) {
+					accepted.putIfAbsent(anchor.lower(), anchor);
+				}
 
-				})
+				return !clash;
 
-				.filter(Objects::nonNull)
+			}
 
-				.map(Chunk::new);
+		};
 	}
 
 	private Collection<Match<Chunk, Frame>> weight(final Collection<Match<Chunk, Frame>> matches) {
@@ -318,4 +326,83 @@ public final class GraphLinker implements Function<Chunk, Stream<Match<Chunk, Fr
 
 	}
 
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Token alignment index.
+	 *
+	 * <p>Joins normalized token roots into a single string, separating non-bordering tokens with a space, and maps
+	 * character offsets in the joined string back to token boundaries, so that label occurrences may be located with
+	 * plain substring searches and aligned to whole tokens in constant time.</p>
+	 */
+	private static final class Alignment {
+
+		private final List<Token> tokens;
+
+		private final String text;
+
+		private final int[] heads; // offset > index+1 of the first token starting at offset, or 0
+		private final int[] tails; // offset > index+1 of the first token ending at offset, or 0
+
+
+		private Alignment(final List<Token> tokens) {
+
+			final StringBuilder builder=new StringBuilder(8*tokens.size());
+
+			final int[] starts=new int[tokens.size()];
+			final int[] ends=new int[tokens.size()];
+
+			for (int i=0, n=tokens.size(); i < n; ++i) {
+
+				if ( i > 0 && !tokens.get(i-1).borders(tokens.get(i)) ) {
+					builder.append(' ');
+				}
+
+				starts[i]=builder.length();
+				builder.append(tokens.get(i).root()); // use the extracted/normalized text
+				ends[i]=builder.length();
+
+			}
+
+			this.tokens=tokens;
+			this.text=builder.toString();
+
+			this.heads=new int[text.length()+1];
+			this.tails=new int[text.length()+1];
+
+			for (int i=0, n=tokens.size(); i < n; ++i) {
+
+				if ( heads[starts[i]] == 0 ) { heads[starts[i]]=i+1; }
+				if ( tails[ends[i]] == 0 ) { tails[ends[i]]=i+1; }
+
+			}
+		}
+
+
+		private Stream<Chunk> anchors(final String label) {
+
+			if ( label.isEmpty() ) { return Stream.empty(); } else {
+
+				final Collection<Chunk> anchors=new ArrayList<>();
+
+				for (int lower=text.indexOf(label); lower >= 0; lower=text.indexOf(label, lower+1)) {
+
+					final int head=heads[lower];
+					final int tail=tails[lower+label.length()];
+
+					if ( head > 0 && tail >= head ) {
+						anchors.add(new Chunk(tokens.subList(head-1, tail)));
+					}
+
+				}
+
+				return anchors.stream();
+
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import com.metreeca.json.Frame;
+import com.metreeca.rest.Xtream;
+import com.metreeca.rest.actions.Clean;
+import com.metreeca.text.Match;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.indexOfSubList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Caching matcher.
+ *
+ * <p>Decorates a matcher with a bounded least-recently-used cache mapping anchors to candidate matches, so that
+ * anchors recurring across documents are resolved without further round trips to the decorated matcher; anchors
+ * without candidates are cached as well. Cache misses are resolved in a single call to the decorated matcher and
+ * returned matches are attributed to the anchors whose word sequence includes or is included in the word sequence of
+ * their normalized label, so that candidates retrieved both by anchor tokens (e.g. by {@link SPARQLMatcher}) and by
+ * anchor content (e.g. by {@link GazetteerMatcher}) are retained; matches not attributable to any anchor are
+ * discarded.</p>
+ *
+ * <p>The cache is cleared after each {@linkplain SPARQLMatcher.Indexer graph indexer} run or on {@link #clear()}
+ * request.</p>
+ */
+public final class CachingMatcher implements Function<Stream<String>, Stream<Match<String, Frame>>> {
+
+	private static final Pattern BreakPattern=Pattern.compile("[^\\p{L}\\p{N}]+");
+
+
+	private final Function<Stream<String>, Stream<Match<String, Frame>>> matcher;
+
+	private Function<String, String> normalizer=new Clean().space(true).marks(true).smart(true);
+
+	private final Cache cache=new Cache();
+
+	private final LongAdder hits=new LongAdder();
+	private final LongAdder misses=new LongAdder();
+
+
+	/**
+	 * Creates a caching matcher.
+	 *
+	 * @param matcher the matcher to be decorated
+	 *
+	 * @throws NullPointerException if {@code matcher} is {@code null}
+	 */
+	public CachingMatcher(final Function<Stream<String>, Stream<Match<String, Frame>>> matcher) {
+
+		if ( matcher == null ) {
+			throw new NullPointerException("null matcher");
+		}
+
+		this.matcher=matcher;
+	}
+
+
+	/**
+	 * Configures cache size.
+	 *
+	 * @param size the maximum number of cached anchors; defaults to 100,000
+	 *
+	 * @return this matcher
+	 *
+	 * @throws IllegalArgumentException if {@code size} is less than 1
+	 */
+	public CachingMatcher size(final int size) {
+
+		if ( size < 1 ) {
+			throw new IllegalArgumentException("non-positive size");
+		}
+
+		synchronized ( cache ) {
+			cache.limit=size;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Configures label normalization.
+	 *
+	 * @param normalizer a text normalization function applied to candidate labels before attribution; should be
+	 *                   aligned with the normalizer of the linker using this matcher
+	 *
+	 * @return this matcher
+	 *
+	 * @throws NullPointerException if {@code normalizer} is {@code null}
+	 */
+	public CachingMatcher normalizer(final Function<String, String> normalizer) {
+
+		if ( normalizer == null ) {
+			throw new NullPointerException("null normalizer");
+		}
+
+		this.normalizer=normalizer;
+
+		return clear();
+	}
+
+
+	/**
+	 * Clears the cache.
+	 *
+	 * @return this matcher
+	 */
+	public CachingMatcher clear() {
+
+		synchronized ( cache ) {
+			cache.clear();
+		}
+
+		return this;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the ratio of cache hits to anchor lookups, or {@code 0} if no lookup was performed
+	 */
+	public double ratio() {
+
+		final long hits=this.hits.sum();
+		final long lookups=hits+misses.sum();
+
+		return lookups == 0 ? 0 : (double)hits/lookups;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Override public Stream<Match<String, Frame>> apply(final Stream<String> anchors) {
+
+		final List<String> distinct=anchors.distinct().collect(toList());
+
+		final Collection<Match<String, Frame>> matches=new LinkedHashSet<>();
+		final Collection<String> missing=new ArrayList<>();
+
+		final long revision=SPARQLMatcher.Indexer.revision();
+
+		synchronized ( cache ) {
+
+			if ( cache.revision != revision ) {
+				cache.clear();
+				cache.revision=revision;
+			}
+
+			for (final String anchor : distinct) {
+
+				final List<Match<String, Frame>> cached=cache.get(anchor);
+
+				if ( cached != null ) { matches.addAll(cached); } else { missing.add(anchor); }
+
+			}
+
+		}
+
+		hits.add(distinct.size()-missing.size());
+		misses.add(missing.size());
+
+		if ( !missing.isEmpty() ) {
+
+			final Map<String, List<Match<String, Frame>>> resolved=new LinkedHashMap<>();
+
+			final Map<String, List<String>> phrases=new HashMap<>(); // anchor > words
+			final Map<String, Collection<String>> index=new HashMap<>(); // word > anchors
+
+			missing.forEach(anchor -> {
+
+				final List<String> phrase=words(anchor);
+
+				resolved.put(anchor, new ArrayList<>());
+				phrases.put(anchor, phrase);
+
+				phrase.forEach(word -> index.computeIfAbsent(word, key -> new LinkedHashSet<>()).add(anchor));
+
+			});
+
+			Xtream.from(matcher.apply(missing.stream())).distinct().forEach(match -> {
+
+				final List<String> label=words(match.source());
+
+				label.stream()
+
+						.flatMap(word -> index.getOrDefault(word, emptySet()).stream()) // anchors sharing a word
+						.distinct()
+
+						.filter(anchor -> {
+
+							final List<String> phrase=phrases.get(anchor);
+
+							return indexOfSubList(label, phrase) >= 0 || indexOfSubList(phrase, label) >= 0;
+
+						})
+
+						.forEach(anchor -> resolved.get(anchor).add(match));
+
+			});
+
+			resolved.values().forEach(matches::addAll);
+
+			synchronized ( cache ) {
+				if ( cache.revision == revision ) { cache.putAll(resolved); } // ignore results from stale indexes
+			}
+
+		}
+
+		return matches.stream();
+	}
+
+
+	private List<String> words(final String text) {
+		return BreakPattern.splitAsStream(normalizer.apply(text).toLowerCase(Locale.ROOT))
+				.filter(word -> !word.isEmpty())
+				.collect(toList());
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private static final class Cache extends LinkedHashMap<String, List<Match<String, Frame>>> {
+
+		private static final long serialVersionUID=4003536932457419838L;
+
+		private static final int Size=100_000;
+
+
+		private int limit=Size;
+		private long revision=SPARQLMatcher.Indexer.revision();
+
+
+		private Cache() {
+			super(16, 0.75f, true); // access order
+		}
+
+
+		@Override protected boolean removeEldestEntry(final Map.Entry<String, List<Match<String, Frame>>> eldest) {
+			return size() > limit;
+		}
+
+	}
+
+}
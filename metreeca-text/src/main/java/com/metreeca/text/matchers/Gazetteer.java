@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Aho–Corasick gazetteer.
+ *
+ * <p>Compiles a dictionary of keys into a case-insensitive automaton, locating all occurrences of keys aligned to
+ * word boundaries in a single linear pass over a text. Transitions are frozen into sorted parallel arrays, in order to
+ * keep the memory footprint of large dictionaries compact.</p>
+ *
+ * @param <V> the type of the values associated to keys
+ */
+final class Gazetteer<V> {
+
+	private final int[] offsets; // state > first transition (offsets[state+1] > last transition, exclusive)
+	private final char[] symbols; // transition > symbol (sorted for each state)
+	private final int[] targets; // transition > target state
+
+	private final int[] fail; // state > longest proper suffix state
+	private final int[] link; // state > longest proper suffix state with values, or root
+	private final int[] depth; // state > length of the accepted prefix
+
+	private final Object[] values; // state > list of values for keys accepted by the state, or null
+
+
+	Gazetteer(final Map<String, ? extends Collection<V>> entries) {
+
+		final List<TreeMap<Character, Integer>> trie=new ArrayList<>();
+		final List<List<V>> accepted=new ArrayList<>();
+
+		trie.add(new TreeMap<>());
+		accepted.add(null);
+
+		entries.forEach((key, values) -> {
+
+			if ( !key.isEmpty() ) {
+
+				int state=0;
+
+				for (int i=0, n=key.length(); i < n; ++i) {
+
+					final Map<Character, Integer> transitions=trie.get(state);
+					final Character symbol=fold(key.charAt(i));
+
+					final Integer next=transitions.get(symbol);
+
+					if ( next != null ) { state=next; } else {
+
+						transitions.put(symbol, state=trie.size());
+
+						trie.add(new TreeMap<>());
+						accepted.add(null);
+
+					}
+
+				}
+
+				if ( accepted.get(state) == null ) { accepted.set(state, new ArrayList<>()); }
+
+				accepted.get(state).addAll(values);
+
+			}
+
+		});
+
+		final int size=trie.size();
+		final int edges=size-1; // every state but the root has exactly one incoming edge
+
+		this.offsets=new int[size+1];
+		this.symbols=new char[edges];
+		this.targets=new int[edges];
+
+		this.fail=new int[size];
+		this.link=new int[size];
+		this.depth=new int[size];
+
+		this.values=accepted.toArray();
+
+		for (int state=0, edge=0; state < size; ++state) {
+
+			offsets[state]=edge;
+
+			for (final Map.Entry<Character, Integer> transition : trie.get(state).entrySet()) {
+				symbols[edge]=transition.getKey();
+				targets[edge++]=transition.getValue();
+			}
+
+			offsets[state+1]=edge;
+		}
+
+		// compute failure and output links in breadth-first order
+
+		final Deque<Integer> queue=new ArrayDeque<>();
+
+		for (int edge=offsets[0]; edge < offsets[1]; ++edge) {
+
+			final int child=targets[edge];
+
+			depth[child]=1;
+			queue.add(child);
+
+		}
+
+		while ( !queue.isEmpty() ) {
+
+			final int state=queue.remove();
+
+			for (int edge=offsets[state]; edge < offsets[state+1]; ++edge) {
+
+				final char symbol=symbols[edge];
+				final int child=targets[edge];
+
+				int suffix=fail[state];
+
+				while ( suffix != 0 && next(suffix, symbol) < 0 ) { suffix=fail[suffix]; }
+
+				final int target=next(suffix, symbol);
+
+				fail[child]=target < 0 ? 0 : target;
+				link[child]=values[fail[child]] != null ? fail[child] : link[fail[child]];
+				depth[child]=depth[state]+1;
+
+				queue.add(child);
+
+			}
+
+		}
+
+	}
+
+
+	int size() {
+		return offsets.length-1;
+	}
+
+
+	/**
+	 * Scans a text.
+	 *
+	 * @param text   the text to be scanned
+	 * @param action the action to be performed on the values associated to each key occurring in {@code text} as a
+	 *               sequence of whole words; invoked in order of occurrence end offset
+	 */
+	@SuppressWarnings("unchecked") void scan(final CharSequence text, final Consumer<? super V> action) {
+
+		int state=0;
+
+		for (int i=0, n=text.length(); i < n; ++i) {
+
+			final char symbol=fold(text.charAt(i));
+
+			int next;
+
+			while ( (next=next(state, symbol)) < 0 && state != 0 ) { state=fail[state]; }
+
+			state=next < 0 ? 0 : next;
+
+			if ( i+1 == n || !word(text.charAt(i+1)) ) { // trailing word boundary
+
+				for (int output=values[state] != null ? state : link[state]; output != 0; output=link[output]) {
+
+					final int start=i+1-depth[output];
+
+					if ( start == 0 || !word(text.charAt(start-1)) ) { // leading word boundary
+						((Iterable<V>)values[output]).forEach(action);
+					}
+
+				}
+
+			}
+
+		}
+
+	}
+
+
+	private int next(final int state, final char symbol) {
+
+		int lo=offsets[state];
+		int hi=offsets[state+1]-1;
+
+		while ( lo <= hi ) {
+
+			final int mid=(lo+hi) >>> 1;
+			final char probe=symbols[mid];
+
+			if ( probe < symbol ) { lo=mid+1; } else if ( probe > symbol ) { hi=mid-1; } else { return targets[mid]; }
+
+		}
+
+		return -1;
+	}
+
+
+	private static char fold(final char c) {
+		return Character.toLowerCase(c);
+	}
+
+	private static boolean word(final char c) {
+		return Character.isLetterOrDigit(c);
+	}
+
+}
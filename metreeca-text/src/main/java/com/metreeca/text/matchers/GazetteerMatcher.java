@@ -0,0 +1,337 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import com.metreeca.json.Frame;
+import com.metreeca.json.Values;
+import com.metreeca.rdf4j.actions.GraphQuery;
+import com.metreeca.rdf4j.services.Graph;
+import com.metreeca.rest.Xtream;
+import com.metreeca.rest.actions.Clean;
+import com.metreeca.rest.actions.Fill;
+import com.metreeca.rest.services.Logger;
+import com.metreeca.text.*;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.eclipse.rdf4j.model.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.metreeca.json.Frame.frame;
+import static com.metreeca.rdf4j.services.Graph.graph;
+import static com.metreeca.rest.Toolbox.service;
+import static com.metreeca.rest.services.Logger.logger;
+import static com.metreeca.rest.services.Logger.time;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-memory gazetteer matcher.
+ *
+ * <p>Compiles the label tokens of the entities in the shared {@linkplain Graph graph} into an Aho–Corasick automaton
+ * on first use, analyzing labels as the {@linkplain SPARQLMatcher.Indexer graph indexer} does for entity anchors:
+ * anchors are matched without further store round trips to the labels including any of the tokens they contain as
+ * whole words, so that the anchor {@code "york"} retrieves the {@code "New York"} label. The automaton is rebuilt on
+ * the next match after a {@linkplain SPARQLMatcher.Indexer graph indexer} run or a {@link #refresh()} request;
+ * concurrent matches keep using the previous automaton until the rebuilt one is available.</p>
+ */
+public final class GazetteerMatcher implements Function<Stream<String>, Stream<Match<String, Frame>>> {
+
+	private Collection<IRI> labels=Notes.Labels;
+	private Set<String> languages=Notes.Languages;
+
+	private Function<String, String> normalizer=new Clean().space(true).marks(true).smart(true);
+	private Function<Token, Chunk> analyzer=new PatternTokenizer().defaults();
+
+	private volatile Snapshot snapshot;
+
+	private final AtomicBoolean loading=new AtomicBoolean();
+
+	private final Graph graph=service(graph());
+	private final Logger logger=service(logger());
+
+
+	public GazetteerMatcher labels(final IRI... labels) {
+
+		if ( labels == null ) {
+			throw new NullPointerException("null labels");
+		}
+
+		return labels(asList(labels));
+	}
+
+	public GazetteerMatcher labels(final Collection<IRI> labels) {
+
+		if ( labels == null || labels.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null labels");
+		}
+
+		this.labels=new HashSet<>(labels);
+		this.snapshot=null;
+
+		return this;
+	}
+
+
+	public GazetteerMatcher languages(final String... languages) {
+
+		if ( languages == null ) {
+			throw new NullPointerException("null languages");
+		}
+
+		return languages(asList(languages));
+	}
+
+	public GazetteerMatcher languages(final Collection<String> languages) {
+
+		if ( languages == null || languages.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null languages");
+		}
+
+		this.languages=new HashSet<>(languages);
+		this.snapshot=null;
+
+		return this;
+	}
+
+
+	/**
+	 * Configures label normalization.
+	 *
+	 * @param normalizer a text normalization function applied both to entity labels and to anchors; should be
+	 *                   aligned with the normalizer of the linker using this matcher
+	 *
+	 * @return this matcher
+	 *
+	 * @throws NullPointerException if {@code normalizer} is {@code null}
+	 */
+	public GazetteerMatcher normalizer(final Function<String, String> normalizer) {
+
+		if ( normalizer == null ) {
+			throw new NullPointerException("null normalizer");
+		}
+
+		this.normalizer=normalizer;
+		this.snapshot=null;
+
+		return this;
+	}
+
+	/**
+	 * Configures label analysis.
+	 *
+	 * @param analyzer a function splitting normalized entity labels into matchable tokens; should be aligned with the
+	 *                 {@linkplain SPARQLMatcher.Indexer#analyzer(Function) analyzer} of the graph indexer
+	 *
+	 * @return this matcher
+	 *
+	 * @throws NullPointerException if {@code analyzer} is {@code null}
+	 */
+	public GazetteerMatcher analyzer(final Function<Token, Chunk> analyzer) {
+
+		if ( analyzer == null ) {
+			throw new NullPointerException("null analyzer");
+		}
+
+		this.analyzer=analyzer;
+		this.snapshot=null;
+
+		return this;
+	}
+
+
+	/**
+	 * Requests a rebuild of the label automaton.
+	 *
+	 * @return this matcher
+	 */
+	public GazetteerMatcher refresh() {
+
+		final Snapshot current=snapshot;
+
+		if ( current != null ) {
+			snapshot=new Snapshot(-1, current.gazetteer);
+		}
+
+		return this;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Override public Stream<Match<String, Frame>> apply(final Stream<String> anchors) {
+
+		final Gazetteer<Match<String, Frame>> gazetteer=gazetteer();
+
+		return Xtream.from(anchors)
+
+				.flatMap(anchor -> {
+
+					final Collection<Match<String, Frame>> matches=new ArrayList<>();
+
+					gazetteer.scan(normalizer.apply(anchor), matches::add);
+
+					return matches.stream();
+
+				})
+
+				.distinct();
+	}
+
+
+	private Gazetteer<Match<String, Frame>> gazetteer() {
+
+		final long revision=SPARQLMatcher.Indexer.revision();
+
+		final Snapshot current=snapshot;
+
+		if ( current != null && current.revision == revision ) { return current.gazetteer; } else if ( current == null ) {
+
+			synchronized ( this ) { // no automaton available yet: wait for it
+
+				if ( snapshot == null ) { snapshot=new Snapshot(revision, compile()); }
+
+				return snapshot.gazetteer;
+
+			}
+
+		} else if ( loading.compareAndSet(false, true) ) {
+
+			try {
+
+				final Snapshot updated=new Snapshot(revision, compile());
+
+				snapshot=updated;
+
+				return updated.gazetteer;
+
+			} finally {
+
+				loading.set(false);
+
+			}
+
+		} else { // stale automaton available: use it while another thread is rebuilding
+
+			return current.gazetteer;
+
+		}
+	}
+
+	private Gazetteer<Match<String, Frame>> compile() {
+		return time(() -> {
+
+			final Map<String, Collection<Match<String, Frame>>> entries=new HashMap<>();
+
+			Stream.of("")
+
+					.flatMap(new Fill<>() // retain only labels and weights
+
+							.model("prefix base: <app://text.metreeca.com/terms#>\n"
+									+"\n"
+									+"construct { ?s ?p ?o; base:weight ?w } where {\n"
+									+"\n"
+									+"\t?s a base:Entity; ?p ?o.\n"
+									+"\n"
+									+"\toptional { ?s base:weight ?w }\n"
+									+"\n"
+									+"\tfilter (lang(?o) in ({languages}) && ?p in (\n"
+									+"\t\t{labels}\n"
+									+"\t))\n"
+									+"\n"
+									+"}"
+							)
+
+							.value("languages", languages.stream()
+									.map(Values::quote)
+									.collect(joining(", "))
+							)
+
+							.value("labels", labels.stream()
+									.map(Values::format)
+									.collect(joining(",\n\t\t"))
+							)
+
+					)
+
+					.flatMap(new GraphQuery().graph(graph))
+
+					.collect(groupingBy(Statement::getSubject))
+
+					.forEach((subject, statements) -> {
+
+						final double weight=frame(subject, statements)
+								.decimal(Notes.weight)
+								.orElse(BigDecimal.ZERO)
+								.doubleValue();
+
+						final List<Statement> model=statements.stream() // retain only identifying labels
+								.filter(s -> labels.contains(s.getPredicate()))
+								.collect(toList());
+
+						final Frame frame=frame(subject, model);
+
+						model.stream()
+
+								.map(Statement::getObject)
+								.map(Value::stringValue)
+
+								.forEach(label -> {
+
+									final Match<String, Frame> match=new Match<>(label, frame, weight);
+
+									analyzer.apply(new Token(normalizer.apply(label))).tokens().forEach(token -> entries
+											.computeIfAbsent(token.text(true), key -> new LinkedHashSet<>())
+											.add(match)
+									);
+
+								});
+
+					});
+
+			return new Gazetteer<>(entries);
+
+		}).apply((t, gazetteer) -> logger.info(this, format(
+				"compiled <%,d> automaton states in <%,d> ms", gazetteer.size(), t
+		)));
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	private static final class Snapshot {
+
+		private final long revision;
+		private final Gazetteer<Match<String, Frame>> gazetteer;
+
+
+		private Snapshot(final long revision, final Gazetteer<Match<String, Frame>> gazetteer) {
+			this.revision=revision;
+			this.gazetteer=gazetteer;
+		}
+
+	}
+
+}
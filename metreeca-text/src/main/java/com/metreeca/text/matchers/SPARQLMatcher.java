@@ -28,21 +28,28 @@ import com.metreeca.text.tokenizers.PatternTokenizer;
 
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.query.BindingSet;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.metreeca.json.Frame.frame;
 import static com.metreeca.json.Values.literal;
+import static com.metreeca.json.Values.statement;
 import static com.metreeca.rdf4j.services.Graph.graph;
 import static com.metreeca.rest.Toolbox.service;
 import static com.metreeca.rest.services.Logger.logger;
+import static com.metreeca.rest.services.Logger.time;
 
+import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 public final class SPARQLMatcher implements Function<Stream<String>, Stream<Match<String, Frame>>> {
 
@@ -174,12 +181,32 @@ public final class SPARQLMatcher implements Function<Stream<String>, Stream<Matc
 
 	public static final class Indexer implements Runnable {
 
+		private static final int Batch=10_000;
+
+		private static final AtomicLong revisions=new AtomicLong();
+
+
+		/**
+		 * Retrieves the index revision.
+		 *
+		 * @return a counter incremented at the end of each indexer run; used by in-memory matchers to detect stale
+		 * label indexes
+		 */
+		static long revision() {
+			return revisions.get();
+		}
+
+
 		private Collection<IRI> labels=Notes.Labels;
 		private Set<String> languages=Notes.Languages;
 		private IRI context=RDF.NIL; // !!!
 
 		private Function<Token, Chunk> analyzer=new PatternTokenizer().defaults();
 
+		private boolean incremental;
+		private int batch=Batch;
+		private int parallelism=Runtime.getRuntime().availableProcessors();
+
 
 		private final Graph graph=service(graph());
 		private final Logger logger=service(logger());
@@ -251,60 +278,181 @@ public final class SPARQLMatcher implements Function<Stream<String>, Stream<Matc
 		}
 
 
-		@Override public void run() {
-			graph.update(connection -> {
+		/**
+		 * Configures incremental indexing.
+		 *
+		 * @param incremental if {@code true}, only entities flagged by a {@link Notes#changed} marker, to be added by
+		 *                    applications when changing entity labels or incoming links, are reindexed; if {@code
+		 *                    false}, all entities are reindexed, for instance after an analyzer change; markers are
+		 *                    cleared before reading entity descriptions, so that entities changed while indexing are
+		 *                    reindexed by the next run; defaults to {@code false}
+		 *
+		 * @return this indexer
+		 */
+		public Indexer incremental(final boolean incremental) {
+
+			this.incremental=incremental;
+
+			return this;
+		}
+
+		/**
+		 * Configures page and transaction size.
+		 *
+		 * @param batch the maximum number of entities retrieved in a single query page and updated in a single
+		 *              transaction; defaults to {@value #Batch}
+		 *
+		 * @return this indexer
+		 *
+		 * @throws IllegalArgumentException if {@code batch} is less than 1
+		 */
+		public Indexer batch(final int batch) {
+
+			if ( batch < 1 ) {
+				throw new IllegalArgumentException("non-positive batch size");
+			}
 
-				clean();
+			this.batch=batch;
 
-				anchors(connection);
-				weights();
+			return this;
+		}
 
-				return this;
+		/**
+		 * Configures analysis parallelism.
+		 *
+		 * @param parallelism the number of threads concurrently running the {@linkplain #analyzer(Function) analyzer},
+		 *                    which must be thread-safe if greater than 1; defaults to the number of available processors
+		 *
+		 * @return this indexer
+		 *
+		 * @throws IllegalArgumentException if {@code parallelism} is less than 1
+		 */
+		public Indexer parallelism(final int parallelism) {
+
+			if ( parallelism < 1 ) {
+				throw new IllegalArgumentException("non-positive parallelism");
+			}
 
-			});
+			this.parallelism=parallelism;
+
+			return this;
 		}
 
 
-		private void clean() {
+		@Override public void run() {
 
-			logger.info(this, "cleaning");
+			final ForkJoinPool pool=new ForkJoinPool(parallelism);
 
-			Stream.of("prefix base: <app://text.metreeca.com/terms#>\n"
-							+"\n"
-							+"delete { ?e base:weight ?w; base:anchor ?a }\n"
-							+"where { ?e a base:Entity; base:weight ?w; base:anchor ?a }")
+			try {
 
-					.forEach(new Update()
-							.graph(graph)
-							.remove(context) // !!! context
-					);
+				final LongAdder updated=new LongAdder();
+
+				time(() -> entities()
+
+						.async(pool, parallelism, 4*parallelism, false, this::analyze)
+
+						.batch(batch)
+
+						.forEach(entries -> {
+
+							graph.update(connection -> { // bounded transaction
 
+								for (final Entry entry : entries) {
+									connection.remove(entry.entity, Notes.anchor, null, context);
+									connection.remove(entry.entity, Notes.weight, null, context);
+								}
+
+								for (final Entry entry : entries) {
+									connection.add(entry.statements, context);
+								}
+
+								return this;
+
+							});
+
+							updated.add(entries.size());
+
+						})
+
+				).apply(t -> logger.info(this, format("%s <%,d> entities in <%,d> ms",
+						incremental ? "updated" : "indexed", updated.sum(), t
+				)));
+
+				if ( updated.sum() > 0 ) { revisions.incrementAndGet(); }
+
+			} finally {
+
+				pool.shutdownNow();
+
+			}
 		}
 
-		private void anchors(final RepositoryConnection connection) {
 
-			service(logger()).info(this, "extracting anchors");
+		/**
+		 * Retrieves entity descriptions.
+		 *
+		 * @return a lazy stream of entity descriptions, retrieved in pages of at most {@link #batch(int) batch}
+		 * entities, so that memory usage is bounded independently of the size of the graph
+		 */
+		private Xtream<BindingSet> entities() {
+			return Xtream
 
-			Stream
-					.of("")
+					.from(Stream.iterate(page(""), Objects::nonNull, page -> page(page.upper)))
 
-					.flatMap(new Fill<>()
+					.flatMap(new Fill<Page>() // labels and weights for the entities in the page
 
 							.model("prefix base: <app://text.metreeca.com/terms#>\n"
 									+"\n"
-									+"select ?e ?l {\n"
+									+"select ?e ?l ?w {\n"
+									+"\n"
+									+"\tvalues ?e {\n"
+									+"\t\t{entities}\n"
+									+"\t}\n"
+									+"\n"
+									+"\toptional {\n"
+									+"\n"
+									+"\t\tselect ?e (group_concat(distinct ?x; separator='\\u001F') as ?l) {\n"
+									+"\n"
+									+"\t\t\tvalues ?e {\n"
+									+"\t\t\t\t{entities}\n"
+									+"\t\t\t}\n"
+									+"\n"
+									+"\t\t\tvalues ?p {\n"
+									+"\t\t\t\t{labels}\n"
+									+"\t\t\t}\n"
+									+"\n"
+									+"\t\t\t?e ?p ?y filter (lang(?y) in ({languages}))\n"
+									+"\n"
+									+"\t\t\tbind (concat(lang(?y), '@', str(?y)) as ?x)\n"
+									+"\n"
+									+"\t\t} group by ?e\n"
 									+"\n"
-									+"\tvalues ?p {\n"
-									+"\t\t{labels}\n"
 									+"\t}\n"
 									+"\n"
-									+"\t?e a base:Entity; ?p ?l filter (lang(?l) in ({languages}))\n"
+									+"\toptional {\n"
+									+"\n"
+									+"\t\tselect ?e (count(?c) as ?w) {\n"
+									+"\n"
+									+"\t\t\tvalues ?e {\n"
+									+"\t\t\t\t{entities}\n"
+									+"\t\t\t}\n"
+									+"\n"
+									+"\t\t\t?c ?q ?e.\n"
+									+"\n"
+									+"\t\t} group by ?e\n"
+									+"\n"
+									+"\t}\n"
 									+"\n"
 									+"}")
 
+							.value("entities", page -> page.entities.stream()
+									.map(Values::format)
+									.collect(joining("\n\t\t\t\t"))
+							)
+
 							.value("labels", labels.stream()
 									.map(Values::format)
-									.collect(joining("\n\t\t"))
+									.collect(joining("\n\t\t\t\t"))
 							)
 
 							.value("languages", languages.stream()
@@ -319,41 +467,126 @@ public final class SPARQLMatcher implements Function<Stream<String>, Stream<Matc
 							.graph(graph)
 					)
 
-					.forEach(bindings -> {
+					.sequential();
+		}
 
-						final Resource entity=(Resource)bindings.getValue("e");
-						final Value label=bindings.getValue("l");
+		/**
+		 * Retrieves an entity page.
+		 *
+		 * <p>Pages are retrieved by keyset, resuming from the last entity of the previous page, and include only
+		 * {@linkplain Notes#changed changed} entities in {@linkplain #incremental(boolean) incremental} mode; change
+		 * markers of the retrieved entities are cleared.</p>
+		 *
+		 * @param lower the exclusive lower bound for the IRIs of the entities in the page
+		 *
+		 * @return a page including at most {@link #batch(int) batch} entities following {@code lower} in IRI order or
+		 * {@code null} if no entity follows {@code lower}
+		 */
+		private Page page(final String lower) {
 
-						analyzer.apply(new Token(label.stringValue())).tokens().forEach(anchor ->
-								connection.add(entity, Notes.anchor, literal(anchor.text(true)), context)
-						);
+			final List<Value> entities=Xtream
 
-					});
-		}
+					.of(lower)
 
-		private void weights() {
+					.flatMap(new Fill<String>()
 
-			service(logger()).info(this, "computing weights");
+							.model("prefix base: <app://text.metreeca.com/terms#>\n"
+									+"\n"
+									+"select distinct ?e {\n"
+									+"\n"
+									+"\t?e a base:Entity{changed} filter (str(?e) > {lower})\n"
+									+"\n"
+									+"} order by ?e limit {limit}")
 
-			Stream
+							.value("changed", incremental ? "; base:changed []" : "")
+							.value("lower", bound -> Values.format(literal(bound)))
+							.value("limit", batch)
 
-					.of("prefix base: <app://text.metreeca.com/terms#>\n"
-							+"\n"
-							+"insert { ?e base:weight ?w  } where {\n"
-							+"\n"
-							+"\tselect ?e (count(?c) as ?w) {\n"
-							+"\n"
-							+"\t\t?e a base:Entity. ?c ?p ?e.\n"
-							+"\n"
-							+"\t} group by ?e\n"
-							+"\n"
-							+"}"
 					)
 
-					.forEach(new Update()
+					.flatMap(new TupleQuery()
 							.graph(graph)
-							.insert(context) // !!! review
-					);
+					)
+
+					.map(bindings -> bindings.getValue("e"))
+					.filter(IRI.class::isInstance)
+
+					.sorted(Comparator.comparing(Value::stringValue)) // restore order after parallel evaluation
+					.collect(toList());
+
+			if ( entities.isEmpty() ) { return null; } else {
+
+				graph.update(connection -> {
+
+					for (final Value entity : entities) {
+						connection.remove((Resource)entity, Notes.changed, null);
+					}
+
+					return this;
+
+				});
+
+				return new Page(entities, entities.get(entities.size()-1).stringValue());
+
+			}
+		}
+
+		private Entry analyze(final BindingSet bindings) {
+
+			final Resource entity=(Resource)bindings.getValue("e");
+			final Value weight=bindings.getValue("w");
+
+			final Collection<Statement> statements=new LinkedHashSet<>();
+
+			labels(bindings).forEach(label -> analyzer.apply(new Token(label)).tokens().forEach(anchor ->
+					statements.add(statement(entity, Notes.anchor, literal(anchor.text(true))))
+			));
+
+			if ( weight != null ) {
+				statements.add(statement(entity, Notes.weight, weight));
+			}
+
+			return new Entry(entity, statements);
+		}
+
+
+		private static Stream<String> labels(final BindingSet bindings) {
+
+			final Value labels=bindings.getValue("l");
+
+			return labels == null || labels.stringValue().isEmpty() ? Stream.empty() : Arrays
+
+					.stream(labels.stringValue().split("\u001F"))
+
+					.map(label -> label.substring(label.indexOf('@')+1));
+		}
+
+		////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+		private static final class Page {
+
+			private final List<Value> entities;
+			private final String upper; // the IRI of the last entity in the page
+
+
+			private Page(final List<Value> entities, final String upper) {
+				this.entities=entities;
+				this.upper=upper;
+			}
+
+		}
+
+		private static final class Entry {
+
+			private final Resource entity;
+			private final Collection<Statement> statements;
+
+
+			private Entry(final Resource entity, final Collection<Statement> statements) {
+				this.entity=entity;
+				this.statements=statements;
+			}
+
 		}
 
 	}
@@ -17,6 +17,7 @@
 package com.metreeca.text.taggers;
 
 import com.metreeca.text.Chunk;
+import com.metreeca.text.Pool;
 import com.metreeca.text.Token;
 
 import opennlp.tools.postag.POSModel;
@@ -24,22 +25,24 @@ import opennlp.tools.postag.POSTaggerME;
 
 import java.io.*;
 import java.net.URL;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 
-import static java.util.Collections.synchronizedMap;
 import static java.util.stream.Collectors.toList;
 
 
 public final class OpenTagger implements UnaryOperator<Chunk> {
 
-	private static final Map<String, POSModel> models=synchronizedMap(new HashMap<>());
+	private static final Map<String, Pool<POSTaggerME>> pools=new ConcurrentHashMap<>();
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final POSModel model;
+	private final Pool<POSTaggerME> taggers;
 
 
 	public OpenTagger(final URL model) {
@@ -48,9 +51,13 @@ public final class OpenTagger implements UnaryOperator<Chunk> {
 			throw new NullPointerException("null model URL");
 		}
 
-		this.model=models.computeIfAbsent(model.toExternalForm(), url -> {
+		this.taggers=pools.computeIfAbsent(model.toExternalForm(), url -> {
 			try ( final InputStream input=model.openStream() ) {
-				return new POSModel(input);
+
+				final POSModel pos=new POSModel(input);
+
+				return new Pool<>(() -> new POSTaggerME(pos));
+
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
 			}
@@ -66,9 +73,27 @@ public final class OpenTagger implements UnaryOperator<Chunk> {
 			throw new NullPointerException("null chunk");
 		}
 
+		return taggers.apply(tagger -> tag(tagger, chunk));
+	}
+
+	public List<Chunk> apply(final List<Chunk> chunks) {
+
+		if ( chunks == null || chunks.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null chunks");
+		}
+
+		return taggers.apply(tagger -> chunks.stream()
+				.map(chunk -> tag(tagger, chunk))
+				.collect(toList())
+		);
+	}
+
+
+	private Chunk tag(final POSTaggerME tagger, final Chunk chunk) {
+
 		final List<Token> tokens=chunk.tokens();
 
-		final String[] tags=new POSTaggerME(model).tag(tokens.stream()
+		final String[] tags=tagger.tag(tokens.stream()
 				.map(Token::text)
 				.toArray(String[]::new)
 		);
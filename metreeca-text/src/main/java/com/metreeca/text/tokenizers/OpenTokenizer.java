@@ -17,6 +17,7 @@
 package com.metreeca.text.tokenizers;
 
 import com.metreeca.text.Chunk;
+import com.metreeca.text.Pool;
 import com.metreeca.text.Token;
 
 import opennlp.tools.tokenize.TokenizerME;
@@ -24,23 +25,24 @@ import opennlp.tools.tokenize.TokenizerModel;
 
 import java.io.*;
 import java.net.URL;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static java.util.Collections.synchronizedMap;
 import static java.util.stream.Collectors.toList;
 
 
 public final class OpenTokenizer implements Function<Token, Chunk> {
 
-	private static final Map<String, TokenizerModel> models=synchronizedMap(new HashMap<>());
+	private static final Map<String, Pool<TokenizerME>> pools=new ConcurrentHashMap<>();
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private final TokenizerModel model;
+	private final Pool<TokenizerME> tokenizers;
 
 
 	public OpenTokenizer(final URL model) {
@@ -49,9 +51,13 @@ public final class OpenTokenizer implements Function<Token, Chunk> {
 			throw new NullPointerException("null model URL");
 		}
 
-		this.model=models.computeIfAbsent(model.toExternalForm(), url -> {
+		this.tokenizers=pools.computeIfAbsent(model.toExternalForm(), url -> {
 			try ( final InputStream input=model.openStream() ) {
-				return new TokenizerModel(input);
+
+				final TokenizerModel tokens=new TokenizerModel(input);
+
+				return new Pool<>(() -> new TokenizerME(tokens));
+
 			} catch ( final IOException e ) {
 				throw new UncheckedIOException(e);
 			}
@@ -67,9 +73,26 @@ public final class OpenTokenizer implements Function<Token, Chunk> {
 			throw new NullPointerException("null token");
 		}
 
+		return tokenizers.apply(tokenizer -> tokenize(tokenizer, token));
+	}
+
+	public List<Chunk> apply(final List<Token> tokens) {
+
+		if ( tokens == null || tokens.stream().anyMatch(Objects::isNull) ) {
+			throw new NullPointerException("null tokens");
+		}
+
+		return tokenizers.apply(tokenizer -> tokens.stream()
+				.map(token -> tokenize(tokenizer, token))
+				.collect(toList())
+		);
+	}
+
+
+	private Chunk tokenize(final TokenizerME tokenizer, final Token token) {
 		return new Chunk(Stream
 
-				.of(new TokenizerME(model).tokenizePos(token.text()))
+				.of(tokenizer.tokenizePos(token.text()))
 
 				.map(span -> token.clip(span.getStart(), span.getEnd()))
 
@@ -20,13 +20,18 @@ import com.metreeca.text.Chunk;
 import com.metreeca.text.Token;
 
 import java.util.*;
-import java.util.function.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static java.lang.String.format;
-
 
+/**
+ * Pattern tokenizer.
+ *
+ * <p>Splits texts into tokens matching one of a list of branch patterns, joined into a single alternation scanned in
+ * a single pass; the matched branch is resolved by capturing group index and matchers are reused by each thread.</p>
+ */
 public final class PatternTokenizer implements Function<Token, Chunk> {
 
 	private static final Pattern BranchPattern=Pattern.compile(
@@ -37,8 +42,9 @@ public final class PatternTokenizer implements Function<Token, Chunk> {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	private Pattern pattern=Pattern.compile("");
+	private Branch[] branches=new Branch[0];
 
-	private final Map<String, BiFunction<Token, Matcher, Token>> group2mapper=new HashMap<>();
+	private ThreadLocal<Matcher> matchers=matchers(pattern);
 
 
 	public PatternTokenizer defaults() {
@@ -102,50 +108,54 @@ public final class PatternTokenizer implements Function<Token, Chunk> {
 
 
 	public PatternTokenizer pattern(final String pattern) {
-		return pattern(pattern, (t, m) -> t);
+		return pattern(pattern, null, false);
 	}
 
 	public PatternTokenizer pattern(final String pattern, final Function<Token, Token> mapper) {
-		return pattern(pattern, (t, m) -> mapper.apply(t));
+
+		if ( mapper == null ) {
+			throw new NullPointerException("null mapper");
+		}
+
+		return pattern(pattern, (t, m) -> mapper.apply(t), false);
 	}
 
 	public PatternTokenizer pattern(final String pattern, final BiFunction<Token, Matcher, Token> mapper) {
 
-		if ( pattern == null ) {
-			throw new NullPointerException("null pattern");
+		if ( mapper == null ) {
+			throw new NullPointerException("null mapper");
 		}
 
-		final StringBuilder builder=new StringBuilder(this.pattern.pattern());
+		return pattern(pattern, mapper, true);
+	}
 
-		if ( builder.length() > 0 ) {
-			builder.append('|');
-		}
 
-		final String group=format("p%d", group2mapper.size());
+	private PatternTokenizer pattern(
+			final String pattern, final BiFunction<Token, Matcher, Token> mapper, final boolean contextual
+	) {
 
-		builder.append("(?<").append(group).append('>');
+		if ( pattern == null ) {
+			throw new NullPointerException("null pattern");
+		}
 
 		final Matcher matcher=BranchPattern.matcher(pattern);
 
-		if ( matcher.matches() ) {
+		final String type=matcher.matches() ? matcher.group("type") : null;
+		final String body=matcher.matches() ? matcher.group("pattern") : pattern;
 
-			final String type=matcher.group("type");
+		final int group=this.pattern.pattern().isEmpty() ? 1 : this.pattern.matcher("").groupCount()+1;
 
-			group2mapper.put(group, (t, m) -> mapper.apply(t.type(type), m));
+		final Branch[] branches=Arrays.copyOf(this.branches, this.branches.length+1);
 
-			builder.append(matcher.group("pattern"));
+		branches[branches.length-1]=new Branch(group, type, mapper, contextual);
 
-		} else {
-
-			group2mapper.put(group, mapper);
-
-			builder.append(pattern);
-
-		}
-
-		builder.append(')');
+		this.pattern=Pattern.compile(this.pattern.pattern().isEmpty()
+				? "("+body+")"
+				: this.pattern.pattern()+"|("+body+")"
+		);
 
-		this.pattern=Pattern.compile(builder.toString());
+		this.branches=branches;
+		this.matchers=matchers(this.pattern);
 
 		return this;
 	}
@@ -159,31 +169,213 @@ public final class PatternTokenizer implements Function<Token, Chunk> {
 			throw new NullPointerException("null token");
 		}
 
-		if ( pattern.pattern().isEmpty() ) { defaults(); }
+		return scan(token).chunk();
+	}
+
+
+	/**
+	 * Scans a token.
+	 *
+	 * @param token the token to be split
+	 *
+	 * @return the offsets of the tokens matched in {@code token}; tokens are materialized on demand
+	 *
+	 * @throws NullPointerException if {@code token} is {@code null}
+	 */
+	public Tokens scan(final Token token) {
+
+		if ( token == null ) {
+			throw new NullPointerException("null token");
+		}
+
+		if ( branches.length == 0 ) { defaults(); }
+
+		final Branch[] branches=this.branches;
+		final ThreadLocal<Matcher> matchers=this.matchers;
+
+		final String text=token.text();
+		final Matcher matcher=matchers.get().reset(text);
 
-		final Collection<Token> tokens=new ArrayList<>();
+		final Tokens tokens=new Tokens(token, branches, matchers);
 
-		for (final Matcher matcher=pattern.matcher(token.text()); matcher.find(); ) {
-			tokens.add(mapper(matcher).apply(
-					token.clip(matcher.start(), matcher.end())
-			));
+		while ( matcher.find() ) {
+			tokens.add(matcher.start(), matcher.end(), branch(branches, matcher));
 		}
 
-		return new Chunk(tokens);
+		matcher.reset(""); // release the scanned text
+
+		return tokens;
 	}
 
 
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	private UnaryOperator<Token> mapper(final Matcher matcher) {
+	private static ThreadLocal<Matcher> matchers(final Pattern pattern) {
+		return ThreadLocal.withInitial(() -> pattern.matcher(""));
+	}
+
+	private static int branch(final Branch[] branches, final Matcher matcher) {
+
+		for (int i=0; i < branches.length; ++i) {
+			if ( matcher.start(branches[i].group) >= 0 ) { return i; }
+		}
+
+		return -1;
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Scanned tokens.
+	 *
+	 * <p>Stores the offsets and the matching branch of tokens into a primitive buffer, materializing {@link Token}
+	 * objects only on demand.</p>
+	 */
+	public static final class Tokens {
+
+		private final Token token;
+
+		private final Branch[] branches;
+		private final ThreadLocal<Matcher> matchers;
+
+		private int[] buffer=new int[48]; // lower/upper/branch triples
+		private int size;
+
+
+		private Tokens(final Token token, final Branch[] branches, final ThreadLocal<Matcher> matchers) {
+			this.token=token;
+			this.branches=branches;
+			this.matchers=matchers;
+		}
+
+
+		private void add(final int lower, final int upper, final int branch) {
+
+			if ( 3*size+3 > buffer.length ) {
+				buffer=Arrays.copyOf(buffer, buffer.length*2);
+			}
+
+			buffer[3*size]=lower;
+			buffer[3*size+1]=upper;
+			buffer[3*size+2]=branch;
+
+			++size;
+		}
+
+
+		////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+		public int size() {
+			return size;
+		}
+
+
+		/**
+		 * @return the lower offset of the {@code index}-th token, relative to the scanned token
+		 */
+		public int lower(final int index) {
+			return buffer[3*check(index)];
+		}
+
+		/**
+		 * @return the upper offset of the {@code index}-th token, relative to the scanned token
+		 */
+		public int upper(final int index) {
+			return buffer[3*check(index)+1];
+		}
+
+		/**
+		 * @return the type of the {@code index}-th token as declared by its branch pattern, before mapping; empty if
+		 * not declared
+		 */
+		public String type(final int index) {
+
+			final int branch=buffer[3*check(index)+2];
+
+			return branch >= 0 && branches[branch].type != null ? branches[branch].type : "";
+		}
+
+
+		/**
+		 * @return the {@code index}-th token, mapped as specified by its branch
+		 */
+		public Token token(final int index) {
+
+			final int lower=lower(index);
+			final int upper=upper(index);
+			final int branch=buffer[3*index+2];
+
+			final Token clip=token.clip(lower, upper);
+
+			if ( branch < 0 ) { return clip; } else {
+
+				final Branch b=branches[branch];
+
+				final Token typed=b.type == null ? clip : clip.type(b.type);
+
+				return b.mapper == null ? typed
+						: b.mapper.apply(typed, b.contextual ? replay(lower) : null);
+
+			}
+		}
+
+		public Chunk chunk() {
+
+			final List<Token> tokens=new ArrayList<>(size);
+
+			for (int i=0; i < size; ++i) { tokens.add(token(i)); }
+
+			return new Chunk(tokens);
+		}
 
-		for (final Map.Entry<String, BiFunction<Token, Matcher, Token>> entry : group2mapper.entrySet()) {
-			if ( matcher.group(entry.getKey()) != null ) {
-				return token -> entry.getValue().apply(token, matcher);
+
+		private int check(final int index) {
+
+			if ( index < 0 || index >= size ) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
 			}
+
+			return index;
+		}
+
+		private Matcher replay(final int lower) { // restore the matcher state for contextual mappers
+
+			final String text=token.text();
+			final Matcher matcher=matchers.get().reset(text)
+
+					.region(lower, text.length())
+					.useTransparentBounds(true)
+					.useAnchoringBounds(false);
+
+			if ( !matcher.lookingAt() ) {
+				throw new IllegalStateException("unable to replay match at offset <"+lower+">");
+			}
+
+			return matcher;
+		}
+
+	}
+
+	private static final class Branch {
+
+		private final int group;
+
+		private final String type;
+		private final BiFunction<Token, Matcher, Token> mapper;
+		private final boolean contextual; // true if the mapper inspects the matcher state
+
+
+		private Branch(
+				final int group,
+				final String type, final BiFunction<Token, Matcher, Token> mapper, final boolean contextual
+		) {
+			this.group=group;
+			this.type=type;
+			this.mapper=mapper;
+			this.contextual=contextual;
 		}
 
-		return token -> token;
 	}
 
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.metreeca.text.Corpus.corpus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+final class CorpusTest {
+
+	private static final List<String> entries=List.of("the", "Città", "New York", "and");
+
+
+	private static void assertMatches(final Corpus corpus) {
+
+		assertThat(corpus.size()).isEqualTo(entries.size());
+
+		assertThat(corpus.test(new Token("The"))).isTrue();
+		assertThat(corpus.test(new Token("città"))).isTrue();
+		assertThat(corpus.test(new Token("new york"))).isTrue();
+
+		assertThat(corpus.test(new Token("then"))).isFalse();
+		assertThat(corpus.test(new Token("th"))).isFalse();
+		assertThat(corpus.test(new Token(""))).isFalse();
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testMatchNormalizedEntries() {
+		assertMatches(corpus(entries));
+	}
+
+	@Test void testMatchTokenRoots() {
+		assertThat(corpus(entries).test(new Token("thes").root("the"))).isTrue();
+	}
+
+	@Test void testMatchLargeCorpora() {
+
+		final Corpus corpus=corpus(IntStream.range(0, 100_000).mapToObj(i -> "w"+i).collect(toList()));
+
+		assertThat(IntStream.range(0, 100_000).allMatch(i -> corpus.contains("w"+i))).isTrue();
+		assertThat(IntStream.range(100_000, 200_000).noneMatch(i -> corpus.contains("w"+i))).isTrue();
+	}
+
+	@Test void testHandleEmptyCorpora() {
+		assertThat(corpus(List.of()).test(new Token("any"))).isFalse();
+	}
+
+
+	@Test void testReadStoredCorpora() throws IOException {
+
+		final ByteArrayOutputStream output=new ByteArrayOutputStream();
+
+		corpus(entries).store(output);
+
+		assertMatches(Corpus.read(new ByteArrayInputStream(output.toByteArray())));
+	}
+
+	@Test void testMapStoredCorpora(@TempDir final Path dir) throws IOException {
+
+		final Path file=dir.resolve("corpus.bin");
+
+		corpus(entries).store(file);
+
+		assertMatches(Corpus.load(file));
+	}
+
+
+	@Test void testLoadSharedCorpora(@TempDir final Path dir) throws IOException {
+
+		final Path text=Files.writeString(dir.resolve("corpus.txt"), "# comment\n\nthe\nCittà\nNew York\nand\n", UTF_8);
+		final Path binary=dir.resolve("corpus.bin");
+
+		corpus(entries).store(binary);
+
+		for (final Path file : List.of(text, binary)) {
+
+			final Token the=new Token("The");
+			final Token then=new Token("then");
+
+			assertThat(Token.corpus(file.toUri().toURL()).test(the)).isTrue();
+			assertThat(Token.corpus(file.toUri().toURL()).test(then)).isFalse();
+		}
+	}
+
+}
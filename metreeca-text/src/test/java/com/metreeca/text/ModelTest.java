@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.metreeca.text.Model.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.Arrays.asList;
+
+final class ModelTest {
+
+	private static Model<String> is(final String value) {
+		return test(value::equals);
+	}
+
+	private static List<String> values(final String... values) {
+		return asList(values);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testMatchTokens() {
+		assertThat(Model.<String>dot().find(values("a"))).isEqualTo(1);
+		assertThat(Model.<String>dot().find(values())).isEqualTo(-1);
+		assertThat(is("a").find(values("a", "b"))).isEqualTo(1);
+		assertThat(is("a").find(values("b"))).isEqualTo(-1);
+	}
+
+	@Test void testMatchSequencesWithoutBacktracking() {
+		assertThat(seq(is("a"), is("b")).find(values("a", "b", "c"))).isEqualTo(2);
+		assertThat(seq(is("a"), is("b")).find(values("a", "c"))).isEqualTo(-1);
+		assertThat(seq(is("a").star(), is("a")).find(values("a", "a"))).isEqualTo(-1);
+	}
+
+	@Test void testMatchLongestAlternative() {
+		assertThat(alt(is("a"), seq(is("a"), is("b"))).find(values("a", "b"))).isEqualTo(2);
+		assertThat(alt(is("x"), is("y")).find(values("a"))).isEqualTo(-1);
+	}
+
+	@Test void testMatchRepetitions() {
+
+		assertThat(is("a").opt().find(values("b"))).isEqualTo(0);
+		assertThat(is("a").star().find(values("a", "a", "b"))).isEqualTo(2);
+		assertThat(is("a").plus().find(values("a", "a", "b"))).isEqualTo(2);
+		assertThat(is("a").plus().find(values("b"))).isEqualTo(-1);
+
+		assertThat(is("a").opt().star().find(values("b"))).isEqualTo(0);
+		assertThat(is("a").opt().plus().find(values("b"))).isEqualTo(-1);
+	}
+
+	@Test void testMatchLookaheads() {
+		assertThat(is("a").at().find(values("a"))).isEqualTo(0);
+		assertThat(is("a").at().find(values("b"))).isEqualTo(-1);
+		assertThat(is("a").not().find(values("b"))).isEqualTo(0);
+		assertThat(seq(is("a").not(), Model.<String>dot()).find(values("a"))).isEqualTo(-1);
+	}
+
+	@Test void testFilterMatches() {
+
+		final Model<String> any=Model.<String>dot().plus();
+
+		assertThat(any.all("a"::equals).find(values("a", "a"))).isEqualTo(2);
+		assertThat(any.all("a"::equals).find(values("a", "b"))).isEqualTo(-1);
+		assertThat(any.some("b"::equals).find(values("a", "b"))).isEqualTo(2);
+		assertThat(any.none("b"::equals).find(values("a", "b"))).isEqualTo(-1);
+	}
+
+	@Test void testMatchSequentialLists() {
+		assertThat(seq(is("a"), is("b")).find(new LinkedList<>(values("a", "b")))).isEqualTo(2);
+	}
+
+
+	@Test void testScanNonOverlappingMatches() {
+		assertThat(seq(is("a"), is("b").star()).scan(values("x", "a", "b", "b", "a", "y", "a")))
+				.containsExactly(values("a", "b", "b"), values("a"), values("a"));
+	}
+
+	@Test void testScanWithLeadingLookaheads() {
+		assertThat(seq(is("b").not(), is("a").opt(), is("b")).scan(values("b", "a", "b", "c", "b")))
+				.containsExactly(values("a", "b"));
+	}
+
+	@Test void testIgnoreEmptyMatchesOnScan() {
+		assertThat(is("a").star().scan(values("b", "b"))).isEmpty();
+	}
+
+}
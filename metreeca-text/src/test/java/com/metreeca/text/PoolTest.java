@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+final class PoolTest {
+
+	@Test void testReuseIdleInstances() {
+
+		final AtomicInteger created=new AtomicInteger();
+		final Pool<Object> pool=new Pool<>(() -> created.incrementAndGet());
+
+		final Object first=pool.apply(instance -> instance);
+		final Object second=pool.apply(instance -> instance);
+
+		assertThat(second).isSameAs(first);
+		assertThat(created).hasValue(1);
+	}
+
+	@Test void testLendInstancesExclusively() {
+
+		final Set<Object> busy=ConcurrentHashMap.newKeySet();
+		final Pool<Object> pool=new Pool<>(Object::new);
+
+		IntStream.range(0, 10_000).parallel().forEach(i -> pool.apply(instance -> {
+
+			assertThat(busy.add(instance)).isTrue();
+			assertThat(busy.remove(instance)).isTrue();
+
+			return instance;
+
+		}));
+	}
+
+	@Test void testDropInstancesBeyondLimit() {
+
+		final AtomicInteger created=new AtomicInteger();
+		final Pool<Object> pool=new Pool<>(() -> created.incrementAndGet(), 0);
+
+		pool.apply(instance -> instance);
+		pool.apply(instance -> instance);
+
+		assertThat(created).hasValue(2);
+	}
+
+	@Test void testDiscardFailingInstances() {
+
+		final AtomicInteger created=new AtomicInteger();
+		final Pool<Object> pool=new Pool<>(() -> created.incrementAndGet());
+
+		assertThatIllegalStateException().isThrownBy(() -> pool.apply(instance -> {
+			throw new IllegalStateException();
+		}));
+
+		pool.apply(instance -> instance);
+
+		assertThat(created).hasValue(2);
+	}
+
+}
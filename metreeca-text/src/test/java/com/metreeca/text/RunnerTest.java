@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text;
+
+import com.metreeca.rest.Toolbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.metreeca.rest.Toolbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toList;
+
+final class RunnerTest {
+
+	private static Stream<Token> documents() {
+		return IntStream.range(0, 1000).mapToObj(String::valueOf).map(Token::new);
+	}
+
+	private static List<String> texts() {
+		return documents().map(Token::text).collect(toList());
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testPreserveOrder() {
+		new Toolbox().exec(() -> assertThat(new Runner<>(() -> Token::text)
+
+				.parallelism(4)
+				.apply(documents())
+
+				.collect(toList())
+
+		).containsExactlyElementsOf(texts()));
+	}
+
+	@Test void testGenerateUnorderedResults() {
+		new Toolbox().exec(() -> assertThat(new Runner<>(() -> Token::text)
+
+				.parallelism(4)
+				.ordered(false)
+				.apply(documents())
+
+				.collect(toList())
+
+		).containsExactlyInAnyOrderElementsOf(texts()));
+	}
+
+	@Test void testCreatePipelinesPerWorker() {
+
+		final AtomicInteger pipelines=new AtomicInteger();
+
+		new Toolbox().exec(() -> new Runner<>(() -> {
+
+					pipelines.incrementAndGet();
+
+					return (Function<Token, String>)Token::text;
+
+				})
+
+						.parallelism(2)
+						.apply(documents())
+
+						.forEach(text -> {})
+
+		);
+
+		assertThat(pipelines.get()).isBetween(1, 2);
+	}
+
+	@Test void testPropagateToolbox() {
+
+		final Supplier<String> service=() -> "default";
+
+		new Toolbox().set(service, () -> "plugin").exec(() -> assertThat(new Runner<>(() -> document -> service(service))
+
+				.parallelism(4)
+				.apply(documents())
+
+				.distinct()
+				.collect(toList())
+
+		).containsExactly("plugin"));
+	}
+
+}
@@ -26,12 +26,24 @@ import com.metreeca.text.matchers.WikidataMatcher;
 import com.metreeca.text.taggers.OpenTagger;
 import com.metreeca.text.tokenizers.PatternTokenizer;
 
+import com.metreeca.json.Frame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import static com.metreeca.json.Frame.frame;
+import static com.metreeca.json.Values.iri;
 import static com.metreeca.rest.Toolbox.resource;
 import static com.metreeca.text.Model.test;
 import static com.metreeca.text.Token.corpus;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toList;
+
 final class GraphLinkerTest {
 
 	private static final Predicate<Token> NN=token -> token.is("NN", "NNS");
@@ -40,12 +52,50 @@ final class GraphLinkerTest {
 	private static final Predicate<Token> CD=token -> token.is("CD");
 
 	private static final Predicate<Token> STOP=
-			corpus(resource(Range.class, "models/corpus.stops.en.txt"))
+			corpus(resource(Range.class, "models/en/corpus.stops.en.txt"))
 					.or(corpus(resource(Range.class, "models/corpus.units.txt")));
 
 
+	private static List<String> link(final String text, final String... labels) {
+		return new Toolbox().get(() -> new GraphLinker()
+
+				.matcher(anchors -> Stream.of(labels).map(label ->
+						new Match<>(label, frame(iri("http://example.com/", label.replace(' ', '_'))))
+				))
+
+				.apply(new PatternTokenizer().apply(new Token(text)))
+
+				.map(match -> match.source().text())
+				.sorted()
+				.collect(toList())
+		);
+	}
+
+
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+	@Test void testAlignLabelsToWholeTokens() {
+		assertThat(link("Iceland is in Europe", "Iceland", "land", "Europe"))
+				.containsExactly("Europe", "Iceland");
+	}
+
+	@Test void testAlignRepeatedLabels() {
+		assertThat(link("Rome is Rome", "Rome"))
+				.containsExactly("Rome", "Rome");
+	}
+
+	@Test void testAlignBorderingTokens() {
+		assertThat(link("Visit the U.S. now", "U.S."))
+				.containsExactly("U.S.");
+	}
+
+	@Test void testPreferLongerAnchors() {
+		assertThat(link("New York is in New York State", "New York", "New York State", "York"))
+				.containsExactly("New York", "New York State");
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	public static void main(final String... args) {
 		new Toolbox().exec(() -> Xtream
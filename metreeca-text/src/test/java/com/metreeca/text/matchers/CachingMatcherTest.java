@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import com.metreeca.json.Frame;
+import com.metreeca.text.Match;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.metreeca.json.Frame.frame;
+import static com.metreeca.json.Values.iri;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toList;
+
+final class CachingMatcherTest {
+
+	private static final Map<String, List<String>> labels=Map.of(
+			"york", List.of("New York", "York"),
+			"rome", List.of("Rome"),
+			"new york city", List.of("New York", "York City", "Yorkshire")
+	);
+
+
+	private static final class Stub implements Function<Stream<String>, Stream<Match<String, Frame>>> {
+
+		private final List<List<String>> calls=new ArrayList<>();
+
+
+		@Override public Stream<Match<String, Frame>> apply(final Stream<String> anchors) {
+
+			final List<String> batch=anchors.collect(toList());
+
+			calls.add(batch);
+
+			return batch.stream()
+					.flatMap(anchor -> labels.getOrDefault(anchor, List.of()).stream())
+					.map(label -> new Match<>(label, frame(iri("app://test/", label.replace(' ', '-'))), 1));
+		}
+
+	}
+
+
+	private static List<String> match(final CachingMatcher matcher, final String... anchors) {
+		return matcher.apply(Stream.of(anchors)).map(Match::source).collect(toList());
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testResolveMissesInASingleCall() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub);
+
+		assertThat(match(matcher, "york", "rome", "york"))
+				.containsExactlyInAnyOrder("New York", "York", "Rome");
+
+		assertThat(stub.calls).containsExactly(List.of("york", "rome"));
+	}
+
+	@Test void testAttributeMatchesInBothDirections() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub);
+
+		assertThat(match(matcher, "york", "new york city"))
+				.containsExactlyInAnyOrder("New York", "York", "York City");
+
+		assertThat(match(matcher, "york"))
+				.containsExactlyInAnyOrder("New York", "York", "York City");
+
+		assertThat(match(matcher, "new york city"))
+				.containsExactlyInAnyOrder("New York", "York", "York City");
+
+		assertThat(stub.calls).containsExactly(List.of("york", "new york city"));
+	}
+
+	@Test void testReuseCachedMatches() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub);
+
+		match(matcher, "york");
+
+		assertThat(match(matcher, "york", "rome"))
+				.containsExactlyInAnyOrder("New York", "York", "Rome");
+
+		assertThat(stub.calls).containsExactly(List.of("york"), List.of("rome"));
+
+		assertThat(matcher.hits()).isEqualTo(1);
+		assertThat(matcher.misses()).isEqualTo(2);
+		assertThat(matcher.ratio()).isEqualTo(1/3.0);
+	}
+
+	@Test void testCacheUnmatchedAnchors() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub);
+
+		assertThat(match(matcher, "paris")).isEmpty();
+		assertThat(match(matcher, "paris")).isEmpty();
+
+		assertThat(stub.calls).containsExactly(List.of("paris"));
+	}
+
+	@Test void testEvictLeastRecentlyUsedAnchors() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub).size(1);
+
+		match(matcher, "york");
+		match(matcher, "rome");
+		match(matcher, "york");
+
+		assertThat(stub.calls).containsExactly(List.of("york"), List.of("rome"), List.of("york"));
+	}
+
+	@Test void testClearCache() {
+
+		final Stub stub=new Stub();
+		final CachingMatcher matcher=new CachingMatcher(stub);
+
+		match(matcher, "york");
+		matcher.clear();
+		match(matcher, "york");
+
+		assertThat(stub.calls).hasSize(2);
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import com.metreeca.json.Frame;
+import com.metreeca.rdf4j.services.Graph;
+import com.metreeca.rest.Toolbox;
+import com.metreeca.text.*;
+import com.metreeca.text.linkers.GraphLinker;
+import com.metreeca.text.tokenizers.PatternTokenizer;
+
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.metreeca.json.Values.iri;
+import static com.metreeca.json.Values.literal;
+import static com.metreeca.rdf4j.services.Graph.graph;
+import static com.metreeca.rest.Toolbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toList;
+
+final class GazetteerMatcherTest {
+
+	private static final IRI york=iri("app://test/york");
+	private static final IRI rome=iri("app://test/rome");
+	private static final IRI link=iri("app://test/link");
+
+
+	private static void exec(final Runnable task) {
+		new Toolbox()
+				.set(graph(), () -> new Graph(new SailRepository(new MemoryStore())))
+				.exec(task)
+				.clear();
+	}
+
+	private static void add(final Resource subject, final IRI predicate, final Value object) {
+		service(graph()).update(connection -> {
+
+			connection.add(subject, predicate, object);
+
+			return null;
+
+		});
+	}
+
+	private static void entities() {
+
+		add(york, RDF.TYPE, Notes.Entity);
+		add(york, RDFS.LABEL, literal("New York", "en"));
+		add(york, RDFS.COMMENT, literal("A city in the United States", "en"));
+		add(york, RDFS.SEEALSO, link);
+		add(york, Notes.weight, literal(3));
+
+		add(rome, RDF.TYPE, Notes.Entity);
+		add(rome, RDFS.LABEL, literal("Rome", "en"));
+		add(rome, RDFS.LABEL, literal("Roma", "it"));
+
+	}
+
+
+	private static List<Match<String, Frame>> match(final String... anchors) {
+		return new GazetteerMatcher().apply(Stream.of(anchors)).collect(toList());
+	}
+
+	private static List<String> labels(final String... anchors) {
+		return match(anchors).stream().map(Match::source).sorted().collect(toList());
+	}
+
+
+	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testMatchLabelsIncludingAnchorTokens() {
+		exec(() -> {
+
+			entities();
+
+			assertThat(labels("york")).containsExactly("New York");
+			assertThat(labels("new")).containsExactly("New York");
+			assertThat(labels("rome")).containsExactly("Rome");
+
+		});
+	}
+
+	@Test void testMatchLabelsIncludedInAnchors() {
+		exec(() -> {
+
+			entities();
+
+			assertThat(labels("new york city")).containsExactly("New York");
+			assertThat(labels("york", "rome")).containsExactly("New York", "Rome");
+
+		});
+	}
+
+	@Test void testIgnorePartialTokensAndOtherLanguages() {
+		exec(() -> {
+
+			entities();
+
+			assertThat(labels("yor")).isEmpty();
+			assertThat(labels("roma")).isEmpty();
+
+		});
+	}
+
+	@Test void testRetainOnlyFocusWeightAndLabels() {
+		exec(() -> {
+
+			entities();
+
+			assertThat(match("york")).singleElement().satisfies(match -> {
+
+				assertThat(match.weight()).isEqualTo(3.0);
+
+				assertThat(match.target().focus()).isEqualTo(york);
+				assertThat(match.target().model().map(Statement::getPredicate)).containsOnly(RDFS.LABEL);
+
+			});
+
+		});
+	}
+
+	@Test void testLinkMultiWordLabels() {
+		exec(() -> {
+
+			entities();
+
+			final List<Match<Chunk, Frame>> matches=new GraphLinker()
+
+					.matcher(new GazetteerMatcher())
+
+					.apply(new PatternTokenizer().apply(new Token("From Rome to New York")))
+
+					.collect(toList());
+
+			assertThat(matches.stream().map(match -> match.source().text()))
+					.containsExactlyInAnyOrder("Rome", "New York");
+
+			assertThat(matches.stream().map(match -> match.target().focus()))
+					.containsExactlyInAnyOrder(rome, york);
+
+		});
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toMap;
+
+final class GazetteerTest {
+
+	private static Gazetteer<String> gazetteer(final String... keys) {
+		return new Gazetteer<>(Arrays.stream(keys).collect(toMap(key -> key, List::of)));
+	}
+
+	private static List<String> scan(final Gazetteer<String> gazetteer, final String text) {
+
+		final List<String> matches=new ArrayList<>();
+
+		gazetteer.scan(text, matches::add);
+
+		return matches;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Test void testMatchWholeWords() {
+		assertThat(scan(gazetteer("iceland", "is"), "Iceland is cold"))
+				.containsExactly("iceland", "is");
+	}
+
+	@Test void testIgnorePartialWords() {
+		assertThat(scan(gazetteer("land", "ice"), "Iceland is cold"))
+				.isEmpty();
+	}
+
+	@Test void testMatchOverlappingKeys() {
+		assertThat(scan(gazetteer("new york", "york", "new york city", "city"), "new york city"))
+				.containsExactlyInAnyOrder("new york", "york", "new york city", "city");
+	}
+
+	@Test void testMatchKeysAfterFailures() {
+		assertThat(scan(gazetteer("a b x", "b c"), "a b c"))
+				.containsExactly("b c");
+	}
+
+	@Test void testMatchCaseInsensitively() {
+		assertThat(scan(gazetteer("Rome"), "ROME, rome and Rome"))
+				.containsExactly("Rome", "Rome", "Rome");
+	}
+
+	@Test void testMergeFoldedKeys() {
+
+		final Map<String, List<String>> entries=new LinkedHashMap<>();
+
+		entries.put("Paris", List.of("x"));
+		entries.put("paris", List.of("y"));
+
+		assertThat(scan(new Gazetteer<>(entries), "paris"))
+				.containsExactly("x", "y");
+	}
+
+	@Test void testHandleEmptyDictionaries() {
+		assertThat(scan(gazetteer(), "any text")).isEmpty();
+	}
+
+}
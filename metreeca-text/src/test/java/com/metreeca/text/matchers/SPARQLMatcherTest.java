@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2013-2022 Metreeca srl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.metreeca.text.matchers;
+
+import com.metreeca.rdf4j.services.Graph;
+import com.metreeca.rest.Toolbox;
+import com.metreeca.text.Notes;
+
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static com.metreeca.json.Values.iri;
+import static com.metreeca.json.Values.literal;
+import static com.metreeca.rdf4j.services.Graph.graph;
+import static com.metreeca.rest.Toolbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static java.util.stream.Collectors.toSet;
+
+final class SPARQLMatcherTest {
+
+	private static final IRI york=iri("app://test/york");
+	private static final IRI rome=iri("app://test/rome");
+	private static final IRI link=iri("app://test/link");
+
+
+	private static void exec(final Runnable task) {
+		new Toolbox()
+				.set(graph(), () -> new Graph(new SailRepository(new MemoryStore())))
+				.exec(task)
+				.clear();
+	}
+
+	private static void add(final Resource subject, final IRI predicate, final Value object) {
+		service(graph()).update(connection -> {
+
+			connection.add(subject, predicate, object);
+
+			return null;
+
+		});
+	}
+
+	private static void remove(final Resource subject, final IRI predicate, final Value object) {
+		service(graph()).update(connection -> {
+
+			connection.remove(subject, predicate, object);
+
+			return null;
+
+		});
+	}
+
+	private static Set<Value> values(final Resource subject, final IRI predicate) {
+		return service(graph()).query(connection -> connection.getStatements(subject, predicate, null).stream()
+				.map(Statement::getObject)
+				.collect(toSet())
+		);
+	}
+
+	private static void entities() {
+
+		add(york, RDF.TYPE, Notes.Entity);
+		add(york, RDFS.LABEL, literal("New York", "en"));
+		add(link, RDFS.SEEALSO, york);
+
+		add(rome, RDF.TYPE, Notes.Entity);
+		add(rome, RDFS.LABEL, literal("Rome", "en"));
+		add(rome, RDFS.LABEL, literal("Roma", "it"));
+
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+	@Nested final class Indexer {
+
+		@Test void testIndexAnchorsAndWeights() {
+			exec(() -> {
+
+				entities();
+
+				add(york, Notes.changed, literal(true));
+
+				final long revision=SPARQLMatcher.Indexer.revision();
+
+				new SPARQLMatcher.Indexer().batch(1).run();
+
+				assertThat(values(york, Notes.anchor)).containsExactlyInAnyOrder(literal("New"), literal("York"));
+				assertThat(values(rome, Notes.anchor)).containsExactlyInAnyOrder(literal("Rome"));
+
+				assertThat(values(york, Notes.weight)).containsExactly(literal(1));
+				assertThat(values(rome, Notes.weight)).isEmpty();
+
+				assertThat(values(york, Notes.changed)).isEmpty();
+
+				assertThat(SPARQLMatcher.Indexer.revision()).isGreaterThan(revision);
+
+			});
+		}
+
+		@Test void testReindexOnlyChangedEntities() {
+			exec(() -> {
+
+				entities();
+
+				new SPARQLMatcher.Indexer().run();
+
+				remove(york, Notes.anchor, literal("New")); // tamper with an unchanged entity
+
+				add(rome, RDFS.LABEL, literal("Eternal City", "en"));
+				add(link, RDFS.SEEALSO, rome);
+				add(rome, Notes.changed, literal(true));
+
+				new SPARQLMatcher.Indexer().incremental(true).batch(1).run();
+
+				assertThat(values(york, Notes.anchor)).containsExactly(literal("York"));
+				assertThat(values(rome, Notes.changed)).isEmpty();
+
+				assertThat(values(rome, Notes.anchor))
+						.containsExactlyInAnyOrder(literal("Rome"), literal("Eternal"), literal("City"));
+
+				assertThat(values(rome, Notes.weight)).containsExactly(literal(1));
+
+			});
+		}
+
+		@Test void testSkipUnchangedEntities() {
+			exec(() -> {
+
+				entities();
+
+				new SPARQLMatcher.Indexer().run();
+
+				remove(york, Notes.anchor, literal("New"));
+
+				final long revision=SPARQLMatcher.Indexer.revision();
+
+				new SPARQLMatcher.Indexer().incremental(true).run();
+
+				assertThat(values(york, Notes.anchor)).containsExactly(literal("York"));
+				assertThat(SPARQLMatcher.Indexer.revision()).isEqualTo(revision);
+
+			});
+		}
+
+		@Test void testReindexAllEntitiesInFullMode() {
+			exec(() -> {
+
+				entities();
+
+				new SPARQLMatcher.Indexer().run();
+
+				remove(york, Notes.anchor, literal("New"));
+
+				new SPARQLMatcher.Indexer().run();
+
+				assertThat(values(york, Notes.anchor)).containsExactlyInAnyOrder(literal("New"), literal("York"));
+
+			});
+		}
+
+	}
+
+}
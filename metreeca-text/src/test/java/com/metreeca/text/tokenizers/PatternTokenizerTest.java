@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import static java.util.stream.Collectors.toList;
 
@@ -122,4 +123,32 @@ final class PatternTokenizerTest {
 		).isEqualTo("(* (CUSTOM test))");
 
 	}
+
+	@Test void testContextualMapper() {
+		assertThat(new PatternTokenizer()
+				.pattern("(\\d+)-(\\d+)", (token, matcher) -> token.type(matcher.group(3)))
+				.pattern("(?<W>(\\w)\\w*)", (token, matcher) -> token.root(matcher.group(5)))
+				.apply(new Token("12-34 abc"))
+				.tokens()
+		)
+				.extracting(Token::toString, Token::root)
+				.containsExactly(tuple("(34 12-34)", ""), tuple("(W abc)", "a"));
+	}
+
+	@Test void testScanLazily() {
+
+		final PatternTokenizer.Tokens tokens=new PatternTokenizer().scan(new Token("Say 1,234 €"));
+
+		assertThat(tokens.size()).isEqualTo(3);
+
+		assertThat(tokens.lower(1)).isEqualTo(4);
+		assertThat(tokens.upper(1)).isEqualTo(9);
+
+		assertThat(tokens.type(0)).isEmpty();
+		assertThat(tokens.type(1)).isEqualTo("CD");
+		assertThat(tokens.type(2)).isEqualTo("SYM");
+
+		assertThat(tokens.token(2).toString()).isEqualTo("(SYM €)");
+	}
+
 }
\ No newline at end of file